@@ -0,0 +1,89 @@
+package com.algaworks.algafood.api.v1;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.algaworks.algafood.api.v1.controller.FluxoPedidoController;
+import com.algaworks.algafood.api.v1.controller.RestauranteController;
+import com.algaworks.algafood.api.v1.controller.UsuarioController;
+
+/**
+ * Links de uma página de pedidos resumidos (restaurante, cliente e confirmação de cada
+ * pedido), com linkTo(methodOn(...)) e com o AlgaLinks. Cada operação simula uma
+ * requisição nova, já que o LinkTemplate guarda a URI base na requisição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgaLinksBenchmark {
+
+	private static final String CODIGO_PEDIDO = "f9981ca4-5a5e-4da3-af04-933861df3e55";
+
+	@Param({ "1", "20" })
+	private int pedidos;
+
+	private final AlgaLinks algaLinks = new AlgaLinks();
+
+	@TearDown
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public List<Link> linkToMethodOn() {
+		iniciarRequisicao();
+		List<Link> links = new ArrayList<>(pedidos * 3);
+
+		for (long i = 1; i <= pedidos; i++) {
+			links.add(linkTo(methodOn(RestauranteController.class).buscar(i)).withRel("restaurante"));
+			links.add(linkTo(methodOn(UsuarioController.class).buscar(i)).withRel("cliente"));
+			links.add(linkTo(methodOn(FluxoPedidoController.class).confirmar(CODIGO_PEDIDO)).withRel("confirmar"));
+		}
+
+		return links;
+	}
+
+	@Benchmark
+	public List<Link> linkTemplate() {
+		iniciarRequisicao();
+		List<Link> links = new ArrayList<>(pedidos * 3);
+
+		for (long i = 1; i <= pedidos; i++) {
+			links.add(algaLinks.linkToRestaurante(i, "restaurante"));
+			links.add(algaLinks.linkToUsuario(i, "cliente"));
+			links.add(algaLinks.linkToConfirmacaoPedido(CODIGO_PEDIDO, "confirmar"));
+		}
+
+		return links;
+	}
+
+	private static void iniciarRequisicao() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/algafood/v1/pedidos");
+		request.setContextPath("/algafood");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.api.v1.model.PedidoModel;
+import com.algaworks.algafood.api.v1.model.RestauranteModel;
+import com.algaworks.algafood.core.modelmapper.ModelMapperConfig;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+
+/**
+ * Mapeamento de um pedido completo e de um restaurante com o ModelMapper (configuração
+ * da aplicação) e com os mapeadores escritos à mão. A paridade do resultado é verificada
+ * no MapeadorModeloTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeadorModeloBenchmark {
+
+	@Param({ "1", "10" })
+	private int itens;
+
+	private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+	private final PedidoModelMapper pedidoModelMapper = new PedidoModelMapper();
+
+	private final RestauranteModelMapper restauranteModelMapper = new RestauranteModelMapper();
+
+	private Pedido pedido;
+
+	@Setup
+	public void setUp() {
+		var enderecoModelMapper = new EnderecoModelMapper();
+		ReflectionTestUtils.setField(restauranteModelMapper, "enderecoModelMapper", enderecoModelMapper);
+		ReflectionTestUtils.setField(pedidoModelMapper, "restauranteModelMapper", restauranteModelMapper);
+		ReflectionTestUtils.setField(pedidoModelMapper, "enderecoModelMapper", enderecoModelMapper);
+
+		pedido = pedido();
+	}
+
+	@Benchmark
+	public PedidoModel pedidoModelMapper() {
+		return modelMapper.map(pedido, PedidoModel.class);
+	}
+
+	@Benchmark
+	public PedidoModel pedidoMapeador() {
+		var pedidoModel = new PedidoModel();
+		pedidoModelMapper.map(pedido, pedidoModel);
+		return pedidoModel;
+	}
+
+	@Benchmark
+	public RestauranteModel restauranteModelMapper() {
+		return modelMapper.map(pedido.getRestaurante(), RestauranteModel.class);
+	}
+
+	@Benchmark
+	public RestauranteModel restauranteMapeador() {
+		return restauranteModelMapper.toModel(pedido.getRestaurante());
+	}
+
+	private Pedido pedido() {
+		var estado = new Estado();
+		estado.setId(1L);
+		estado.setNome("Minas Gerais");
+
+		var cidade = new Cidade();
+		cidade.setId(1L);
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setId(1L);
+		cozinha.setNome("Tailandesa");
+
+		var restaurante = new Restaurante();
+		restaurante.setId(1L);
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10.00"));
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+
+		var cliente = new Usuario();
+		cliente.setId(1L);
+		cliente.setNome("João da Silva");
+		cliente.setEmail("joao@algafood.com.br");
+
+		var formaPagamento = new FormaPagamento();
+		formaPagamento.setId(1L);
+		formaPagamento.setDescricao("Cartão de crédito");
+
+		var pedido = new Pedido();
+		pedido.setCodigo("f9981ca4-5a5e-4da3-af04-933861df3e55");
+		pedido.setRestaurante(restaurante);
+		pedido.setCliente(cliente);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setEnderecoEntrega(endereco);
+
+		List<ItemPedido> itensPedido = new ArrayList<>(itens);
+
+		for (long id = 1; id <= itens; id++) {
+			var produto = new Produto();
+			produto.setId(id);
+			produto.setNome("Produto " + id);
+			produto.setPreco(new BigDecimal("32.90"));
+
+			var item = new ItemPedido();
+			item.setPedido(pedido);
+			item.setProduto(produto);
+			item.setQuantidade(2);
+			item.setPrecoUnitario(produto.getPreco());
+			item.calcularPrecoTotal();
+			itensPedido.add(item);
+		}
+
+		pedido.setItens(itensPedido);
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+
+		return pedido;
+	}
+
+}
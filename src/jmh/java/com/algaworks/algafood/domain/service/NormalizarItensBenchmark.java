@@ -0,0 +1,84 @@
+package com.algaworks.algafood.domain.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+
+/**
+ * Junção dos itens repetidos de um carrinho na emissão do pedido. Metade das linhas
+ * repete um produto já presente, metade delas com observação.
+ *
+ * Os itens são alterados pela junção, então cada execução monta o carrinho de novo;
+ * o benchmark montarCarrinho mede só essa parte, para ser descontada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizarItensBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	private int linhas;
+
+	private final EmissaoPedidoService emissaoPedidoService = new EmissaoPedidoService();
+
+	private List<Produto> produtos;
+
+	@Setup
+	public void setUp() {
+		produtos = new ArrayList<>(linhas / 2);
+
+		for (long id = 1; id <= Math.max(linhas / 2, 1); id++) {
+			Produto produto = new Produto();
+			produto.setId(id);
+			produtos.add(produto);
+		}
+	}
+
+	@Benchmark
+	public Pedido montarCarrinho() {
+		return montarPedido();
+	}
+
+	@Benchmark
+	public Pedido normalizarItens() {
+		Pedido pedido = montarPedido();
+		emissaoPedidoService.normalizarItens(pedido);
+		return pedido;
+	}
+
+	private Pedido montarPedido() {
+		Pedido pedido = new Pedido();
+		List<ItemPedido> itens = new ArrayList<>(linhas);
+
+		for (int i = 0; i < linhas; i++) {
+			ItemPedido item = new ItemPedido();
+			item.setProduto(produtos.get(i % produtos.size()));
+			item.setQuantidade(1);
+			item.setObservacao(i % 2 == 0 ? "sem cebola" : null);
+			itens.add(item);
+		}
+
+		pedido.setItens(itens);
+		return pedido;
+	}
+
+}
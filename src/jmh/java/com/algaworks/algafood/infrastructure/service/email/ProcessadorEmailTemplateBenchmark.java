@@ -0,0 +1,135 @@
+package com.algaworks.algafood.infrastructure.service.email;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.freemarker.FreeMarkerConfigurationFactory;
+import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
+
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+import com.algaworks.algafood.domain.model.dto.NotificacaoPedido;
+import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
+
+import freemarker.template.Configuration;
+
+/**
+ * Renderização dos e-mails de pedido confirmado e cancelado a partir da NotificacaoPedido.
+ * O benchmark configuration resolve o template pela Configuration do FreeMarker e
+ * gera a String com o FreeMarkerTemplateUtils, como era feito antes do cache de templates
+ * e do buffer por thread do ProcessadorEmailTemplate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessadorEmailTemplateBenchmark {
+
+	@Param({ "emails/pedido-confirmado.html", "emails/pedido-cancelado.html" })
+	private String template;
+
+	@Param({ "2", "20" })
+	private int itens;
+
+	private Configuration freemarkerConfig;
+
+	private ProcessadorEmailTemplate processadorEmailTemplate;
+
+	private Mensagem mensagem;
+
+	@Setup
+	public void setUp() throws Exception {
+		var settings = new Properties();
+		settings.setProperty(Configuration.LOCALE_KEY, "pt_BR");
+
+		var configurationFactory = new FreeMarkerConfigurationFactory();
+		configurationFactory.setTemplateLoaderPath("classpath:/templates/");
+		configurationFactory.setDefaultEncoding("UTF-8");
+		configurationFactory.setFreemarkerSettings(settings);
+		freemarkerConfig = configurationFactory.createConfiguration();
+
+		processadorEmailTemplate = new ProcessadorEmailTemplate();
+		ReflectionTestUtils.setField(processadorEmailTemplate, "freemarkerConfig", freemarkerConfig);
+		ReflectionTestUtils.setField(processadorEmailTemplate, "resourcePatternResolver",
+				new PathMatchingResourcePatternResolver());
+		processadorEmailTemplate.carregarTemplates();
+
+		mensagem = Mensagem.builder()
+				.assunto("Pedido")
+				.corpo(template)
+				.variavel("pedido", NotificacaoPedido.de(pedido()))
+				.destinatario("cliente@algafood.com.br")
+				.build();
+	}
+
+	@Benchmark
+	public String configuration() throws Exception {
+		return FreeMarkerTemplateUtils.processTemplateIntoString(
+				freemarkerConfig.getTemplate(mensagem.getCorpo()), mensagem.getVariaveis());
+	}
+
+	@Benchmark
+	public String processadorEmailTemplate() {
+		return processadorEmailTemplate.processarTemplate(mensagem);
+	}
+
+	private Pedido pedido() {
+		var cliente = new Usuario();
+		cliente.setNome("João da Silva");
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10.00"));
+
+		var formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Cartão de crédito");
+
+		var pedido = new Pedido();
+		pedido.setCliente(cliente);
+		pedido.setRestaurante(restaurante);
+		pedido.setFormaPagamento(formaPagamento);
+
+		List<ItemPedido> itensPedido = new ArrayList<>(itens);
+
+		for (int i = 1; i <= itens; i++) {
+			var produto = new Produto();
+			produto.setNome("Produto " + i);
+
+			var item = new ItemPedido();
+			item.setProduto(produto);
+			item.setQuantidade(2);
+			item.setPrecoUnitario(new BigDecimal("32.90"));
+			item.calcularPrecoTotal();
+			itensPedido.add(item);
+		}
+
+		pedido.setItens(itensPedido);
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+
+		return pedido;
+	}
+
+}
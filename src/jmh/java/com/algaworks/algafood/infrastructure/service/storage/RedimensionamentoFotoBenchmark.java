@@ -0,0 +1,127 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.RedimensionamentoFotoService.FotoRedimensionada;
+
+/**
+ * Geração das variantes padrão (128, 512 e 1024 px) de uma foto 3:2. O benchmark
+ * direto lê a imagem inteira com ImageIO.read e desenha cada variante a partir do
+ * original, sem subsampling nem reduções sucessivas. Ele serve de referência de custo,
+ * não de qualidade: reduzir mais de 2x numa passada só com interpolação bilinear gera
+ * serrilhado, e o JPEG sai com a qualidade padrão do ImageIO (0.75) em vez da configurada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedimensionamentoFotoBenchmark {
+
+	@Param({ "jpeg", "png" })
+	private String formato;
+
+	@Param({ "1200", "4000" })
+	private int largura;
+
+	private final StorageProperties storageProperties = new StorageProperties();
+
+	private final ImageIoRedimensionamentoFotoService redimensionamentoFotoService =
+			new ImageIoRedimensionamentoFotoService();
+
+	private byte[] original;
+
+	private String contentType;
+
+	@Setup
+	public void setUp() throws IOException {
+		ReflectionTestUtils.setField(redimensionamentoFotoService, "storageProperties", storageProperties);
+
+		boolean png = "png".equals(formato);
+		contentType = png ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE;
+		original = gerarFoto(largura, largura * 2 / 3, png);
+	}
+
+	@Benchmark
+	public List<FotoRedimensionada> redimensionar() {
+		return redimensionamentoFotoService.redimensionar(new ByteArrayInputStream(original), contentType,
+				storageProperties.getVariantes().getLarguras());
+	}
+
+	@Benchmark
+	public List<byte[]> redimensionarDireto() throws IOException {
+		BufferedImage imagem = ImageIO.read(new ByteArrayInputStream(original));
+		List<byte[]> variantes = new ArrayList<>();
+
+		for (int larguraVariante : storageProperties.getVariantes().getLarguras()) {
+			if (larguraVariante >= imagem.getWidth()) {
+				continue;
+			}
+
+			int altura = imagem.getHeight() * larguraVariante / imagem.getWidth();
+			var variante = new BufferedImage(larguraVariante, altura, imagem.getType());
+			Graphics2D graphics = variante.createGraphics();
+
+			try {
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.drawImage(imagem, 0, 0, larguraVariante, altura, null);
+			} finally {
+				graphics.dispose();
+			}
+
+			var saida = new ByteArrayOutputStream();
+			ImageIO.write(variante, formato, saida);
+			variantes.add(saida.toByteArray());
+		}
+
+		return variantes;
+	}
+
+	// Gradiente com ruído, para que a compressão se comporte como numa foto de verdade
+	private static byte[] gerarFoto(int largura, int altura, boolean png) throws IOException {
+		var random = new Random(42);
+		var foto = new BufferedImage(largura, altura, png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+		for (int y = 0; y < altura; y++) {
+			for (int x = 0; x < largura; x++) {
+				int r = (x * 255 / largura + random.nextInt(32)) & 0xFF;
+				int g = (y * 255 / altura + random.nextInt(32)) & 0xFF;
+				int b = random.nextInt(64);
+				foto.setRGB(x, y, 0xFF000000 | r << 16 | g << 8 | b);
+			}
+		}
+
+		var saida = new ByteArrayOutputStream();
+		ImageIO.write(foto, png ? "png" : "jpeg", saida);
+
+		return saida.toByteArray();
+	}
+
+}
@@ -1,6 +1,5 @@
 package com.algaworks.algafood.api.v1;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import org.springframework.hateoas.IanaLinkRelations;
@@ -10,6 +9,7 @@ import org.springframework.hateoas.TemplateVariable.VariableType;
 import org.springframework.hateoas.TemplateVariables;
 import org.springframework.hateoas.UriTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.algaworks.algafood.api.v1.controller.CidadeController;
 import com.algaworks.algafood.api.v1.controller.CozinhaController;
@@ -28,6 +28,7 @@ import com.algaworks.algafood.api.v1.controller.RestauranteProdutoFotoController
 import com.algaworks.algafood.api.v1.controller.RestauranteUsuarioResponsavelController;
 import com.algaworks.algafood.api.v1.controller.UsuarioController;
 import com.algaworks.algafood.api.v1.controller.UsuarioGrupoController;
+import com.algaworks.algafood.domain.filter.PedidoFilter;
 
 @Component
 public class AlgaLinks {
@@ -36,36 +37,110 @@ public class AlgaLinks {
 			new TemplateVariable("page", VariableType.REQUEST_PARAM),
 			new TemplateVariable("size", VariableType.REQUEST_PARAM),
 			new TemplateVariable("sort", VariableType.REQUEST_PARAM));
+	
+	private static final TemplateVariables PEDIDOS_FILTRO_VARIABLES = new TemplateVariables(
+			new TemplateVariable("clienteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM));
+	
+	private static final TemplateVariables VENDAS_DIARIAS_FILTRO_VARIABLES = new TemplateVariables(
+			new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM),
+			new TemplateVariable("timeOffset", VariableType.REQUEST_PARAM));
+	
+	// Rotas resolvidas uma única vez na inicialização; a cada link só as variáveis são expandidas
+	private final LinkTemplate pedidos = LinkTemplate.of(PedidoController.class);
+	private final LinkTemplate confirmacaoPedido = LinkTemplate.of(methodOn(FluxoPedidoController.class).confirmar(null));
+	private final LinkTemplate entregaPedido = LinkTemplate.of(methodOn(FluxoPedidoController.class).entregar(null));
+	private final LinkTemplate cancelamentoPedido = LinkTemplate.of(methodOn(FluxoPedidoController.class).cancelar(null));
+	private final LinkTemplate restaurante = LinkTemplate.of(methodOn(RestauranteController.class).buscar(null));
+	private final LinkTemplate restaurantes = LinkTemplate.of(RestauranteController.class);
+	private final LinkTemplate restauranteResponsaveis = LinkTemplate.of(methodOn(RestauranteUsuarioResponsavelController.class).listar(null));
+	private final LinkTemplate restauranteResponsavelDesassociacao = LinkTemplate.of(methodOn(RestauranteUsuarioResponsavelController.class).desassociarResponsavel(null, null));
+	private final LinkTemplate restauranteResponsavelAssociacao = LinkTemplate.of(methodOn(RestauranteUsuarioResponsavelController.class).associarResponsavel(null, null));
+	private final LinkTemplate restauranteFormasPagamento = LinkTemplate.of(methodOn(RestauranteFormaPagamentoController.class).listar(null));
+	private final LinkTemplate restauranteFormaPagamentoAssociacao = LinkTemplate.of(methodOn(RestauranteFormaPagamentoController.class).associar(null, null));
+	private final LinkTemplate restauranteFormaPagamentoDesassociacao = LinkTemplate.of(methodOn(RestauranteFormaPagamentoController.class).desassociar(null, null));
+	private final LinkTemplate formasPagamento = LinkTemplate.of(FormaPagamentoController.class);
+	private final LinkTemplate formaPagamento = LinkTemplate.of(methodOn(FormaPagamentoController.class).buscar(null, null));
+	private final LinkTemplate restauranteAbertura = LinkTemplate.of(methodOn(RestauranteController.class).abrir(null));
+	private final LinkTemplate restauranteFechamento = LinkTemplate.of(methodOn(RestauranteController.class).fechar(null));
+	private final LinkTemplate restauranteInativacao = LinkTemplate.of(methodOn(RestauranteController.class).inativar(null));
+	private final LinkTemplate restauranteAtivacao = LinkTemplate.of(methodOn(RestauranteController.class).ativar(null));
+	private final LinkTemplate cozinhas = LinkTemplate.of(CozinhaController.class);
+	private final LinkTemplate cozinha = LinkTemplate.of(methodOn(CozinhaController.class).buscar(null));
+	private final LinkTemplate usuario = LinkTemplate.of(methodOn(UsuarioController.class).buscar(null));
+	private final LinkTemplate usuarios = LinkTemplate.of(UsuarioController.class);
+	private final LinkTemplate gruposUsuario = LinkTemplate.of(methodOn(UsuarioGrupoController.class).listar(null));
+	private final LinkTemplate usuarioGrupoAssociacao = LinkTemplate.of(methodOn(UsuarioGrupoController.class).associarGrupo(null, null));
+	private final LinkTemplate usuarioGrupoDesassociacao = LinkTemplate.of(methodOn(UsuarioGrupoController.class).desassociarGrupo(null, null));
+	private final LinkTemplate grupos = LinkTemplate.of(GrupoController.class);
+	private final LinkTemplate grupo = LinkTemplate.of(methodOn(GrupoController.class).buscar(null));
+	private final LinkTemplate grupoPermissoes = LinkTemplate.of(methodOn(GrupoPermissaoController.class).listar(null));
+	private final LinkTemplate grupoPermissaoAssociacao = LinkTemplate.of(methodOn(GrupoPermissaoController.class).associarPermissao(null, null));
+	private final LinkTemplate grupoPermissaoDesassociacao = LinkTemplate.of(methodOn(GrupoPermissaoController.class).desassociarPermissao(null, null));
+	private final LinkTemplate permissoes = LinkTemplate.of(PermissaoController.class);
+	private final LinkTemplate cidades = LinkTemplate.of(CidadeController.class);
+	private final LinkTemplate cidade = LinkTemplate.of(methodOn(CidadeController.class).buscar(null));
+	private final LinkTemplate estados = LinkTemplate.of(EstadoController.class);
+	private final LinkTemplate estado = LinkTemplate.of(methodOn(EstadoController.class).buscar(null));
+	private final LinkTemplate produto = LinkTemplate.of(methodOn(RestauranteProdutoController.class).buscar(null, null));
+	private final LinkTemplate produtos = LinkTemplate.of(methodOn(RestauranteProdutoController.class).listar(null, null));
+	private final LinkTemplate fotoProduto = LinkTemplate.of(methodOn(RestauranteProdutoFotoController.class).buscarFoto(null, null));
+	private final LinkTemplate estatisticas = LinkTemplate.of(EstatisticasController.class);
+	private final LinkTemplate estatisticasVendasDiarias = LinkTemplate.of(methodOn(EstatisticasController.class).consultarVendasDiarias(null, null));
 
 	//Pedidos
 	public Link linkToPedidos(String rel) {
-		TemplateVariables filtroVariables = new TemplateVariables(
-				new TemplateVariable("clienteId", VariableType.REQUEST_PARAM),
-				new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
-				new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
-				new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM));
+		String pedidosUrl = pedidos.expandirCaminho();
 
-		String pedidosUrl = linkTo(PedidoController.class).toUri().toString();
-
-		return Link.of(UriTemplate.of(pedidosUrl, PAGINACAO_VARIABLES.concat(filtroVariables)), rel);
+		return Link.of(UriTemplate.of(pedidosUrl, PAGINACAO_VARIABLES.concat(PEDIDOS_FILTRO_VARIABLES)), rel);
+	}
+	
+	//Pedidos - paginação por cursor
+	public Link linkToPedidos(PedidoFilter filtro, String cursor, int size, String rel) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(pedidos.expandirCaminho());
+		
+		if (filtro.getClienteId() != null) {
+			builder.queryParam("clienteId", filtro.getClienteId());
+		}
+		
+		if (filtro.getRestauranteId() != null) {
+			builder.queryParam("restauranteId", filtro.getRestauranteId());
+		}
+		
+		if (filtro.getDataCriacaoInicio() != null) {
+			builder.queryParam("dataCriacaoInicio", filtro.getDataCriacaoInicio().toInstant());
+		}
+		
+		if (filtro.getDataCriacaoFim() != null) {
+			builder.queryParam("dataCriacaoFim", filtro.getDataCriacaoFim().toInstant());
+		}
+		
+		builder.queryParam("size", size);
+		builder.queryParam("cursor", cursor);
+		
+		return Link.of(builder.build().toUriString(), rel);
 	}
 
 	//Pedido - confirmação, entrega e cancelamento
 	public Link linkToConfirmacaoPedido(String codigoPedido, String rel) {
-		return linkTo(methodOn(FluxoPedidoController.class).confirmar(codigoPedido)).withRel(rel);
+		return confirmacaoPedido.link(rel, codigoPedido);
 	}
 
 	public Link linkToEntregaPedido(String codigoPedido, String rel) {
-		return linkTo(methodOn(FluxoPedidoController.class).entregar(codigoPedido)).withRel(rel);
+		return entregaPedido.link(rel, codigoPedido);
 	}
 
 	public Link linkToCancelamentoPedido(String codigoPedido, String rel) {
-		return linkTo(methodOn(FluxoPedidoController.class).cancelar(codigoPedido)).withRel(rel);
+		return cancelamentoPedido.link(rel, codigoPedido);
 	}
 	
 	//Restaurantes
 	public Link linkToRestaurante(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteController.class).buscar(restauranteId)).withRel(rel);
+		return restaurante.link(rel, restauranteId);
 	}
 
 	public Link linkToRestaurante(Long restauranteId) {
@@ -73,7 +148,7 @@ public class AlgaLinks {
 	}
 
 	public Link linkToRestaurantes(String rel) {
-		return linkTo(RestauranteController.class).withRel(rel);
+		return restaurantes.link(rel);
 	}
 
 	public Link linkToRestaurantes() {
@@ -82,7 +157,7 @@ public class AlgaLinks {
 	
 	//Responsaveis restaurante	
 	public Link linkToRestauranteResponsaveis(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteUsuarioResponsavelController.class).listar(restauranteId)).withRel(rel);
+		return restauranteResponsaveis.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteResponsaveis(Long restauranteId) {
@@ -92,16 +167,16 @@ public class AlgaLinks {
 	//Responsaveis restaurante associação e desassociação
 	
 	public Link linkToRestauranteResponsavelDesassociacao(Long restauranteId, Long usuarioId, String rel) {
-		return linkTo(methodOn(RestauranteUsuarioResponsavelController.class).desassociarResponsavel(restauranteId, usuarioId)).withRel(rel);
+		return restauranteResponsavelDesassociacao.link(rel, restauranteId, usuarioId);
 	}
 	
 	public Link linkToRestauranteResponsavelAssociacao(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteUsuarioResponsavelController.class).associarResponsavel(restauranteId, null)).withRel(rel);
+		return restauranteResponsavelAssociacao.link(rel, restauranteId);
 	}
 	
 	//Restaurante - Forma de Pagamento
 	public Link linkToRestauranteFormasPagamento(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteFormaPagamentoController.class).listar(restauranteId)).withRel(rel);
+		return restauranteFormasPagamento.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteFormasPagamento(Long restauranteId) {
@@ -111,17 +186,16 @@ public class AlgaLinks {
 	//Restaurante - Forma de Pagamento associação e desassociação
 	
 	public Link linkToRestauranteFormaPagamentoAssociacao(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteFormaPagamentoController.class).associar(restauranteId, null)).withRel(rel);
+		return restauranteFormaPagamentoAssociacao.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteFormaPagamentoDesassociacao(Long restauranteId, Long formaPagamentoId, String rel) {
-		return linkTo(methodOn(RestauranteFormaPagamentoController.class).desassociar(restauranteId, formaPagamentoId))
-				.withRel(rel);
+		return restauranteFormaPagamentoDesassociacao.link(rel, restauranteId, formaPagamentoId);
 	}
 	
 	//Forma de Pagamento
 	public Link linkToFormasPagamento(String rel) {
-		return linkTo(FormaPagamentoController.class).withRel(rel);
+		return formasPagamento.link(rel);
 	}
 
 	public Link linkToFormasPagamento() {
@@ -129,7 +203,7 @@ public class AlgaLinks {
 	}
 
 	public Link linkToFormaPagamento(Long formaPagamentoId, String rel) {
-		return linkTo(FormaPagamentoController.class).slash(formaPagamentoId).withRel(rel);
+		return formaPagamento.link(rel, formaPagamentoId);
 	}
 
 	public Link linkToFormaPagamento(Long formaPagamentoId) {
@@ -138,19 +212,19 @@ public class AlgaLinks {
 
 	//Restaurantes - abrir, fechar, ativa, inativar
 	public Link linkToRestauranteAbertura(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteController.class).abrir(restauranteId)).withRel(rel);
+		return restauranteAbertura.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteFechamento(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteController.class).fechar(restauranteId)).withRel(rel);
+		return restauranteFechamento.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteInativacao(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteController.class).inativar(restauranteId)).withRel(rel);
+		return restauranteInativacao.link(rel, restauranteId);
 	}
 
 	public Link linkToRestauranteAtivacao(Long restauranteId, String rel) {
-		return linkTo(methodOn(RestauranteController.class).ativar(restauranteId)).withRel(rel);
+		return restauranteAtivacao.link(rel, restauranteId);
 	}
 	
 	//Cozinhas
@@ -159,11 +233,11 @@ public class AlgaLinks {
 	}
 
 	public Link linkToCozinhas(String rel) {
-		return linkTo(CozinhaController.class).withRel(rel);
+		return cozinhas.link(rel);
 	}
 
 	public Link linkToCozinha(Long cozinhaId, String rel) {
-		return linkTo(methodOn(CozinhaController.class).buscar(cozinhaId)).withRel(rel);
+		return cozinha.link(rel, cozinhaId);
 	}
 
 	public Link linkToCozinha(Long cozinhaId) {
@@ -176,11 +250,11 @@ public class AlgaLinks {
 	}
 
 	public Link linkToUsuario(Long usuarioId, String rel) {
-		return linkTo(methodOn(UsuarioController.class).buscar(usuarioId)).withRel(rel);
+		return usuario.link(rel, usuarioId);
 	}
 
 	public Link linkToUsuarios(String rel) {
-		return linkTo(UsuarioController.class).withRel(rel);
+		return usuarios.link(rel);
 	}
 
 	public Link linkToUsuarios() {
@@ -189,7 +263,7 @@ public class AlgaLinks {
 	
 	//GrupoUsuario
 	public Link linkToGruposUsuario(Long usuarioId, String rel) {
-		return linkTo(methodOn(UsuarioGrupoController.class).listar(usuarioId)).withRel(rel);
+		return gruposUsuario.link(rel, usuarioId);
 	}
 
 	public Link linkToGruposUsuario(Long usuarioId) {
@@ -197,35 +271,33 @@ public class AlgaLinks {
 	}
 	
 	public Link linkToUsuarioGrupoAssociacao(Long usuarioId, String rel) {
-	    return linkTo(methodOn(UsuarioGrupoController.class)
-	            .associarGrupo(usuarioId, null)).withRel(rel);
+	    return usuarioGrupoAssociacao.link(rel, usuarioId);
 	}
 
 	public Link linkToUsuarioGrupoDesassociacao(Long usuarioId, Long grupoId, String rel) {
-	    return linkTo(methodOn(UsuarioGrupoController.class)
-	            .desassociarGrupo(usuarioId, grupoId)).withRel(rel);
+	    return usuarioGrupoDesassociacao.link(rel, usuarioId, grupoId);
 	}  
 	
 	//Grupos
 	public Link linkToGrupos(String rel) {
-		return linkTo(GrupoController.class).withRel(rel);
+		return grupos.link(rel);
 	}
 	
 	public Link linkToGrupos() {
-		return linkTo(GrupoController.class).withRel(IanaLinkRelations.SELF.value());
+		return grupos.link(IanaLinkRelations.SELF.value());
 	}
 	
 	public Link linkToGrupo(Long grupoId, String rel) {
-		return linkTo(methodOn(GrupoController.class).buscar(grupoId)).withRel(rel);
+		return grupo.link(rel, grupoId);
 	}
 	
 	public Link linkToGrupo(Long grupoId) {
-		return linkTo(methodOn(GrupoController.class).buscar(grupoId)).withRel(IanaLinkRelations.SELF.value());
+		return grupo.link(IanaLinkRelations.SELF.value(), grupoId);
 	}
 	
 	//Grupo Permissão
 	public Link linkToGrupoPermissoes(Long grupoId, String rel) {
-		return linkTo(methodOn(GrupoPermissaoController.class).listar(grupoId)).withRel(rel);
+		return grupoPermissoes.link(rel, grupoId);
 	}
 	
 	public Link linkToGrupoPermissoes(Long grupoId) {
@@ -233,18 +305,16 @@ public class AlgaLinks {
 	}
 
 	public Link linkToGrupoPermissaoAssociacao(Long grupoId, String rel) {
-	    return linkTo(methodOn(GrupoPermissaoController.class)
-	            .associarPermissao(grupoId, null)).withRel(rel);
+	    return grupoPermissaoAssociacao.link(rel, grupoId);
 	}
 
 	public Link linkToGrupoPermissaoDesassociacao(Long grupoId, Long permissaoId, String rel) {
-	    return linkTo(methodOn(GrupoPermissaoController.class)
-	            .desassociarPermissao(grupoId, permissaoId)).withRel(rel);
+	    return grupoPermissaoDesassociacao.link(rel, grupoId, permissaoId);
 	}
 	
 	//Permissões
 	public Link linkToPermissoes(String rel) {
-	    return linkTo(PermissaoController.class).withRel(rel);
+	    return permissoes.link(rel);
 	}
 
 	public Link linkToPermissoes() {
@@ -253,7 +323,7 @@ public class AlgaLinks {
 	
 	//Cidades
 	public Link linkToCidades(String rel) {
-		return linkTo(CidadeController.class).withRel(rel);
+		return cidades.link(rel);
 	}
 
 	public Link linkToCidades() {
@@ -265,7 +335,7 @@ public class AlgaLinks {
 	}
 
 	public Link linkToCidade(Long cidadeId, String rel) {
-		return linkTo(methodOn(CidadeController.class).buscar(cidadeId)).withRel(rel);
+		return cidade.link(rel, cidadeId);
 	}
 	
 	//Estados
@@ -274,7 +344,7 @@ public class AlgaLinks {
 	}
 
 	public Link linkToEstados(String rel) {
-		return linkTo(EstadoController.class).withRel(rel);
+		return estados.link(rel);
 	}
 
 	public Link linkToEstado(Long estadoId) {
@@ -282,12 +352,12 @@ public class AlgaLinks {
 	}
 
 	public Link linkToEstado(Long estadoId, String rel) {
-		return linkTo(methodOn(EstadoController.class).buscar(estadoId)).withRel(rel);
+		return estado.link(rel, estadoId);
 	}
 
 	//Produtos
 	public Link linkToProduto(Long restauranteId, Long produtoId, String rel) {
-		return linkTo(methodOn(RestauranteProdutoController.class).buscar(restauranteId, produtoId)).withRel(rel);
+		return produto.link(rel, restauranteId, produtoId);
 	}
 
 	public Link linkToProduto(Long restauranteId, Long produtoId) {
@@ -295,8 +365,7 @@ public class AlgaLinks {
 	}
 	
 	public Link linkToProdutos(Long restauranteId, String rel) {
-	    return linkTo(methodOn(RestauranteProdutoController.class)
-	            .listar(restauranteId, null)).withRel(rel);
+	    return produtos.link(rel, restauranteId);
 	}
 
 	public Link linkToProdutos(Long restauranteId) {
@@ -305,30 +374,27 @@ public class AlgaLinks {
 	
 	//FotoProduto
 	public Link linkToFotoProduto(Long restauranteId, Long produtoId, String rel) {
-	    return linkTo(methodOn(RestauranteProdutoFotoController.class)
-	            .buscarFoto(restauranteId, produtoId)).withRel(rel);
+	    return fotoProduto.link(rel, restauranteId, produtoId);
 	}
 
 	public Link linkToFotoProduto(Long restauranteId, Long produtoId) {
 	    return linkToFotoProduto(restauranteId, produtoId, IanaLinkRelations.SELF.value());
 	}
 	
+	// A imagem na versão informada; a URL muda quando a foto é substituída
+	public Link linkToFotoProdutoConteudo(Long restauranteId, Long produtoId, String versao, String rel) {
+	    return Link.of(fotoProduto.expandirCaminho(restauranteId, produtoId) + "?v=" + versao, rel);
+	}
+	
 	//Estatísticas
 	public Link linkToEstatisticas(String rel) {
-	    return linkTo(EstatisticasController.class).withRel(rel);
+	    return estatisticas.link(rel);
 	}
 
 	public Link linkToEstatisticasVendasDiarias(String rel) {
-	    TemplateVariables filtroVariables = new TemplateVariables(
-	            new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
-	            new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
-	            new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM),
-	            new TemplateVariable("timeOffset", VariableType.REQUEST_PARAM));
-	    
-	    String pedidosUrl = linkTo(methodOn(EstatisticasController.class)
-	            .consultarVendasDiarias(null, null)).toUri().toString();
+	    String pedidosUrl = estatisticasVendasDiarias.expandirCaminho();
 	    
-	    return Link.of(UriTemplate.of(pedidosUrl, filtroVariables), rel);
+	    return Link.of(UriTemplate.of(pedidosUrl, VENDAS_DIARIAS_FILTRO_VARIABLES), rel);
 	}       
 
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.algaworks.algafood.api.v1;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Caminho de um link resolvido uma única vez pelo WebMvcLinkBuilder, sem requisição 
+ * corrente, mantendo as variáveis de template. Na geração do link só é preciso 
+ * prefixar a URI base da requisição e substituir as variáveis de caminho.
+ * 
+ * Variáveis sem valor (null) permanecem no template, como acontece no linkTo(methodOn(...)).
+ */
+public class LinkTemplate {
+
+	private static final String ATRIBUTO_URI_BASE = LinkTemplate.class.getName() + ".uriBase";
+	
+	private static final Pattern VARIAVEL_CAMINHO = Pattern.compile("\\{[^?&/}]+\\}");
+	
+	private final String caminho;
+	
+	private final String variaveisRequisicao;
+	
+	private LinkTemplate(String href) {
+		int inicioVariaveisRequisicao = href.indexOf("{?");
+		
+		if (inicioVariaveisRequisicao < 0) {
+			this.caminho = href;
+			this.variaveisRequisicao = "";
+		} else {
+			this.caminho = href.substring(0, inicioVariaveisRequisicao);
+			this.variaveisRequisicao = href.substring(inicioVariaveisRequisicao);
+		}
+	}
+	
+	public static LinkTemplate of(Object invocationValue) {
+		return new LinkTemplate(linkTo(invocationValue).withSelfRel().getHref());
+	}
+	
+	public static LinkTemplate of(Class<?> controller) {
+		return new LinkTemplate(linkTo(controller).withSelfRel().getHref());
+	}
+	
+	public String expandir(Object... valores) {
+		return expandirCaminho(valores) + variaveisRequisicao;
+	}
+	
+	// Equivalente ao linkTo(...).toUri(): apenas o caminho, sem as variáveis de parâmetros da requisição
+	public String expandirCaminho(Object... valores) {
+		StringBuilder href = new StringBuilder(getUriBase());
+		Matcher matcher = VARIAVEL_CAMINHO.matcher(caminho);
+		
+		int indiceValor = 0;
+		int fimUltimaVariavel = 0;
+		
+		while (matcher.find()) {
+			Object valor = indiceValor < valores.length ? valores[indiceValor] : null;
+			indiceValor++;
+			
+			href.append(caminho, fimUltimaVariavel, matcher.start());
+			href.append(valor == null ? matcher.group() 
+					: UriUtils.encodePathSegment(valor.toString(), StandardCharsets.UTF_8));
+			
+			fimUltimaVariavel = matcher.end();
+		}
+		
+		href.append(caminho, fimUltimaVariavel, caminho.length());
+		
+		return href.toString();
+	}
+	
+	public Link link(String rel, Object... valores) {
+		return Link.of(expandir(valores), rel);
+	}
+	
+	// Mesma URI base usada pelo WebMvcLinkBuilder, calculada uma vez por requisição
+	private static String getUriBase() {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		
+		if (requestAttributes == null) {
+			return "";
+		}
+		
+		String uriBase = (String) requestAttributes.getAttribute(ATRIBUTO_URI_BASE, RequestAttributes.SCOPE_REQUEST);
+		
+		if (uriBase == null) {
+			uriBase = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+			requestAttributes.setAttribute(ATRIBUTO_URI_BASE, uriBase, RequestAttributes.SCOPE_REQUEST);
+		}
+		
+		return uriBase;
+	}
+	
+}
@@ -39,6 +39,9 @@ public class FotoProdutoModelAssembler
 			
 			fotoProdutoModel.add(algaLinks.linkToProduto(
 					foto.getRestauranteId(), foto.getProduto().getId(), "produto"));
+			
+			fotoProdutoModel.add(algaLinks.linkToFotoProdutoConteudo(
+					foto.getRestauranteId(), foto.getProduto().getId(), foto.getVersao(), "conteudo"));
 		}
 		
 		return fotoProdutoModel;
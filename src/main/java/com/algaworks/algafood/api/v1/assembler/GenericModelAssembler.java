@@ -1,20 +1,38 @@
 package com.algaworks.algafood.api.v1.assembler;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.algaworks.algafood.api.v1.mapper.MapeadorModelo;
+
 @Component
 public class GenericModelAssembler<M, E> {
-	
+
 	@Autowired
-    private ModelMapper modelMapper;   
+    private ModelMapper modelMapper;
+
+	private final Map<Class<?>, MapeadorModelo<?, ?>> mapeadores = new HashMap<>();
+
+	@Autowired(required = false)
+	public void setMapeadores(List<MapeadorModelo<?, ?>> mapeadores) {
+		mapeadores.forEach(mapeador -> this.mapeadores.put(mapeador.getTipoModelo(), mapeador));
+	}
+
+    @SuppressWarnings("unchecked")
+	public M toModel(E domainObject, Class<M> typeModel) {
+    	var mapeador = (MapeadorModelo<E, M>) mapeadores.get(typeModel);
+
+    	if (mapeador != null) {
+    		return mapeador.toModel(domainObject);
+    	}
 
-    public M toModel(E domainObject, Class<M> typeModel) {
         return modelMapper.map(domainObject, typeModel);
     }
 
@@ -1,12 +1,12 @@
 package com.algaworks.algafood.api.v1.assembler;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.controller.PedidoController;
+import com.algaworks.algafood.api.v1.mapper.PedidoModelMapper;
 import com.algaworks.algafood.api.v1.model.PedidoModel;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.domain.model.Pedido;
@@ -16,7 +16,7 @@ public class PedidoModelAssembler
 		extends RepresentationModelAssemblerSupport<Pedido, PedidoModel> {
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private PedidoModelMapper pedidoModelMapper;
 	
 	@Autowired
 	private AlgaLinks algaLinks;
@@ -31,7 +31,7 @@ public class PedidoModelAssembler
 	@Override
 	public PedidoModel toModel(Pedido pedido) {
  		PedidoModel pedidoModel = createModelWithId(pedido.getCodigo(), pedido);		
-		modelMapper.map(pedido, pedidoModel);		
+		pedidoModelMapper.map(pedido, pedidoModel);		
 		
 		if (algaSecurity.podePesquisarPedidos()) {
 			pedidoModel.add(algaLinks.linkToPedidos("pedidos"));		
@@ -1,12 +1,12 @@
 package com.algaworks.algafood.api.v1.assembler;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.controller.PedidoController;
+import com.algaworks.algafood.api.v1.mapper.PedidoModelMapper;
 import com.algaworks.algafood.api.v1.model.PedidoResumoModel;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.domain.model.Pedido;
@@ -16,7 +16,7 @@ public class PedidoResumoModelAssembler
 		extends RepresentationModelAssemblerSupport<Pedido, PedidoResumoModel> {
 
 	@Autowired
-	private ModelMapper modelMapper;
+	private PedidoModelMapper pedidoModelMapper;
 	
 	@Autowired
 	private AlgaLinks algaLinks;
@@ -31,7 +31,7 @@ public class PedidoResumoModelAssembler
 	@Override
 	public PedidoResumoModel toModel(Pedido pedido) {
 		PedidoResumoModel pedidoResumoModel = createModelWithId(pedido.getCodigo(), pedido);		
-		modelMapper.map(pedido, pedidoResumoModel);		
+		pedidoModelMapper.map(pedido, pedidoResumoModel);		
 		
 		if (algaSecurity.podePesquisarPedidos()) {
 			pedidoResumoModel.add(algaLinks.linkToPedidos("pedidos"));
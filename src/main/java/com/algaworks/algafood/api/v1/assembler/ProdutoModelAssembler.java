@@ -1,12 +1,12 @@
 package com.algaworks.algafood.api.v1.assembler;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.controller.RestauranteProdutoController;
+import com.algaworks.algafood.api.v1.mapper.ProdutoModelMapper;
 import com.algaworks.algafood.api.v1.model.ProdutoModel;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.domain.model.Produto;
@@ -16,7 +16,7 @@ public class ProdutoModelAssembler
         extends RepresentationModelAssemblerSupport<Produto, ProdutoModel> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProdutoModelMapper produtoModelMapper;
     
     @Autowired
     private AlgaLinks algaLinks;
@@ -33,7 +33,7 @@ public class ProdutoModelAssembler
         ProdutoModel produtoModel = createModelWithId(
                 produto.getId(), produto, produto.getRestaurante().getId());
         
-        modelMapper.map(produto, produtoModel);
+        produtoModelMapper.map(produto, produtoModel);
         if (algaSecurity.podeConsultarRestaurantes()) {
         	produtoModel.add(algaLinks.linkToProdutos(produto.getRestaurante().getId(), "produtos"));        
         	produtoModel.add(algaLinks.linkToFotoProduto(produto.getRestaurante().getId(), produto.getId(), "foto"));
@@ -1,23 +1,28 @@
 package com.algaworks.algafood.api.v1.assembler;
 
-import org.modelmapper.ModelMapper;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.controller.RestauranteController;
+import com.algaworks.algafood.api.v1.mapper.RestauranteModelMapper;
 import com.algaworks.algafood.api.v1.model.RestauranteBasicoModel;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.RestauranteCatalogo;
 
 @Component
 public class RestauranteBasicoModelAssembler 
         extends RepresentationModelAssemblerSupport<Restaurante, RestauranteBasicoModel> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RestauranteModelMapper restauranteModelMapper;
     
     @Autowired
     private AlgaLinks algaLinks;
@@ -34,7 +39,7 @@ public class RestauranteBasicoModelAssembler
         RestauranteBasicoModel restauranteModel = createModelWithId(
                 restaurante.getId(), restaurante);
         
-        modelMapper.map(restaurante, restauranteModel);
+        restauranteModelMapper.map(restaurante, restauranteModel);
         
         if (algaSecurity.podeConsultarRestaurantes()) {
 			restauranteModel.add(algaLinks.linkToRestaurantes("restaurantes"));
@@ -58,4 +63,51 @@ public class RestauranteBasicoModelAssembler
 				
 		return collectionModel;
     }   
+    
+    // Listagem vinda do catálogo em memória: as permissões são verificadas uma vez só
+    // e os links saem dos templates do AlgaLinks
+    public CollectionModel<RestauranteBasicoModel> toCollectionModelCatalogo(List<RestauranteCatalogo> restaurantes) {
+    	boolean podeConsultarRestaurantes = algaSecurity.podeConsultarRestaurantes();
+    	boolean podeConsultarCozinhas = algaSecurity.podeConsultarCozinhas();
+    	
+    	List<RestauranteBasicoModel> restaurantesModel = new ArrayList<>(restaurantes.size());
+    	
+    	for (RestauranteCatalogo restaurante : restaurantes) {
+    		restaurantesModel.add(toModelCatalogo(restaurante, podeConsultarRestaurantes, podeConsultarCozinhas));
+    	}
+    	
+    	CollectionModel<RestauranteBasicoModel> collectionModel = CollectionModel.of(restaurantesModel);
+    	
+    	if (podeConsultarRestaurantes) {
+    		collectionModel.add(algaLinks.linkToRestaurantes());
+    	}
+    	
+    	return collectionModel;
+    }
+    
+    // Para montar uma página do catálogo: as permissões são verificadas uma vez só, aqui,
+    // e não a cada restaurante da página
+    public RepresentationModelAssembler<RestauranteCatalogo, RestauranteBasicoModel> catalogoModelAssembler() {
+    	boolean podeConsultarRestaurantes = algaSecurity.podeConsultarRestaurantes();
+    	boolean podeConsultarCozinhas = algaSecurity.podeConsultarCozinhas();
+    	
+    	return restaurante -> toModelCatalogo(restaurante, podeConsultarRestaurantes, podeConsultarCozinhas);
+    }
+    
+    private RestauranteBasicoModel toModelCatalogo(RestauranteCatalogo restaurante, 
+    		boolean podeConsultarRestaurantes, boolean podeConsultarCozinhas) {
+    	RestauranteBasicoModel restauranteModel = new RestauranteBasicoModel();
+    	restauranteModelMapper.map(restaurante, restauranteModel);
+    	restauranteModel.add(algaLinks.linkToRestaurante(restaurante.getId()));
+    	
+    	if (podeConsultarRestaurantes) {
+    		restauranteModel.add(algaLinks.linkToRestaurantes("restaurantes"));
+    	}
+    	
+    	if (podeConsultarCozinhas) {
+    		restauranteModel.getCozinha().add(algaLinks.linkToCozinha(restaurante.getCozinhaId()));
+    	}
+    	
+    	return restauranteModel;
+    }
 }  
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.algaworks.algafood.api.v1.assembler;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
@@ -8,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.controller.RestauranteController;
+import com.algaworks.algafood.api.v1.mapper.RestauranteModelMapper;
 import com.algaworks.algafood.api.v1.model.RestauranteModel;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.domain.model.Restaurante;
@@ -17,7 +17,7 @@ public class RestauranteModelAssembler
         extends RepresentationModelAssemblerSupport<Restaurante, RestauranteModel> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RestauranteModelMapper restauranteModelMapper;
     
     @Autowired
     private AlgaLinks algaLinks;
@@ -32,7 +32,7 @@ public class RestauranteModelAssembler
     @Override
     public RestauranteModel toModel(Restaurante restaurante) {
         RestauranteModel restauranteModel = createModelWithId(restaurante.getId(), restaurante);
-        modelMapper.map(restaurante, restauranteModel);
+        restauranteModelMapper.map(restaurante, restauranteModel);
         
 		if (algaSecurity.podeConsultarRestaurantes()) {
 			restauranteModel.add(algaLinks.linkToRestaurantes("restaurantes"));
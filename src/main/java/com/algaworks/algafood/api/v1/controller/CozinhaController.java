@@ -5,8 +5,10 @@ import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.algaworks.algafood.api.v1.assembler.CozinhaModelAssembler;
@@ -25,6 +28,7 @@ import com.algaworks.algafood.api.v1.assembler.GenericInputDisassembler;
 import com.algaworks.algafood.api.v1.model.CozinhaModel;
 import com.algaworks.algafood.api.v1.model.input.CozinhaInput;
 import com.algaworks.algafood.api.v1.openapi.controller.CozinhaControllerOpenApi;
+import com.algaworks.algafood.core.data.SliceResourcesAssembler;
 import com.algaworks.algafood.core.security.CheckSecurity;
 import com.algaworks.algafood.domain.model.Cozinha;
 import com.algaworks.algafood.domain.service.CadastroCozinhaService;
@@ -45,9 +49,18 @@ public class CozinhaController implements CozinhaControllerOpenApi {
 	@Autowired
 	private PagedResourcesAssembler<Cozinha> pagedResourcesAssembler;
 	
+	@Autowired
+	private SliceResourcesAssembler<Cozinha> sliceResourcesAssembler;
+	
 	@CheckSecurity.Cozinhas.PodeConsultar
 	@GetMapping
-	public ResponseEntity<PagedModel<CozinhaModel>> listar(@PageableDefault(size = 10) Pageable pageable) {
+	public ResponseEntity<CollectionModel<CozinhaModel>> listar(@PageableDefault(size = 10) Pageable pageable,
+			@RequestParam(defaultValue = "true") boolean incluirTotal) {
+		if (!incluirTotal) {
+			Slice<Cozinha> cozinhasSlice = cadastroCozinha.listarSemTotal(pageable);
+			return ResponseEntity.ok(sliceResourcesAssembler.toModel(cozinhasSlice, cozinhaModelAssembler));
+		}
+		
 		Page<Cozinha> cozinhasPage = cadastroCozinha.listar(pageable);		
 		PagedModel<CozinhaModel> cozinhasPagedModel = pagedResourcesAssembler.toModel(cozinhasPage, cozinhaModelAssembler);	
 		return ResponseEntity.ok(cozinhasPagedModel);	
@@ -1,12 +1,14 @@
 package com.algaworks.algafood.api.v1.controller;
 
+import java.io.IOException;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -17,6 +19,7 @@ import com.algaworks.algafood.api.v1.openapi.controller.EstatisticasControllerOp
 import com.algaworks.algafood.core.security.CheckSecurity;
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
 import com.algaworks.algafood.domain.model.dto.VendaDiaria;
+import com.algaworks.algafood.domain.service.VendaExportService;
 import com.algaworks.algafood.domain.service.VendaQueryService;
 import com.algaworks.algafood.domain.service.VendaReportService;
 
@@ -24,12 +27,18 @@ import com.algaworks.algafood.domain.service.VendaReportService;
 @RequestMapping(path = "/v1/estatisticas")
 public class EstatisticasController implements EstatisticasControllerOpenApi {
 
+	public static final String TEXT_CSV_VALUE = "text/csv";
+	public static final String XLSX_VALUE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
 	@Autowired
 	private VendaQueryService vendaQueryService;
 	
 	@Autowired
 	private VendaReportService vendaReportService;
 	
+	@Autowired
+	private VendaExportService vendaExportService;
+	
 	@Autowired
 	private AlgaLinks algaLinks;
 	
@@ -53,17 +62,43 @@ public class EstatisticasController implements EstatisticasControllerOpenApi {
 	
 	@CheckSecurity.Estatisticas.PodeConsultar
 	@GetMapping(value = "/vendas-diarias", produces = MediaType.APPLICATION_PDF_VALUE)
-	public ResponseEntity<byte[]> consultarVendasDiariasPdf(VendaDiariaFilter filtro,
-			@RequestParam(required = false, defaultValue = "+00:00") String timeOffset) {
+	public void consultarVendasDiariasPdf(VendaDiariaFilter filtro,
+			@RequestParam(required = false, defaultValue = "+00:00") String timeOffset,
+			HttpServletResponse response) throws IOException {
+		
+		// O PDF é escrito direto na resposta, sem passar por um byte[] intermediário
+		response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vendas-diarias.pdf");
+		
+		vendaReportService.emitirVendasDiarias(filtro, timeOffset, response.getOutputStream());
+	}
+	
+	@CheckSecurity.Estatisticas.PodeConsultar
+	@GetMapping(value = "/vendas-diarias", produces = TEXT_CSV_VALUE)
+	public void consultarVendasDiariasCsv(VendaDiariaFilter filtro,
+			@RequestParam(required = false, defaultValue = "+00:00") String timeOffset,
+			HttpServletResponse response) throws IOException {
+		
+		// As linhas são lidas do banco e escritas na resposta uma a uma, então a conexão
+		// com o banco fica presa até o fim do download, por mais lento que seja o cliente
+		response.setContentType(TEXT_CSV_VALUE + ";charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vendas-diarias.csv");
+		
+		vendaExportService.exportarVendasDiariasCsv(filtro, timeOffset, response.getOutputStream());
+	}
+	
+	@CheckSecurity.Estatisticas.PodeConsultar
+	@GetMapping(value = "/vendas-diarias", produces = XLSX_VALUE)
+	public void consultarVendasDiariasXlsx(VendaDiariaFilter filtro,
+			@RequestParam(required = false, defaultValue = "+00:00") String timeOffset,
+			HttpServletResponse response) throws IOException {
 		
-		byte[] bytesPdf = vendaReportService.emitirVendasDiarias(filtro, timeOffset);		
-		var headers = new HttpHeaders();
-		headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vendas-diarias.pdf");
+		// A planilha vai para arquivos temporários enquanto a consulta roda e só é enviada
+		// depois; a conexão com o banco já foi devolvida ao pool quando o download começa
+		response.setContentType(XLSX_VALUE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vendas-diarias.xlsx");
 		
-		return ResponseEntity.ok()
-				.contentType(MediaType.APPLICATION_PDF)
-				.headers(headers)
-				.body(bytesPdf);
+		vendaExportService.exportarVendasDiariasXlsx(filtro, timeOffset, response.getOutputStream());
 	}
 	
 	public static class EstatisticasModel extends RepresentationModel<EstatisticasModel> {
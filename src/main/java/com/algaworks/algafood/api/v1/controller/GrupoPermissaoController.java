@@ -39,7 +39,7 @@ public class GrupoPermissaoController implements GrupoPermissaoControllerOpenApi
 	@CheckSecurity.UsuariosGruposPermissoes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<CollectionModel<PermissaoModel>> listar(@PathVariable Long grupoId){
-		Grupo grupo = cadastroGrupoService.buscar(grupoId);		
+		Grupo grupo = cadastroGrupoService.buscarComPermissoes(grupoId);		
 		
 		CollectionModel<PermissaoModel> permissoesModel 
 		= permissaoModelAssembler.toCollectionModel(grupo.getPermissoes())
@@ -1,14 +1,19 @@
 package com.algaworks.algafood.api.v1.controller;
 
+import java.util.List;
 import java.util.Map;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,8 +23,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.algaworks.algafood.api.v1.AlgaLinks;
 import com.algaworks.algafood.api.v1.assembler.GenericInputDisassembler;
 import com.algaworks.algafood.api.v1.assembler.PedidoModelAssembler;
 import com.algaworks.algafood.api.v1.assembler.PedidoResumoModelAssembler;
@@ -27,7 +34,9 @@ import com.algaworks.algafood.api.v1.model.PedidoModel;
 import com.algaworks.algafood.api.v1.model.PedidoResumoModel;
 import com.algaworks.algafood.api.v1.model.input.PedidoInput;
 import com.algaworks.algafood.api.v1.openapi.controller.PedidoControllerOpenApi;
+import com.algaworks.algafood.core.data.CursorPaginacao;
 import com.algaworks.algafood.core.data.PageWrapper;
+import com.algaworks.algafood.core.data.SliceResourcesAssembler;
 import com.algaworks.algafood.core.data.PageableTranslator;
 import com.algaworks.algafood.core.security.AlgaSecurity;
 import com.algaworks.algafood.core.security.CheckSecurity;
@@ -55,23 +64,68 @@ public class PedidoController implements PedidoControllerOpenApi {
 	@Autowired
 	private PagedResourcesAssembler<Pedido> pagedResourcesAssembler;
 	
+	@Autowired
+	private SliceResourcesAssembler<Pedido> sliceResourcesAssembler;
+	
 	@Autowired
 	private AlgaSecurity algaSecurity;
 	
+	@Autowired
+	private AlgaLinks algaLinks;
+	
+	@Autowired
+	private SpringDataWebProperties springDataWebProperties;
+	
 	@CheckSecurity.Pedidos.PodePesquisar
 	@GetMapping
-	public ResponseEntity<PagedModel<PedidoResumoModel>> pesquisar(PedidoFilter filtro, @PageableDefault(size = 10) Pageable pageable){	
+	public ResponseEntity<CollectionModel<PedidoResumoModel>> pesquisar(PedidoFilter filtro, @PageableDefault(size = 10) Pageable pageable,
+			@RequestParam(defaultValue = "true") boolean incluirTotal){	
 		Pageable pageableTraduzido = traduzirPageable(pageable);		
+		
+		if (!incluirTotal) {
+			Slice<Pedido> pedidosSlice = emisaoPedidoService.pesquisarSemTotal(filtro, pageableTraduzido);
+			return ResponseEntity.ok(sliceResourcesAssembler.toModel(pedidosSlice, pedidoResumoModelAssembler));
+		}
+		
 		Page<Pedido> pedidosPage = emisaoPedidoService.pesquisar(filtro, pageableTraduzido);	
 		pedidosPage = new PageWrapper<>(pedidosPage, pageable);
 		PagedModel<PedidoResumoModel> pedidosResumoPagedModel = pagedResourcesAssembler.toModel(pedidosPage, pedidoResumoModelAssembler);		
 		return ResponseEntity.ok(pedidosResumoPagedModel);
 	}
 	
+	@CheckSecurity.Pedidos.PodePesquisar
+	@GetMapping(params = "cursor")
+	public ResponseEntity<CollectionModel<PedidoResumoModel>> pesquisar(PedidoFilter filtro, 
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "10") int size){
+		CursorPaginacao cursorPaginacao = CursorPaginacao.decodificar(cursor);
+		
+		// Mesmo limite que o Pageable aplica ao parâmetro size na paginação por página
+		size = Math.min(Math.max(size, 1), springDataWebProperties.getPageable().getMaxPageSize());
+		
+		// Busca um registro a mais apenas para saber se existe uma próxima página
+		List<Pedido> pedidos = emisaoPedidoService.pesquisar(filtro, 
+				cursorPaginacao.getDataCriacao(), cursorPaginacao.getId(), size + 1);
+		
+		boolean temProximaPagina = pedidos.size() > size;
+		if (temProximaPagina) {
+			pedidos = pedidos.subList(0, size);
+		}
+		
+		CollectionModel<PedidoResumoModel> pedidosResumoCollectionModel = pedidoResumoModelAssembler.toCollectionModel(pedidos);
+		
+		if (temProximaPagina) {
+			Pedido ultimoPedido = pedidos.get(pedidos.size() - 1);
+			String proximoCursor = new CursorPaginacao(ultimoPedido.getDataCriacao(), ultimoPedido.getId()).codificar();
+			pedidosResumoCollectionModel.add(algaLinks.linkToPedidos(filtro, proximoCursor, size, IanaLinkRelations.NEXT.value()));
+		}
+		
+		return ResponseEntity.ok(pedidosResumoCollectionModel);
+	}
+	
 	@CheckSecurity.Pedidos.PodeBuscar
 	@GetMapping(value = "/{codigo}")
 	public ResponseEntity<PedidoModel> buscar(@PathVariable String codigo){
-		Pedido pedido = emisaoPedidoService.buscar(codigo);
+		Pedido pedido = emisaoPedidoService.buscarDetalhado(codigo);
 		PedidoModel pedidoModel = pedidoModelAssembler.toModel(pedido);
 		return ResponseEntity.ok(pedidoModel);
 	}
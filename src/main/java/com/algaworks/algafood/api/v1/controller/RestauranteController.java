@@ -6,7 +6,12 @@ import java.util.List;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -30,7 +35,9 @@ import com.algaworks.algafood.api.v1.model.input.RestauranteInput;
 import com.algaworks.algafood.api.v1.openapi.controller.RestauranteControllerOpenApi;
 import com.algaworks.algafood.core.security.CheckSecurity;
 import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.RestauranteCatalogo;
 import com.algaworks.algafood.domain.service.CadastroRestauranteService;
+import com.algaworks.algafood.domain.service.CatalogoRestauranteService;
 
 @RestController
 @RequestMapping(path = "/v1/restaurantes", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -39,6 +46,9 @@ public class RestauranteController implements RestauranteControllerOpenApi {
 	@Autowired
 	private CadastroRestauranteService cadastroRestaurante;
 	
+	@Autowired
+	private CatalogoRestauranteService catalogoRestaurante;
+	
 	@Autowired
 	private RestauranteModelAssembler restauranteModelAssembler; 
 	
@@ -51,17 +61,32 @@ public class RestauranteController implements RestauranteControllerOpenApi {
 	@Autowired	
 	private RestauranteInputDisassembler restauranteInputDisassembler;	
 	
+	@Autowired
+	private PagedResourcesAssembler<RestauranteCatalogo> pagedResourcesAssembler;
+	
 	@CheckSecurity.Restaurantes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<CollectionModel<RestauranteBasicoModel>> listar() {
-		CollectionModel<RestauranteBasicoModel> restaurantes = restauranteBasicoModelAssembler.toCollectionModel(cadastroRestaurante.listar());		
+		CollectionModel<RestauranteBasicoModel> restaurantes = restauranteBasicoModelAssembler.toCollectionModelCatalogo(catalogoRestaurante.listar());		
 		return ResponseEntity.ok(restaurantes);
 	}
 
+	// Busca por nome usada pelo app enquanto o usuário digita; responde pelo índice em
+	// memória do catálogo, sem consultar o banco
+	@CheckSecurity.Restaurantes.PodeConsultar
+	@GetMapping("/busca")
+	public ResponseEntity<PagedModel<RestauranteBasicoModel>> pesquisar(@RequestParam("nome") String nome, 
+			@PageableDefault(size = 10) Pageable pageable) {
+		Page<RestauranteCatalogo> restaurantesPage = catalogoRestaurante.buscarPorNome(nome, pageable);
+		PagedModel<RestauranteBasicoModel> restaurantesPagedModel = pagedResourcesAssembler.toModel(restaurantesPage, 
+				restauranteBasicoModelAssembler.catalogoModelAssembler());
+		return ResponseEntity.ok(restaurantesPagedModel);
+	}
+
 	@CheckSecurity.Restaurantes.PodeConsultar
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<RestauranteModel> buscar(@PathVariable Long id) {		
-		RestauranteModel restaurante = restauranteModelAssembler.toModel(cadastroRestaurante.buscar(id));
+		RestauranteModel restaurante = restauranteModelAssembler.toModel(cadastroRestaurante.buscarDetalhado(id));
 		return ResponseEntity.ok(restaurante);		
 	}
 	
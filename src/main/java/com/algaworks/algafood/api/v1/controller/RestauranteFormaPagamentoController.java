@@ -41,7 +41,7 @@ public class RestauranteFormaPagamentoController implements RestauranteFormaPaga
 	@CheckSecurity.Restaurantes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<CollectionModel<FormaPagamentoModel>> listar(@PathVariable Long restauranteId) {
-		Restaurante restaurante = cadastroRestaurante.buscar(restauranteId);
+		Restaurante restaurante = cadastroRestaurante.buscarComFormasPagamento(restauranteId);
 
 		CollectionModel<FormaPagamentoModel> formasPagamentoModel = formaPagamentoModelAssembler
 				.toCollectionModel(restaurante.getFormasPagamento()).removeLinks();
@@ -1,16 +1,25 @@
 package com.algaworks.algafood.api.v1.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,8 +27,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.algaworks.algafood.api.v1.assembler.FotoProdutoModelAssembler;
@@ -30,6 +42,7 @@ import com.algaworks.algafood.core.security.CheckSecurity;
 import com.algaworks.algafood.domain.exception.EntidadeNaoEncontradaException;
 import com.algaworks.algafood.domain.model.FotoProduto;
 import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.VarianteFotoProduto;
 import com.algaworks.algafood.domain.service.CadastroProdutoService;
 import com.algaworks.algafood.domain.service.CatalogoFotoProdutoService;
 import com.algaworks.algafood.domain.service.FotoStorageService;
@@ -39,6 +52,24 @@ import com.algaworks.algafood.domain.service.FotoStorageService.FotoRecuperada;
 @RequestMapping(path = "/v1/restaurantes/{restauranteId}/produtos/{produtoId}/foto", produces = MediaType.APPLICATION_JSON_VALUE)
 public class RestauranteProdutoFotoController implements RestauranteProdutoFotoControllerOpenApi {
 	
+	// A URL da foto não muda quando ela é substituída: o cache precisa revalidar
+	// (ETag e Last-Modified) a cada uso
+	private static final CacheControl CACHE_FOTO = CacheControl.noCache().cachePublic();
+	
+	// Já a URL com ?v= (link "conteudo") aponta sempre para o mesmo arquivo, cujo nome
+	// tem um UUID e nunca é reaproveitado
+	private static final CacheControl CACHE_FOTO_VERSIONADA = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+	
+	// Atributos do Tomcat para entregar o arquivo via sendfile depois que o
+	// controller retorna, sem copiar os bytes pela JVM
+	private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+	
+	// Abaixo disso a cópia comum sai mais barata que preparar o sendfile (mesmo limite do DefaultServlet)
+	private static final long TAMANHO_MINIMO_SENDFILE = 48 * 1024;
+	
 	@Autowired
 	private CadastroProdutoService cadastroProdutoService;
 	
@@ -64,7 +95,7 @@ public class RestauranteProdutoFotoController implements RestauranteProdutoFotoC
 		foto.setDescricao(fotoProdutoInput.getDescricao());
 		foto.setContentType(arquivo.getContentType());
 		foto.setTamanho(arquivo.getSize());
-		foto.setNomeArquivo(arquivo.getOriginalFilename());
+		foto.setNomeArquivo(StringUtils.getFilename(arquivo.getOriginalFilename()));
 		
 		FotoProduto fotoSalva = catalogoFotoProdutoService.salvar(foto, arquivo.getInputStream());
 		FotoProdutoModel fotoProdutoModel = fotoProdutoModelAssembler.toModel(fotoSalva);
@@ -73,6 +104,28 @@ public class RestauranteProdutoFotoController implements RestauranteProdutoFotoC
 		
 	}
 	
+	// Recebe a imagem como corpo da requisição (sem multipart), que é copiado direto
+	// para o storage; usado em importações com muitas fotos
+	@CheckSecurity.Restaurantes.PodeGerenciarFuncionamento
+	@PutMapping(consumes = { MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE })
+	public ResponseEntity<FotoProdutoModel> atualizarFotoConteudo(@PathVariable Long restauranteId,
+			@PathVariable Long produtoId, @RequestParam String descricao, 
+			@RequestParam(defaultValue = "foto") String nomeArquivo, 
+			InputStream arquivo) {
+		
+		Produto produto = cadastroProdutoService.buscar(restauranteId, produtoId);
+		
+		FotoProduto foto = new FotoProduto();
+		foto.setProduto(produto);
+		foto.setDescricao(descricao);
+		// Só o nome, sem diretórios: o valor vem do cliente e compõe o nome no storage
+		foto.setNomeArquivo(StringUtils.getFilename(nomeArquivo));
+		
+		FotoProduto fotoSalva = catalogoFotoProdutoService.salvar(foto, arquivo);
+		
+		return ResponseEntity.ok(fotoProdutoModelAssembler.toModel(fotoSalva));
+	}
+	
 	@CheckSecurity.Restaurantes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<FotoProdutoModel> buscarFoto(@PathVariable Long restauranteId, @PathVariable Long produtoId) {
@@ -83,22 +136,44 @@ public class RestauranteProdutoFotoController implements RestauranteProdutoFotoC
 	
 	@GetMapping(produces = MediaType.ALL_VALUE)
 	public ResponseEntity<?> servirFoto(@PathVariable Long restauranteId, @PathVariable Long produtoId, 
-			@RequestHeader(name = "accept") String acceptHeader) throws HttpMediaTypeNotAcceptableException {
+			@RequestHeader(name = "accept") String acceptHeader, 
+			@RequestParam(required = false) Integer tamanho,
+			@RequestParam(name = "v", required = false) String versao,
+			ServletWebRequest request) throws HttpMediaTypeNotAcceptableException {
 		try {
 			FotoProduto fotoProduto = catalogoFotoProdutoService.buscar(restauranteId, produtoId);
 			
-			MediaType mediaTypeFoto = MediaType.parseMediaType(fotoProduto.getContentType());
+			String nomeArquivo = fotoProduto.getNomeArquivo();
+			String contentType = fotoProduto.getContentType();
+			
+			Optional<VarianteFotoProduto> variante = tamanho != null 
+					? fotoProduto.getVariante(tamanho) : Optional.empty();
+			
+			if (variante.isPresent()) {
+				nomeArquivo = variante.get().getNomeArquivo();
+				contentType = variante.get().getContentType();
+			}
+			
+			MediaType mediaTypeFoto = MediaType.parseMediaType(contentType);
 			List<MediaType> mediaTypesAceitas = MediaType.parseMediaTypes(acceptHeader);
 			
 			verificarCompatibilidadeMediaType(mediaTypeFoto, mediaTypesAceitas);	
 			
-			FotoRecuperada fotoRecuperada = fotoStorageService.recuperar(fotoProduto.getNomeArquivo());
+			FotoRecuperada fotoRecuperada = fotoStorageService.recuperar(nomeArquivo);
 			
 			if (fotoRecuperada.temUrl()) {
 				return ResponseEntity
 						.status(HttpStatus.FOUND)
 						.header(HttpHeaders.LOCATION, fotoRecuperada.getUrl())
 						.build();
+			} else if (fotoRecuperada.temArquivo()) {
+				// Enquanto a variante pedida não foi gerada, o original servido no lugar dela
+				// não pode ficar em cache como se fosse o conteúdo definitivo da URL
+				boolean versaoAtual = fotoProduto.getVersao().equals(versao)
+						&& (tamanho == null || variante.isPresent());
+				
+				return servirArquivo(nomeArquivo, mediaTypeFoto, fotoRecuperada,
+						versaoAtual ? CACHE_FOTO_VERSIONADA : CACHE_FOTO, request);
 			} else {
 				return ResponseEntity.ok()
 						.contentType(mediaTypeFoto)
@@ -116,6 +191,46 @@ public class RestauranteProdutoFotoController implements RestauranteProdutoFotoC
 		return ResponseEntity.noContent().build();
 	}
 	
+	private ResponseEntity<?> servirArquivo(String nomeArquivo, MediaType mediaTypeFoto,
+			FotoRecuperada fotoRecuperada, CacheControl cacheControl, ServletWebRequest request) {
+		
+		// O corpo não pode ser bufferizado pelo filtro de ETag, senão Range e sendfile se perdem
+		ShallowEtagHeaderFilter.disableContentCaching(request.getRequest());
+		
+		String eTag = DigestUtils.md5DigestAsHex(nomeArquivo.getBytes(StandardCharsets.UTF_8));
+		long dataModificacao = fotoRecuperada.getDataModificacao().toEpochMilli();
+		
+		if (request.checkNotModified(eTag, dataModificacao)) {
+			return null;
+		}
+		
+		var resposta = ResponseEntity.ok()
+				.contentType(mediaTypeFoto)
+				.cacheControl(cacheControl)
+				.eTag(eTag)
+				.lastModified(dataModificacao);
+		
+		HttpServletRequest servletRequest = request.getRequest();
+		
+		if (request.getHeader(HttpHeaders.RANGE) == null
+				&& fotoRecuperada.getTamanho() >= TAMANHO_MINIMO_SENDFILE
+				&& Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPORTADO))) {
+			
+			servletRequest.setAttribute(SENDFILE_ARQUIVO, fotoRecuperada.getArquivo().toAbsolutePath().toString());
+			servletRequest.setAttribute(SENDFILE_INICIO, 0L);
+			servletRequest.setAttribute(SENDFILE_FIM, fotoRecuperada.getTamanho());
+			
+			return resposta
+					.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+					.contentLength(fotoRecuperada.getTamanho())
+					.build();
+		}
+		
+		// Com um Resource no corpo o Spring responde Range (206) por conta própria;
+		// o FileSystemResource lê o arquivo por um FileChannel
+		return resposta.body(new FileSystemResource(fotoRecuperada.getArquivo()));
+	}
+	
 	private void verificarCompatibilidadeMediaType(MediaType mediaTypeFoto, 
 			List<MediaType> mediaTypesAceitas) throws HttpMediaTypeNotAcceptableException {
 		
@@ -0,0 +1,48 @@
+package com.algaworks.algafood.api.v1.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.algaworks.algafood.api.v1.openapi.controller.RestauranteProdutoFotoImportacaoControllerOpenApi;
+import com.algaworks.algafood.core.security.CheckSecurity;
+import com.algaworks.algafood.domain.model.dto.ResultadoImportacaoFotos;
+import com.algaworks.algafood.domain.service.ImportacaoFotoProdutoService;
+
+@RestController
+@RequestMapping(path = "/v1/restaurantes/{restauranteId}/produtos/fotos/importacao", 
+		produces = MediaType.APPLICATION_JSON_VALUE)
+public class RestauranteProdutoFotoImportacaoController implements RestauranteProdutoFotoImportacaoControllerOpenApi {
+	
+	private static final String APPLICATION_ZIP_VALUE = "application/zip";
+	
+	@Autowired
+	private ImportacaoFotoProdutoService importacaoFotoProdutoService;
+	
+	// O zip chega como corpo da requisição e é lido conforme é recebido
+	@CheckSecurity.Restaurantes.PodeGerenciarFuncionamento
+	@PostMapping(consumes = APPLICATION_ZIP_VALUE)
+	public ResultadoImportacaoFotos importar(@PathVariable Long restauranteId, InputStream arquivo) {
+		return importacaoFotoProdutoService.importar(restauranteId, arquivo);
+	}
+	
+	// Limitado pelo spring.servlet.multipart, que vale para todos os uploads da API;
+	// zips grandes devem vir no corpo, pelo endpoint acima
+	@CheckSecurity.Restaurantes.PodeGerenciarFuncionamento
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResultadoImportacaoFotos importarFormulario(@PathVariable Long restauranteId, 
+			@RequestPart(required = true) MultipartFile arquivo) throws IOException {
+		try (InputStream inputStream = arquivo.getInputStream()) {
+			return importacaoFotoProdutoService.importar(restauranteId, inputStream);
+		}
+	}
+	
+}
@@ -39,7 +39,7 @@ public class RestauranteUsuarioResponsavelController implements RestauranteUsuar
 	@CheckSecurity.Restaurantes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<CollectionModel<UsuarioModel>> listar(@PathVariable Long restauranteId){
-		Restaurante restaurante = cadastroRestauranteService.buscar(restauranteId);
+		Restaurante restaurante = cadastroRestauranteService.buscarComResponsaveis(restauranteId);
 		
 		CollectionModel<UsuarioModel> usuariosModel = usuarioModelAssembler
 				.toCollectionModel(restaurante.getResponsaveis())
@@ -39,7 +39,7 @@ public class UsuarioGrupoController implements UsuarioGrupoControllerOpenApi {
 	@CheckSecurity.UsuariosGruposPermissoes.PodeConsultar
 	@GetMapping
 	public ResponseEntity<CollectionModel<GrupoModel>> listar(@PathVariable Long usuarioId){
-		Usuario usuario = cadastroUsuarioService.buscar(usuarioId);
+		Usuario usuario = cadastroUsuarioService.buscarComGrupos(usuarioId);
 
 		CollectionModel<GrupoModel> gruposModel = grupoModelAssembler.toCollectionModel(usuario.getGrupos())
 				.removeLinks();
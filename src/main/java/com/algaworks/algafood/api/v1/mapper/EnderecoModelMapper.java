@@ -0,0 +1,45 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.api.v1.model.CidadeResumoModel;
+import com.algaworks.algafood.api.v1.model.EnderecoModel;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Endereco;
+
+@Component
+public class EnderecoModelMapper {
+
+	public EnderecoModel toModel(Endereco endereco) {
+		if (endereco == null) {
+			return null;
+		}
+		
+		EnderecoModel enderecoModel = new EnderecoModel();
+		enderecoModel.setCep(endereco.getCep());
+		enderecoModel.setLogradouro(endereco.getLogradouro());
+		enderecoModel.setNumero(endereco.getNumero());
+		enderecoModel.setComplemento(endereco.getComplemento());
+		enderecoModel.setBairro(endereco.getBairro());
+		enderecoModel.setCidade(toCidadeModel(endereco.getCidade()));
+		
+		return enderecoModel;
+	}
+	
+	private CidadeResumoModel toCidadeModel(Cidade cidade) {
+		if (cidade == null) {
+			return null;
+		}
+		
+		CidadeResumoModel cidadeModel = new CidadeResumoModel();
+		cidadeModel.setId(cidade.getId());
+		cidadeModel.setNome(cidade.getNome());
+		
+		if (cidade.getEstado() != null) {
+			cidadeModel.setEstado(cidade.getEstado().getNome());
+		}
+		
+		return cidadeModel;
+	}
+	
+}
@@ -0,0 +1,15 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+/**
+ * Mapeamento escrito à mão de uma entidade para o seu modelo de representação.
+ * 
+ * Os mapeadores registrados como bean são usados pelo GenericModelAssembler
+ * no lugar do ModelMapper quando o tipo do modelo solicitado coincide.
+ */
+public interface MapeadorModelo<E, M> {
+
+	Class<M> getTipoModelo();
+	
+	M toModel(E origem);
+	
+}
@@ -0,0 +1,105 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.api.v1.model.FormaPagamentoModel;
+import com.algaworks.algafood.api.v1.model.ItemPedidoModel;
+import com.algaworks.algafood.api.v1.model.PedidoModel;
+import com.algaworks.algafood.api.v1.model.PedidoResumoModel;
+import com.algaworks.algafood.api.v1.model.UsuarioModel;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Usuario;
+
+@Component
+public class PedidoModelMapper {
+
+	@Autowired
+	private RestauranteModelMapper restauranteModelMapper;
+	
+	@Autowired
+	private EnderecoModelMapper enderecoModelMapper;
+	
+	public void map(Pedido pedido, PedidoModel pedidoModel) {
+		pedidoModel.setCodigo(pedido.getCodigo());
+		pedidoModel.setSubtotal(pedido.getSubtotal());
+		pedidoModel.setTaxaFrete(pedido.getTaxaFrete());
+		pedidoModel.setValorTotal(pedido.getValorTotal());
+		pedidoModel.setStatus(pedido.getStatus() != null ? pedido.getStatus().name() : null);
+		pedidoModel.setDataCriacao(pedido.getDataCriacao());
+		pedidoModel.setDataConfirmacao(pedido.getDataConfirmacao());
+		pedidoModel.setDataEntrega(pedido.getDataEntrega());
+		pedidoModel.setDataCancelamento(pedido.getDataCancelamento());
+		pedidoModel.setRestaurante(restauranteModelMapper.toResumoModel(pedido.getRestaurante()));
+		pedidoModel.setCliente(toUsuarioModel(pedido.getCliente()));
+		pedidoModel.setFormaPagamento(toFormaPagamentoModel(pedido.getFormaPagamento()));
+		pedidoModel.setEnderecoEntrega(enderecoModelMapper.toModel(pedido.getEnderecoEntrega()));
+		pedidoModel.setItens(toItensModel(pedido.getItens()));
+	}
+	
+	public void map(Pedido pedido, PedidoResumoModel pedidoResumoModel) {
+		pedidoResumoModel.setCodigo(pedido.getCodigo());
+		pedidoResumoModel.setSubtotal(pedido.getSubtotal());
+		pedidoResumoModel.setTaxaFrete(pedido.getTaxaFrete());
+		pedidoResumoModel.setValorTotal(pedido.getValorTotal());
+		pedidoResumoModel.setStatus(pedido.getStatus() != null ? pedido.getStatus().name() : null);
+		pedidoResumoModel.setRestaurante(restauranteModelMapper.toResumoModel(pedido.getRestaurante()));
+		pedidoResumoModel.setCliente(toUsuarioModel(pedido.getCliente()));
+	}
+	
+	private List<ItemPedidoModel> toItensModel(List<ItemPedido> itens) {
+		if (itens == null) {
+			return null;
+		}
+		
+		List<ItemPedidoModel> itensModel = new ArrayList<>(itens.size());
+		
+		for (ItemPedido item : itens) {
+			ItemPedidoModel itemModel = new ItemPedidoModel();
+			
+			if (item.getProduto() != null) {
+				itemModel.setProdutoId(item.getProduto().getId());
+				itemModel.setProdutoNome(item.getProduto().getNome());
+			}
+			
+			itemModel.setQuantidade(item.getQuantidade());
+			itemModel.setPrecoUnitario(item.getPrecoUnitario());
+			itemModel.setPrecoTotal(item.getPrecoTotal());
+			itemModel.setObservacao(item.getObservacao());
+			itensModel.add(itemModel);
+		}
+		
+		return itensModel;
+	}
+	
+	private UsuarioModel toUsuarioModel(Usuario usuario) {
+		if (usuario == null) {
+			return null;
+		}
+		
+		UsuarioModel usuarioModel = new UsuarioModel();
+		usuarioModel.setId(usuario.getId());
+		usuarioModel.setNome(usuario.getNome());
+		usuarioModel.setEmail(usuario.getEmail());
+		
+		return usuarioModel;
+	}
+	
+	private FormaPagamentoModel toFormaPagamentoModel(FormaPagamento formaPagamento) {
+		if (formaPagamento == null) {
+			return null;
+		}
+		
+		FormaPagamentoModel formaPagamentoModel = new FormaPagamentoModel();
+		formaPagamentoModel.setId(formaPagamento.getId());
+		formaPagamentoModel.setDescricao(formaPagamento.getDescricao());
+		
+		return formaPagamentoModel;
+	}
+	
+}
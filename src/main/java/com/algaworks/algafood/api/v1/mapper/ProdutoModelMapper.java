@@ -0,0 +1,31 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.api.v1.model.ProdutoModel;
+import com.algaworks.algafood.domain.model.Produto;
+
+@Component
+public class ProdutoModelMapper implements MapeadorModelo<Produto, ProdutoModel> {
+
+	@Override
+	public Class<ProdutoModel> getTipoModelo() {
+		return ProdutoModel.class;
+	}
+	
+	@Override
+	public ProdutoModel toModel(Produto produto) {
+		ProdutoModel produtoModel = new ProdutoModel();
+		map(produto, produtoModel);
+		return produtoModel;
+	}
+	
+	public void map(Produto produto, ProdutoModel produtoModel) {
+		produtoModel.setId(produto.getId());
+		produtoModel.setNome(produto.getNome());
+		produtoModel.setDescricao(produto.getDescricao());
+		produtoModel.setPreco(produto.getPreco());
+		produtoModel.setAtivo(produto.getAtivo());
+	}
+	
+}
@@ -0,0 +1,84 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.api.v1.model.CozinhaModel;
+import com.algaworks.algafood.api.v1.model.RestauranteBasicoModel;
+import com.algaworks.algafood.api.v1.model.RestauranteModel;
+import com.algaworks.algafood.api.v1.model.RestauranteResumoModel;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.RestauranteCatalogo;
+
+@Component
+public class RestauranteModelMapper implements MapeadorModelo<Restaurante, RestauranteModel> {
+
+	@Autowired
+	private EnderecoModelMapper enderecoModelMapper;
+	
+	@Override
+	public Class<RestauranteModel> getTipoModelo() {
+		return RestauranteModel.class;
+	}
+	
+	@Override
+	public RestauranteModel toModel(Restaurante restaurante) {
+		RestauranteModel restauranteModel = new RestauranteModel();
+		map(restaurante, restauranteModel);
+		return restauranteModel;
+	}
+	
+	public void map(Restaurante restaurante, RestauranteModel restauranteModel) {
+		restauranteModel.setId(restaurante.getId());
+		restauranteModel.setNome(restaurante.getNome());
+		restauranteModel.setTaxaFrete(restaurante.getTaxaFrete());
+		restauranteModel.setCozinha(toCozinhaModel(restaurante.getCozinha()));
+		restauranteModel.setAtivo(restaurante.getAtivo());
+		restauranteModel.setAberto(restaurante.getAberto());
+		restauranteModel.setEndereco(enderecoModelMapper.toModel(restaurante.getEndereco()));
+	}
+	
+	public void map(Restaurante restaurante, RestauranteBasicoModel restauranteModel) {
+		restauranteModel.setId(restaurante.getId());
+		restauranteModel.setNome(restaurante.getNome());
+		restauranteModel.setTaxaFrete(restaurante.getTaxaFrete());
+		restauranteModel.setCozinha(toCozinhaModel(restaurante.getCozinha()));
+	}
+	
+	public void map(RestauranteCatalogo restaurante, RestauranteBasicoModel restauranteModel) {
+		CozinhaModel cozinhaModel = new CozinhaModel();
+		cozinhaModel.setId(restaurante.getCozinhaId());
+		cozinhaModel.setNome(restaurante.getCozinhaNome());
+		
+		restauranteModel.setId(restaurante.getId());
+		restauranteModel.setNome(restaurante.getNome());
+		restauranteModel.setTaxaFrete(restaurante.getTaxaFrete());
+		restauranteModel.setCozinha(cozinhaModel);
+	}
+	
+	public RestauranteResumoModel toResumoModel(Restaurante restaurante) {
+		if (restaurante == null) {
+			return null;
+		}
+		
+		RestauranteResumoModel restauranteModel = new RestauranteResumoModel();
+		restauranteModel.setId(restaurante.getId());
+		restauranteModel.setNome(restaurante.getNome());
+		
+		return restauranteModel;
+	}
+	
+	private CozinhaModel toCozinhaModel(Cozinha cozinha) {
+		if (cozinha == null) {
+			return null;
+		}
+		
+		CozinhaModel cozinhaModel = new CozinhaModel();
+		cozinhaModel.setId(cozinha.getId());
+		cozinhaModel.setNome(cozinha.getNome());
+		
+		return cozinhaModel;
+	}
+	
+}
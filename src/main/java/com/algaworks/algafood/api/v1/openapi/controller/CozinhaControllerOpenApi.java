@@ -1,7 +1,7 @@
 package com.algaworks.algafood.api.v1.openapi.controller;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.http.ResponseEntity;
 
 import com.algaworks.algafood.api.exception.Problem;
@@ -18,7 +18,11 @@ import io.swagger.annotations.ApiResponses;
 public interface CozinhaControllerOpenApi {
 
     @ApiOperation("Lista as cozinhas com paginação")
-    ResponseEntity<PagedModel<CozinhaModel>> listar(Pageable pageable);
+    ResponseEntity<CollectionModel<CozinhaModel>> listar(
+    		Pageable pageable,
+    		@ApiParam(value = "Indica se deve calcular o total de registros e páginas. "
+    				+ "Se falso, informa apenas se existe uma próxima página", defaultValue = "true")
+    		boolean incluirTotal);
     
     @ApiOperation("Busca uma cozinha por ID")
     @ApiResponses({
@@ -1,8 +1,9 @@
 package com.algaworks.algafood.api.v1.openapi.controller;
 
+import java.io.IOException;
 import java.util.List;
 
-import org.springframework.http.ResponseEntity;
+import javax.servlet.http.HttpServletResponse;
 
 import com.algaworks.algafood.api.v1.controller.EstatisticasController.EstatisticasModel;
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
@@ -30,5 +31,12 @@ public interface EstatisticasControllerOpenApi {
     		VendaDiariaFilter filtro,            
             @ApiParam(value = "Deslocamento de horário a ser considerado na consulta em relação ao UTC", defaultValue = "+00:00") String timeOffset);
     
-    ResponseEntity<byte[]> consultarVendasDiariasPdf(VendaDiariaFilter filtro, String timeOffset);
+    void consultarVendasDiariasPdf(VendaDiariaFilter filtro, String timeOffset, 
+    		HttpServletResponse response) throws IOException;
+    
+    void consultarVendasDiariasCsv(VendaDiariaFilter filtro, String timeOffset, 
+    		HttpServletResponse response) throws IOException;
+    
+    void consultarVendasDiariasXlsx(VendaDiariaFilter filtro, String timeOffset, 
+    		HttpServletResponse response) throws IOException;
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.algaworks.algafood.api.v1.openapi.controller;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.http.ResponseEntity;
 
 import com.algaworks.algafood.api.exception.Problem;
@@ -20,7 +20,23 @@ import io.swagger.annotations.ApiResponses;
 public interface PedidoControllerOpenApi {
    
     @ApiOperation("Pesquisa os pedidos")
-    ResponseEntity<PagedModel<PedidoResumoModel>> pesquisar(PedidoFilter filtro, Pageable pageable);
+    ResponseEntity<CollectionModel<PedidoResumoModel>> pesquisar(
+    		PedidoFilter filtro, 
+    		Pageable pageable,
+    		@ApiParam(value = "Indica se deve calcular o total de registros e páginas. "
+    				+ "Se falso, informa apenas se existe uma próxima página", defaultValue = "true")
+    		boolean incluirTotal);
+    
+    @ApiOperation("Pesquisa os pedidos usando paginação por cursor, do mais recente para o mais antigo")
+    @ApiResponses({
+    	@ApiResponse(code = 400, message = "Cursor de paginação inválido", response = Problem.class)
+    })
+    ResponseEntity<CollectionModel<PedidoResumoModel>> pesquisar(
+    		PedidoFilter filtro,
+    		@ApiParam(value = "Cursor retornado no link next da página anterior. Informe vazio para a primeira página")
+    		String cursor,
+    		@ApiParam(value = "Quantidade de pedidos por página", defaultValue = "10")
+    		int size);
     
     @ApiOperation("Busca um pedido por código")
     @ApiResponses({
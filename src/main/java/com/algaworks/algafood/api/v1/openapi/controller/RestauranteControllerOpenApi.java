@@ -3,7 +3,9 @@ package com.algaworks.algafood.api.v1.openapi.controller;
 import java.math.BigDecimal;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
 
 import com.algaworks.algafood.api.exception.Problem;
@@ -23,6 +25,12 @@ public interface RestauranteControllerOpenApi {
     @ApiOperation(value = "Lista restaurantes")   
     ResponseEntity<CollectionModel<RestauranteBasicoModel>> listar();   
     
+    @ApiOperation(value = "Pesquisa restaurantes pelo nome, dos mais relevantes para os menos",
+    		notes = "Não diferencia acentos e aceita palavras incompletas, como enquanto o usuário digita")
+    ResponseEntity<PagedModel<RestauranteBasicoModel>> pesquisar(
+    		@ApiParam(value = "Nome ou parte do nome do restaurante", example = "pizz", required = true) String nome,
+    		Pageable pageable);
+    
     @ApiOperation("Busca um restaurante por ID")
     @ApiResponses({
         @ApiResponse(code = 400, message = "ID do restaurante inválido", response = Problem.class),
@@ -1,9 +1,11 @@
 package com.algaworks.algafood.api.v1.openapi.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.algaworks.algafood.api.exception.Problem;
@@ -30,6 +32,20 @@ public interface RestauranteProdutoFotoControllerOpenApi {
             FotoProdutoInput fotoProdutoInput,            
             @ApiParam(value = "Arquivo da foto do produto (máximo 500KB, apenas JPG e PNG)", required = true) 
             MultipartFile arquivo) throws IOException;
+    
+    @ApiOperation("Atualiza a foto do produto de um restaurante enviando a imagem no corpo da requisição")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Foto do produto atualizada"),
+        @ApiResponse(code = 400, message = "Arquivo não é JPG/PNG ou excede o tamanho máximo", response = Problem.class),
+        @ApiResponse(code = 404, message = "Produto de restaurante não encontrado", response = Problem.class)
+    })
+    ResponseEntity<FotoProdutoModel> atualizarFotoConteudo(
+            @ApiParam(value = "ID do restaurante") Long restauranteId,            
+            @ApiParam(value = "ID do produto") Long produtoId,
+            @ApiParam(value = "Descrição da foto do produto", required = true) String descricao,
+            @ApiParam(value = "Nome original do arquivo") String nomeArquivo,
+            @ApiParam(value = "Conteúdo da foto (máximo 500KB, apenas JPG e PNG)", required = true) 
+            InputStream arquivo);
 
     @ApiOperation(value = "Busca a foto do produto de um restaurante", produces = "application/json, image/jpeg, image/png")
     @ApiResponses({
@@ -40,8 +56,8 @@ public interface RestauranteProdutoFotoControllerOpenApi {
     		@ApiParam(value = "ID do produto") Long produtoId);
     
     @ApiOperation(value = "Busca a foto do produto de um restaurante", hidden = true)
-    ResponseEntity<?> servirFoto(Long restauranteId, Long produtoId, String acceptHeader) 
-    		throws HttpMediaTypeNotAcceptableException;
+    ResponseEntity<?> servirFoto(Long restauranteId, Long produtoId, String acceptHeader, 
+    		Integer tamanho, String versao, ServletWebRequest request) throws HttpMediaTypeNotAcceptableException;
     
     @ApiOperation("Exclui a foto do produto de um restaurante")
     @ApiResponses({
@@ -0,0 +1,46 @@
+package com.algaworks.algafood.api.v1.openapi.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.algaworks.algafood.api.exception.Problem;
+import com.algaworks.algafood.domain.model.dto.ResultadoImportacaoFotos;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+@Api(tags = "Produtos")
+public interface RestauranteProdutoFotoImportacaoControllerOpenApi {
+
+    @ApiOperation(value = "Importa as fotos dos produtos de um restaurante a partir de um arquivo zip enviado no corpo da requisição",
+    		notes = "Cada arquivo do zip é nomeado pelo código do produto, opcionalmente seguido da descrição "
+    				+ "(12.jpg, 12_pizza-calabresa.png). Fotos com problema são listadas nas falhas sem impedir as demais.")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Importação concluída"),
+        @ApiResponse(code = 400, message = "Arquivo zip inválido", response = Problem.class),
+        @ApiResponse(code = 404, message = "Restaurante não encontrado", response = Problem.class)
+    })
+    ResultadoImportacaoFotos importar(
+            @ApiParam(value = "ID do restaurante") Long restauranteId,
+            @ApiParam(value = "Arquivo zip com as fotos (cada uma com no máximo 500KB, apenas JPG e PNG)", required = true) 
+            InputStream arquivo);
+    
+    @ApiOperation(value = "Importa as fotos dos produtos de um restaurante a partir de um arquivo zip enviado em formulário",
+    		notes = "Sujeito ao limite de upload multipart da aplicação (1MB por padrão); "
+    				+ "arquivos maiores devem ser enviados no corpo da requisição, como application/zip.")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Importação concluída"),
+        @ApiResponse(code = 400, message = "Arquivo zip inválido", response = Problem.class),
+        @ApiResponse(code = 404, message = "Restaurante não encontrado", response = Problem.class)
+    })
+    ResultadoImportacaoFotos importarFormulario(
+            @ApiParam(value = "ID do restaurante") Long restauranteId,
+            @ApiParam(value = "Arquivo zip com as fotos (cada uma com no máximo 500KB, apenas JPG e PNG)", required = true) 
+            MultipartFile arquivo) throws IOException;
+
+}
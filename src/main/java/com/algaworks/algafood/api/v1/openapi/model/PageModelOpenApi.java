@@ -22,4 +22,7 @@ public class PageModelOpenApi {
 	@ApiModelProperty(example = "0", value = "Número da página (começa em 0)")
 	private Long number;
 	
+	@ApiModelProperty(example = "true", value = "Indica se existe uma próxima página (apenas quando o total não é calculado)")
+	private Boolean hasNext;
+	
 }
\ No newline at end of file
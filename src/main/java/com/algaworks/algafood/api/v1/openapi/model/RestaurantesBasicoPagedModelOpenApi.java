@@ -0,0 +1,28 @@
+package com.algaworks.algafood.api.v1.openapi.model;
+
+import java.util.List;
+
+import org.springframework.hateoas.Links;
+
+import com.algaworks.algafood.api.v1.model.RestauranteBasicoModel;
+
+import io.swagger.annotations.ApiModel;
+import lombok.Data;
+
+@ApiModel("RestaurantesBasicoPagedModel")
+@Data
+public class RestaurantesBasicoPagedModelOpenApi {
+
+    private RestaurantesEmbeddedModelOpenApi _embedded;
+    private Links _links;
+    private PageModelOpenApi page;
+    
+    @ApiModel("RestaurantesBasicoEmbeddedModel")
+    @Data
+    public class RestaurantesEmbeddedModelOpenApi {
+        
+        private List<RestauranteBasicoModel> restaurantes;
+        
+    }
+    
+}
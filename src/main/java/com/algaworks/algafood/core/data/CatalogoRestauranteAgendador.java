@@ -0,0 +1,23 @@
+package com.algaworks.algafood.core.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.domain.service.CatalogoRestauranteService;
+
+// O catálogo só vê as alterações feitas por esta instância; a recarga periódica traz
+// as feitas por outras instâncias ou direto no banco
+@Component
+public class CatalogoRestauranteAgendador {
+
+	@Autowired
+	private CatalogoRestauranteService catalogoRestauranteService;
+	
+	@Scheduled(fixedDelayString = "${algafood.catalogo-restaurantes.intervalo-recarga:PT5M}",
+			initialDelayString = "${algafood.catalogo-restaurantes.intervalo-recarga:PT5M}")
+	public void recarregar() {
+		catalogoRestauranteService.recarregar();
+	}
+	
+}
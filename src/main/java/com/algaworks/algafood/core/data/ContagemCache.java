@@ -0,0 +1,34 @@
+package com.algaworks.algafood.core.data;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Guarda por pouco tempo o total de registros das consultas paginadas, 
+ * evitando um count(*) a cada página quando o cliente precisa dos totais.
+ */
+@Component
+public class ContagemCache {
+
+	private final Cache<String, Long> contagens;
+	
+	public ContagemCache(PaginacaoProperties paginacaoProperties) {
+		this.contagens = Caffeine.newBuilder()
+				.expireAfterWrite(paginacaoProperties.getContagemCache().getTtl())
+				.maximumSize(paginacaoProperties.getContagemCache().getTamanhoMaximo())
+				.build();
+	}
+	
+	public long contar(String chave, LongSupplier contagem) {
+		return contagens.get(chave, k -> contagem.getAsLong());
+	}
+	
+	public void invalidar(String prefixo) {
+		contagens.asMap().keySet().removeIf(chave -> chave.startsWith(prefixo));
+	}
+	
+}
@@ -0,0 +1,53 @@
+package com.algaworks.algafood.core.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.springframework.util.StringUtils;
+
+import com.algaworks.algafood.domain.exception.NegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CursorPaginacao {
+
+	private static final String SEPARADOR = "_";
+	
+	private OffsetDateTime dataCriacao;
+	
+	private Long id;
+	
+	public static CursorPaginacao inicio() {
+		return new CursorPaginacao(null, null);
+	}
+	
+	public String codificar() {
+		String valor = dataCriacao.toInstant().toString() + SEPARADOR + id;
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static CursorPaginacao decodificar(String cursor) {
+		if (!StringUtils.hasText(cursor)) {
+			return inicio();
+		}
+		
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] partes = valor.split(SEPARADOR);
+			
+			return new CursorPaginacao(
+					OffsetDateTime.ofInstant(Instant.parse(partes[0]), ZoneOffset.UTC), 
+					Long.valueOf(partes[1]));
+		} catch (RuntimeException e) {
+			throw new NegocioException(String.format("O cursor de paginação '%s' é inválido.", cursor), e);
+		}
+	}
+	
+}
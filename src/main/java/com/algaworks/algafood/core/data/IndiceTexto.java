@@ -0,0 +1,157 @@
+package com.algaworks.algafood.core.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória para buscar itens pelo nome enquanto o usuário digita.
+ * Imutável: é montado de uma vez a partir dos itens e pode ser lido por várias threads.
+ *
+ * Os termos são normalizados sem acentos e em minúsculas ("Açaí" é encontrado por
+ * "acai"), e cada termo da consulta casa com os termos do nome que começam por ele.
+ * Um item só é retornado se todos os termos da consulta casarem.
+ */
+public class IndiceTexto<T> {
+
+	private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// Termo inteiro vale mais que prefixo; casar com a primeira palavra do nome também soma
+	private static final int PONTOS_TERMO_EXATO = 2;
+	private static final int PONTOS_PREFIXO = 1;
+	private static final int PONTOS_INICIO_NOME = 1;
+
+	private final List<T> itens;
+	private final List<String> textos;
+
+	// Termo -> posições, em itens, dos que contêm o termo (em ordem crescente)
+	private final NavigableMap<String, int[]> termos;
+
+	// Primeiro termo de cada item
+	private final String[] primeirosTermos;
+
+	public IndiceTexto(Collection<T> itens, Function<T, String> texto) {
+		this.itens = List.copyOf(itens);
+		this.textos = new ArrayList<>(this.itens.size());
+		this.primeirosTermos = new String[this.itens.size()];
+
+		Map<String, List<Integer>> posicoesPorTermo = new HashMap<>();
+
+		for (int i = 0; i < this.itens.size(); i++) {
+			String textoItem = normalizar(texto.apply(this.itens.get(i)));
+			List<String> termosItem = separar(textoItem);
+
+			textos.add(textoItem);
+			primeirosTermos[i] = termosItem.isEmpty() ? null : termosItem.get(0);
+
+			for (String termo : new LinkedHashSet<>(termosItem)) {
+				posicoesPorTermo.computeIfAbsent(termo, t -> new ArrayList<>()).add(i);
+			}
+		}
+
+		termos = new TreeMap<>();
+		posicoesPorTermo.forEach((termo, posicoes) ->
+				termos.put(termo, posicoes.stream().mapToInt(Integer::intValue).toArray()));
+	}
+
+	/**
+	 * Itens que casam com a consulta, dos mais relevantes para os menos; entre itens
+	 * igualmente relevantes, os de nome mais curto (mais próximos da consulta) e, por
+	 * fim, em ordem alfabética.
+	 */
+	public List<T> buscar(String consulta) {
+		Set<String> termosConsulta = new LinkedHashSet<>(separar(normalizar(consulta)));
+
+		if (termosConsulta.isEmpty()) {
+			return List.of();
+		}
+
+		int[] pontos = null;
+
+		for (String termoConsulta : termosConsulta) {
+			int[] pontosTermo = pontuar(termoConsulta);
+
+			if (pontos == null) {
+				pontos = pontosTermo;
+			} else {
+				for (int i = 0; i < pontos.length; i++) {
+					pontos[i] = pontos[i] > 0 && pontosTermo[i] > 0 ? pontos[i] + pontosTermo[i] : 0;
+				}
+			}
+		}
+
+		String primeiroTermoConsulta = termosConsulta.iterator().next();
+		List<Integer> encontrados = new ArrayList<>();
+
+		for (int i = 0; i < pontos.length; i++) {
+			if (pontos[i] > 0) {
+				if (primeirosTermos[i].startsWith(primeiroTermoConsulta)) {
+					pontos[i] += PONTOS_INICIO_NOME;
+				}
+
+				encontrados.add(i);
+			}
+		}
+
+		final int[] pontuacao = pontos;
+
+		encontrados.sort(Comparator.<Integer>comparingInt(i -> -pontuacao[i])
+				.thenComparingInt(i -> textos.get(i).length())
+				.thenComparing(textos::get));
+
+		List<T> resultado = new ArrayList<>(encontrados.size());
+		encontrados.forEach(i -> resultado.add(itens.get(i)));
+
+		return resultado;
+	}
+
+	// Melhor pontuação do termo em cada item; os termos com o prefixo são uma faixa contígua
+	private int[] pontuar(String termoConsulta) {
+		int[] pontos = new int[itens.size()];
+
+		termos.subMap(termoConsulta, true, termoConsulta + Character.MAX_VALUE, false).forEach((termo, posicoes) -> {
+			int pontosTermo = termo.equals(termoConsulta) ? PONTOS_TERMO_EXATO : PONTOS_PREFIXO;
+
+			for (int posicao : posicoes) {
+				pontos[posicao] = Math.max(pontos[posicao], pontosTermo);
+			}
+		});
+
+		return pontos;
+	}
+
+	private static List<String> separar(String textoNormalizado) {
+		if (textoNormalizado.isBlank()) {
+			return List.of();
+		}
+
+		List<String> termos = new ArrayList<>(Arrays.asList(SEPARADORES.split(textoNormalizado.strip())));
+		termos.removeIf(String::isEmpty);
+
+		return termos;
+	}
+
+	private static String normalizar(String texto) {
+		if (texto == null) {
+			return "";
+		}
+
+		String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+
+		return semAcentos.toLowerCase(Locale.ROOT);
+	}
+
+}
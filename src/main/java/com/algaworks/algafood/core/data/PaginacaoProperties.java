@@ -0,0 +1,28 @@
+package com.algaworks.algafood.core.data;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("algafood.paginacao")
+public class PaginacaoProperties {
+
+	private CacheContagem contagemCache = new CacheContagem();
+	
+	@Getter
+	@Setter
+	public static class CacheContagem {
+		
+		private Duration ttl = Duration.ofSeconds(30);
+		private long tamanhoMaximo = 1000;
+		
+	}
+	
+}
@@ -0,0 +1,47 @@
+package com.algaworks.algafood.core.data;
+
+import java.util.Collection;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Equivalente ao PagedModel para consultas que não calculam o total de registros:
+ * informa apenas se existe uma próxima página.
+ */
+public class SliceModel<T> extends CollectionModel<T> {
+
+	private final SliceMetadata metadata;
+	
+	@SuppressWarnings("deprecation")
+	public SliceModel(Collection<T> content, SliceMetadata metadata, Iterable<Link> links) {
+		super(content, links);
+		this.metadata = metadata;
+	}
+	
+	@JsonProperty("page")
+	public SliceMetadata getMetadata() {
+		return metadata;
+	}
+	
+	@Getter
+	@AllArgsConstructor
+	public static class SliceMetadata {
+		
+		@JsonProperty
+		private long size;
+		
+		@JsonProperty
+		private long number;
+		
+		@JsonProperty
+		private boolean hasNext;
+		
+	}
+	
+}
@@ -0,0 +1,54 @@
+package com.algaworks.algafood.core.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.algaworks.algafood.core.data.SliceModel.SliceMetadata;
+
+@Component
+public class SliceResourcesAssembler<T> {
+
+	public <R extends RepresentationModel<?>> SliceModel<R> toModel(Slice<T> slice, 
+			RepresentationModelAssembler<T, R> assembler) {
+		
+		List<R> content = slice.getContent().stream()
+				.map(assembler::toModel)
+				.collect(Collectors.toList());
+		
+		var metadata = new SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext());
+		
+		List<Link> links = new ArrayList<>();
+		links.add(linkToPagina(slice.getPageable(), IanaLinkRelations.SELF.value()));
+		
+		if (slice.hasPrevious()) {
+			links.add(linkToPagina(slice.previousPageable(), IanaLinkRelations.PREV.value()));
+		}
+		
+		if (slice.hasNext()) {
+			links.add(linkToPagina(slice.nextPageable(), IanaLinkRelations.NEXT.value()));
+		}
+		
+		return new SliceModel<>(content, metadata, links);
+	}
+	
+	private Link linkToPagina(Pageable pageable, String rel) {
+		String url = ServletUriComponentsBuilder.fromCurrentRequest()
+				.replaceQueryParam("page", pageable.getPageNumber())
+				.replaceQueryParam("size", pageable.getPageSize())
+				.build()
+				.toUriString();
+		
+		return Link.of(url, rel);
+	}
+	
+}
@@ -0,0 +1,29 @@
+package com.algaworks.algafood.core.email;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.domain.service.CaixaSaidaEmailService;
+
+@Component
+public class CaixaSaidaEmailAgendador {
+
+	@Autowired
+	private CaixaSaidaEmailService caixaSaidaEmail;
+	
+	@Autowired
+	private EmailProperties emailProperties;
+	
+	// Cada lote é reservado e registrado em transações curtas; continua enquanto houver lotes cheios
+	@Scheduled(fixedDelayString = "${algafood.email.caixa-saida.intervalo-despacho:5000}")
+	public void despachar() {
+		int tamanhoLote = emailProperties.getCaixaSaida().getTamanhoLote();
+		int processados;
+		
+		do {
+			processados = caixaSaidaEmail.despacharLote();
+		} while (processados == tamanhoLote);
+	}
+	
+}
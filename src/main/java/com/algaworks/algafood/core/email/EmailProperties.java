@@ -1,5 +1,7 @@
 package com.algaworks.algafood.core.email;
 
+import java.time.Duration;
+
 import javax.validation.constraints.NotNull;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -20,6 +22,8 @@ public class EmailProperties {
 	private String remetente;
 	private ImplementacaoEmail impl = ImplementacaoEmail.FAKE; 
 	private Sandbox sandbox = new Sandbox();
+	private CaixaSaida caixaSaida = new CaixaSaida();
+	private Smtp smtp = new Smtp();
 	
 	public enum ImplementacaoEmail {
 		FAKE, SMTP, SANDBOX
@@ -31,4 +35,24 @@ public class EmailProperties {
 		private String destinatario;
 	}
 	
-}
+	@Getter
+	@Setter
+	public class CaixaSaida {
+		private int tamanhoLote = 50;
+		private int maximoTentativas = 10;
+		private Duration intervaloInicial = Duration.ofSeconds(30);
+		private Duration intervaloMaximo = Duration.ofHours(1);
+		
+		// Por quanto tempo um lote fica reservado para o envio; deve cobrir o envio
+		// de um lote inteiro, senão outro despachante pode enviar os mesmos e-mails
+		private Duration concessao = Duration.ofMinutes(5);
+	}
+	
+	@Getter
+	@Setter
+	public class Smtp {
+		// Conexões SMTP mantidas abertas para o envio em lote; 0 abre uma conexão por envio
+		private int conexoes = 0;
+	}
+	
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.algaworks.algafood.core.io;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Acompanha um arquivo recebido enquanto ele é copiado para o destino: conta os bytes,
+ * calcula o SHA-256 e interrompe a leitura quando o tamanho máximo é ultrapassado,
+ * sem precisar de uma segunda passada pelo conteúdo.
+ * 
+ * O tipo do arquivo é identificado pelos primeiros bytes (assinatura), e não pelo
+ * Content-Type informado pelo cliente.
+ */
+public class VerificacaoArquivoInputStream extends FilterInputStream {
+
+	private static final byte[] ASSINATURA_JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+	private static final byte[] ASSINATURA_PNG = { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A };
+	
+	private static final int TAMANHO_CABECALHO = ASSINATURA_PNG.length;
+	
+	private final MessageDigest digest;
+	private final long tamanhoMaximo;
+	
+	private long tamanho;
+	private boolean limiteExcedido;
+	private String hash;
+	
+	public VerificacaoArquivoInputStream(InputStream in, long tamanhoMaximo) {
+		super(new BufferedInputStream(in));
+		this.tamanhoMaximo = tamanhoMaximo;
+		
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Retorna o tipo da imagem pela assinatura no início do arquivo, ou null se não
+	 * for JPEG nem PNG. Deve ser chamado antes de o conteúdo começar a ser lido.
+	 */
+	public String detectarContentType() throws IOException {
+		in.mark(TAMANHO_CABECALHO);
+		byte[] cabecalho = in.readNBytes(TAMANHO_CABECALHO);
+		in.reset();
+		
+		if (comecaCom(cabecalho, ASSINATURA_PNG)) {
+			return MediaType.IMAGE_PNG_VALUE;
+		}
+		
+		if (comecaCom(cabecalho, ASSINATURA_JPEG)) {
+			return MediaType.IMAGE_JPEG_VALUE;
+		}
+		
+		return null;
+	}
+	
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		
+		if (b >= 0) {
+			digest.update((byte) b);
+			contar(1);
+		}
+		
+		return b;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int lidos = in.read(b, off, len);
+		
+		if (lidos > 0) {
+			digest.update(b, off, lidos);
+			contar(lidos);
+		}
+		
+		return lidos;
+	}
+	
+	// Pular bytes deixaria o hash incompleto
+	@Override
+	public long skip(long n) throws IOException {
+		byte[] descarte = new byte[(int) Math.min(n, 8192)];
+		long pulados = 0;
+		
+		while (pulados < n) {
+			int lidos = read(descarte, 0, (int) Math.min(descarte.length, n - pulados));
+			
+			if (lidos < 0) {
+				break;
+			}
+			
+			pulados += lidos;
+		}
+		
+		return pulados;
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	public long getTamanho() {
+		return tamanho;
+	}
+	
+	public boolean isLimiteExcedido() {
+		return limiteExcedido;
+	}
+	
+	/**
+	 * SHA-256 em hexadecimal do arquivo. Deve ser chamado depois que a leitura chegou
+	 * ao fim; a partir daí o valor fica fixo.
+	 */
+	public String getHash() {
+		if (hash == null) {
+			hash = String.format("%064x", new BigInteger(1, digest.digest()));
+		}
+		
+		return hash;
+	}
+	
+	private void contar(int lidos) throws IOException {
+		tamanho += lidos;
+		
+		if (tamanho > tamanhoMaximo) {
+			limiteExcedido = true;
+			throw new IOException("Arquivo excede o tamanho máximo de " + tamanhoMaximo + " bytes");
+		}
+	}
+	
+	private static boolean comecaCom(byte[] conteudo, byte[] prefixo) {
+		return conteudo.length >= prefixo.length
+				&& Arrays.equals(conteudo, 0, prefixo.length, prefixo, 0, prefixo.length);
+	}
+	
+}
@@ -4,25 +4,33 @@ import java.io.IOException;
 
 import org.springframework.boot.jackson.JsonComponent;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 
 @JsonComponent
-public class PageJsonSerializer extends JsonSerializer<Page<?>> {
+public class PageJsonSerializer extends JsonSerializer<Slice<?>> {
 
 	@Override
-	public void serialize(Page<?> page, JsonGenerator gen, 
+	public void serialize(Slice<?> slice, JsonGenerator gen, 
 			SerializerProvider serializers) throws IOException {
 		
 		gen.writeStartObject();
 		
-		gen.writeObjectField("content", page.getContent());
-		gen.writeNumberField("totalElements", page.getTotalElements());
-		gen.writeNumberField("totalPages", page.getTotalPages());
-		gen.writeNumberField("size", page.getSize());
-		gen.writeNumberField("number", page.getNumber());
+		gen.writeObjectField("content", slice.getContent());
+		
+		if (slice instanceof Page) {
+			Page<?> page = (Page<?>) slice;
+			gen.writeNumberField("totalElements", page.getTotalElements());
+			gen.writeNumberField("totalPages", page.getTotalPages());
+		} else {
+			gen.writeBooleanField("hasNext", slice.hasNext());
+		}
+		
+		gen.writeNumberField("size", slice.getSize());
+		gen.writeNumberField("number", slice.getNumber());
 		
 		gen.writeEndObject();
 	}
@@ -0,0 +1,88 @@
+package com.algaworks.algafood.core.jpa;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.Permissao;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de segundo nível do Hibernate para os cadastros de referência,
+ * que quase nunca mudam mas são lidos em toda emissão de pedido e listagem.
+ * 
+ * As regiões usam READ_WRITE, então as alterações feitas pelos Cadastro*Service
+ * atualizam ou invalidam as entradas no commit, e as consultas em cache são
+ * descartadas assim que alguma das tabelas envolvidas é modificada.
+ * As estatísticas de acerto/falta de cada região ficam disponíveis por JMX
+ * (javax.cache:type=CacheStatistics) e nas Statistics do Hibernate.
+ */
+@Configuration
+public class SegundoNivelCacheConfig {
+	
+	public static final String REGIAO_CONSULTAS = "default-query-results-region";
+	public static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+	
+	private static final List<Class<?>> ENTIDADES_EM_CACHE = List.of(
+			Cozinha.class, Estado.class, Cidade.class, FormaPagamento.class, Permissao.class);
+
+	@Autowired
+	private SegundoNivelCacheProperties properties;
+	
+	@Bean(destroyMethod = "close")
+	public CacheManager segundoNivelCacheManager() {
+		CacheManager cacheManager = Caching.getCachingProvider(
+				CaffeineCachingProvider.class.getName()).getCacheManager();
+		
+		ENTIDADES_EM_CACHE.forEach(entidade -> 
+				criarRegiao(cacheManager, entidade.getName(), properties.getEntidades()));
+		
+		criarRegiao(cacheManager, REGIAO_CONSULTAS, properties.getConsultas());
+		
+		// Os timestamps de atualização das tabelas não podem expirar antes das
+		// consultas que dependem deles, senão resultados antigos seriam considerados válidos
+		criarRegiao(cacheManager, REGIAO_TIMESTAMPS, null);
+		
+		return cacheManager;
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer segundoNivelCacheCustomizer(CacheManager segundoNivelCacheManager) {
+		return hibernateProperties -> {
+			hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+			hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+			hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+			hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+			hibernateProperties.put(ConfigSettings.CACHE_MANAGER, segundoNivelCacheManager);
+			hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+		};
+	}
+	
+	private void criarRegiao(CacheManager cacheManager, String nome, 
+			SegundoNivelCacheProperties.Regiao regiao) {
+		CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+		configuracao.setStatisticsEnabled(true);
+		
+		if (regiao != null) {
+			configuracao.setExpireAfterWrite(OptionalLong.of(regiao.getTtl().toNanos()));
+			configuracao.setMaximumSize(OptionalLong.of(regiao.getTamanhoMaximo()));
+		}
+		
+		cacheManager.createCache(nome, configuracao);
+	}
+	
+}
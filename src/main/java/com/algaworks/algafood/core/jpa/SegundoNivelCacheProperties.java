@@ -0,0 +1,34 @@
+package com.algaworks.algafood.core.jpa;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("algafood.jpa.cache")
+public class SegundoNivelCacheProperties {
+
+	private Regiao entidades = new Regiao(Duration.ofHours(1), 1000);
+	private Regiao consultas = new Regiao(Duration.ofMinutes(10), 200);
+	
+	@Getter
+	@Setter
+	public static class Regiao {
+		
+		private Duration ttl;
+		private long tamanhoMaximo;
+		
+		public Regiao(Duration ttl, long tamanhoMaximo) {
+			this.ttl = ttl;
+			this.tamanhoMaximo = tamanhoMaximo;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,48 @@
+package com.algaworks.algafood.core.jpa;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Armazena um UUID representado como String em uma coluna binary(16).
+ */
+@Converter
+public class UuidBinaryConverter implements AttributeConverter<String, byte[]> {
+
+	private static final byte[] CODIGO_INVALIDO = new byte[0];
+	
+	@Override
+	public byte[] convertToDatabaseColumn(String codigo) {
+		if (codigo == null) {
+			return null;
+		}
+		
+		UUID uuid;
+		try {
+			uuid = UUID.fromString(codigo);
+		} catch (IllegalArgumentException e) {
+			// Um código que não é UUID nunca corresponde a um registro: a consulta 
+			// simplesmente não encontra nada, como acontecia com a coluna varchar
+			return CODIGO_INVALIDO;
+		}
+		
+		return ByteBuffer.allocate(16)
+				.putLong(uuid.getMostSignificantBits())
+				.putLong(uuid.getLeastSignificantBits())
+				.array();
+	}
+
+	@Override
+	public String convertToEntityAttribute(byte[] valor) {
+		if (valor == null) {
+			return null;
+		}
+		
+		ByteBuffer buffer = ByteBuffer.wrap(valor);
+		return new UUID(buffer.getLong(), buffer.getLong()).toString();
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.algaworks.algafood.core.report;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("algafood.relatorio")
+public class RelatorioProperties {
+
+	// Páginas do relatório mantidas em memória durante o preenchimento; as demais vão para disco
+	private int paginasEmMemoria = 50;
+	private Cache cache = new Cache();
+	
+	@Getter
+	@Setter
+	public class Cache {
+		
+		private Duration ttl = Duration.ofSeconds(30);
+		private DataSize tamanhoMaximo = DataSize.ofMegabytes(32);
+		private DataSize tamanhoMaximoRelatorio = DataSize.ofMegabytes(1);
+		
+	}
+	
+}
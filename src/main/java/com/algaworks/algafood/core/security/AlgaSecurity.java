@@ -6,17 +6,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
-import com.algaworks.algafood.domain.repository.PedidoRepository;
-import com.algaworks.algafood.domain.repository.RestauranteRepository;
-
 @Component
 public class AlgaSecurity {
 	
 	@Autowired
-	private RestauranteRepository restauranteRepository;
-	
-	@Autowired
-	private PedidoRepository pedidoRepository;
+	private RestaurantesGerenciadosCache restaurantesGerenciadosCache;
 	
 	public Authentication getAuthentication() {
 		return SecurityContextHolder.getContext().getAuthentication();
@@ -37,11 +31,13 @@ public class AlgaSecurity {
 			return false;
 		}
 		
-		return restauranteRepository.existsResponsavel(restauranteId, getUsuarioId());
+		return restaurantesGerenciadosCache.buscarRestauranteIds(getUsuarioId()).contains(restauranteId);
 	}
 	
 	public boolean gerenciaRestauranteDoPedido(String codigoPedido) {
-		return pedidoRepository.isPedidoGerenciadoPor(codigoPedido, getUsuarioId());
+		return restaurantesGerenciadosCache.buscarRestauranteIdDoPedido(codigoPedido)
+				.map(this::gerenciaRestaurante)
+				.orElse(false);
 	}
 	
 	public boolean usuarioAutenticadoIgual(Long usuarioId) {
@@ -0,0 +1,109 @@
+package com.algaworks.algafood.core.security;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.algaworks.algafood.domain.event.ResponsavelRestauranteAlteradoEvent;
+import com.algaworks.algafood.domain.repository.PedidoRepository;
+import com.algaworks.algafood.domain.repository.RestauranteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Mantém os IDs dos restaurantes que cada usuário gerencia, para que as verificações
+ * do AlgaSecurity não consultem o banco a cada restaurante ou pedido verificado.
+ * 
+ * Os IDs ficam memorizados na requisição atual e em um cache com expiração compartilhado
+ * entre requisições, invalidado quando os responsáveis de um restaurante mudam.
+ * 
+ * A invalidação só alcança a instância que fez a alteração: nas demais, um responsável
+ * removido continua com acesso ao restaurante até o TTL expirar
+ * (algafood.seguranca.restaurantes-gerenciados-cache.ttl).
+ */
+@Component
+public class RestaurantesGerenciadosCache {
+
+	private static final String ATRIBUTO_REQUISICAO = RestaurantesGerenciadosCache.class.getName() + ".restauranteIds";
+	
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+	
+	@Autowired
+	private PedidoRepository pedidoRepository;
+	
+	private final Cache<Long, Set<Long>> restauranteIdsPorUsuario;
+	
+	private final Cache<String, Long> restauranteIdPorPedido;
+	
+	public RestaurantesGerenciadosCache(SegurancaProperties segurancaProperties) {
+		var cacheProperties = segurancaProperties.getRestaurantesGerenciadosCache();
+		
+		this.restauranteIdsPorUsuario = Caffeine.newBuilder()
+				.expireAfterWrite(cacheProperties.getTtl())
+				.maximumSize(cacheProperties.getTamanhoMaximo())
+				.build();
+		
+		// O restaurante de um pedido nunca muda, então não precisa expirar
+		this.restauranteIdPorPedido = Caffeine.newBuilder()
+				.maximumSize(cacheProperties.getTamanhoMaximo())
+				.build();
+	}
+	
+	public Set<Long> buscarRestauranteIds(Long usuarioId) {
+		if (usuarioId == null) {
+			return Collections.emptySet();
+		}
+		
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		
+		if (requestAttributes == null) {
+			return buscarNoCache(usuarioId);
+		}
+		
+		String atributo = ATRIBUTO_REQUISICAO + "." + usuarioId;
+		
+		@SuppressWarnings("unchecked")
+		Set<Long> restauranteIds = (Set<Long>) requestAttributes.getAttribute(atributo, RequestAttributes.SCOPE_REQUEST);
+		
+		if (restauranteIds == null) {
+			restauranteIds = buscarNoCache(usuarioId);
+			requestAttributes.setAttribute(atributo, restauranteIds, RequestAttributes.SCOPE_REQUEST);
+		}
+		
+		return restauranteIds;
+	}
+	
+	public Optional<Long> buscarRestauranteIdDoPedido(String codigoPedido) {
+		if (codigoPedido == null) {
+			return Optional.empty();
+		}
+		
+		Long restauranteId = restauranteIdPorPedido.getIfPresent(codigoPedido);
+		
+		if (restauranteId == null) {
+			Optional<Long> restauranteIdOpt = pedidoRepository.findRestauranteIdByCodigo(codigoPedido);
+			restauranteIdOpt.ifPresent(id -> restauranteIdPorPedido.put(codigoPedido, id));
+			return restauranteIdOpt;
+		}
+		
+		return Optional.of(restauranteId);
+	}
+	
+	@TransactionalEventListener
+	public void aoAlterarResponsavel(ResponsavelRestauranteAlteradoEvent event) {
+		restauranteIdsPorUsuario.invalidate(event.getUsuarioId());
+	}
+	
+	private Set<Long> buscarNoCache(Long usuarioId) {
+		return restauranteIdsPorUsuario.get(usuarioId, 
+				id -> Set.copyOf(restauranteRepository.findIdsByResponsavel(id)));
+	}
+	
+}
@@ -0,0 +1,29 @@
+package com.algaworks.algafood.core.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("algafood.seguranca")
+public class SegurancaProperties {
+
+	private CacheRestaurantesGerenciados restaurantesGerenciadosCache = new CacheRestaurantesGerenciados();
+	
+	@Getter
+	@Setter
+	public static class CacheRestaurantesGerenciados {
+		
+		// Também é o atraso máximo para outra instância perceber um responsável removido
+		private Duration ttl = Duration.ofMinutes(1);
+		private long tamanhoMaximo = 10_000;
+		
+	}
+	
+}
@@ -0,0 +1,31 @@
+package com.algaworks.algafood.core.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.domain.service.ArquivoFotoService;
+
+// Roda mesmo com a deduplicação desligada, para liberar os arquivos compartilhados
+// que ficaram sem referência depois que ela foi desligada
+@Component
+public class ArquivoFotoAgendador {
+
+	@Autowired
+	private ArquivoFotoService arquivoFotoService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	// Cada arquivo é coletado na sua própria transação; continua enquanto houver lotes cheios
+	@Scheduled(fixedDelayString = "${algafood.storage.deduplicacao.intervalo-coleta:PT5M}")
+	public void coletar() {
+		int tamanhoLote = storageProperties.getDeduplicacao().getTamanhoLoteColeta();
+		int processados;
+		
+		do {
+			processados = arquivoFotoService.coletarLote();
+		} while (processados == tamanhoLote);
+	}
+	
+}
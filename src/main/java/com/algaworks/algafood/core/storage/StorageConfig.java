@@ -11,6 +11,7 @@ import com.algaworks.algafood.infrastructure.service.storage.LocalFotoStorageSer
 import com.algaworks.algafood.infrastructure.service.storage.S3FotoStorageService;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 
@@ -27,10 +28,18 @@ public class StorageConfig {
 				storageProperties.getS3().getIdChaveAcesso(), 
 				storageProperties.getS3().getChaveAcessoSecreta());
 		
-		return AmazonS3ClientBuilder.standard()
-				.withCredentials(new AWSStaticCredentialsProvider(credentials))
-				.withRegion(storageProperties.getS3().getRegiao())
-				.build();
+		var builder = AmazonS3ClientBuilder.standard()
+				.withCredentials(new AWSStaticCredentialsProvider(credentials));
+		
+		if (storageProperties.getS3().getEndpoint() != null) {
+			builder.withEndpointConfiguration(new EndpointConfiguration(
+						storageProperties.getS3().getEndpoint(), storageProperties.getS3().getRegiao().getName()))
+					.withPathStyleAccessEnabled(true);
+		} else {
+			builder.withRegion(storageProperties.getS3().getRegiao());
+		}
+		
+		return builder.build();
 	}
 	
 	@Bean
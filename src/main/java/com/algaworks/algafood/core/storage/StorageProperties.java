@@ -1,9 +1,12 @@
 package com.algaworks.algafood.core.storage;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import com.amazonaws.regions.Regions;
 
@@ -19,6 +22,11 @@ public class StorageProperties {
 	private Local local = new Local();
 	private S3 s3 = new S3();
 	private TipoStorage tipo = TipoStorage.LOCAL;
+	private Variantes variantes = new Variantes();
+	private DataSize tamanhoMaximoFoto = DataSize.ofKilobytes(500);
+	private Deduplicacao deduplicacao = new Deduplicacao();
+	private Assincrono assincrono = new Assincrono();
+	private Importacao importacao = new Importacao();
 	
 	public enum TipoStorage {
 		
@@ -44,6 +52,71 @@ public class StorageProperties {
 		private Regions regiao;
 		private String diretorioFotos;
 		
+		// Endpoint de um serviço compatível com S3 (MinIO, LocalStack) no lugar da AWS
+		private String endpoint;
+		
+		// Com URLs assinadas os objetos ficam privados e cada URL vale só pelo período
+		// configurado; sem elas os objetos são públicos
+		private boolean urlAssinada = false;
+		private Duration validadeUrl = Duration.ofHours(1);
+		private int tamanhoCacheUrls = 10_000;
+		
+		// Arquivos maiores que uma parte são enviados em multipart, uma parte por vez,
+		// sem carregar o arquivo inteiro na memória
+		private DataSize tamanhoParteMultipart = DataSize.ofMegabytes(5);
+		
+	}
+	
+	@Getter
+	@Setter
+	public class Variantes {
+		
+		// Larguras, em pixels, das cópias reduzidas geradas para cada foto enviada
+		private List<Integer> larguras = List.of(128, 512, 1024);
+		
+		private float qualidadeJpeg = 0.85f;
+		
+		// Threads e fila do estágio que gera as variantes depois do upload. Cada tarefa
+		// na fila guarda só o evento (a foto é lida do storage quando ela roda), então
+		// a fila pode ser longa o bastante para absorver uma importação em lote
+		private int threads = 2;
+		private int fila = 10_000;
+		
+	}
+	
+	@Getter
+	@Setter
+	public class Deduplicacao {
+		
+		// Guarda uma única cópia de cada imagem, por mais produtos que a usem: o SHA-256
+		// do conteúdo identifica a cópia, que mantém o nome do primeiro upload
+		private boolean habilitada = false;
+		
+		private int tamanhoLoteColeta = 100;
+		
+	}
+	
+	@Getter
+	@Setter
+	public class Assincrono {
+		
+		// Pool usado pelas operações assíncronas de storage (remoções pós-commit etc.)
+		private int threads = 4;
+		private int fila = 1000;
+		
+	}
+	
+	@Getter
+	@Setter
+	public class Importacao {
+		
+		// Fotos lidas do arquivo zip e ainda não gravadas no storage; limita a memória
+		// usada pelos conteúdos que aguardam uma thread livre
+		private int enviosSimultaneos = 8;
+		
+		// Fotos registradas por transação (e por lote de inserts no banco)
+		private int tamanhoLote = 100;
+		
 	}
 	
 }
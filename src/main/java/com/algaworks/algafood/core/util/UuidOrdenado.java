@@ -0,0 +1,24 @@
+package com.algaworks.algafood.core.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Gera UUIDs ordenados pelo tempo no layout da versão 7 (48 bits de timestamp em 
+ * milissegundos seguidos de bits aleatórios). Códigos gerados em sequência ficam
+ * próximos no índice, evitando a fragmentação causada pelo UUID.randomUUID().
+ */
+public class UuidOrdenado {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+	
+	public static UUID gerar() {
+		long timestamp = System.currentTimeMillis();
+		
+		long mostSigBits = (timestamp << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+		long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		
+		return new UUID(mostSigBits, leastSigBits);
+	}
+	
+}
@@ -0,0 +1,18 @@
+package com.algaworks.algafood.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FotoProdutoSalvaEvent {
+
+	private Long restauranteId;
+	
+	private Long produtoId;
+	
+	private String nomeArquivo;
+	
+	private String contentType;
+	
+}
@@ -0,0 +1,14 @@
+package com.algaworks.algafood.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ResponsavelRestauranteAlteradoEvent {
+
+	private Long restauranteId;
+	
+	private Long usuarioId;
+	
+}
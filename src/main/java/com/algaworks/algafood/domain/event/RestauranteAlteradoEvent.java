@@ -0,0 +1,12 @@
+package com.algaworks.algafood.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RestauranteAlteradoEvent {
+
+	private Long restauranteId;
+	
+}
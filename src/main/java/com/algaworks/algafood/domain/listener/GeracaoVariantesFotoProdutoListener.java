@@ -0,0 +1,76 @@
+package com.algaworks.algafood.domain.listener;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.event.FotoProdutoSalvaEvent;
+import com.algaworks.algafood.domain.model.VarianteFotoProduto;
+import com.algaworks.algafood.domain.service.CatalogoFotoProdutoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class GeracaoVariantesFotoProdutoListener {
+
+	@Autowired
+	private CatalogoFotoProdutoService catalogoFotoProduto;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	private ThreadPoolExecutor executor;
+	
+	@PostConstruct
+	public void inicializar() {
+		var variantes = storageProperties.getVariantes();
+		
+		var threadFactory = new CustomizableThreadFactory("foto-variantes-");
+		threadFactory.setDaemon(true);
+		
+		executor = new ThreadPoolExecutor(variantes.getThreads(), variantes.getThreads(), 
+				0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(variantes.getFila()), threadFactory);
+	}
+	
+	@PreDestroy
+	public void finalizar() {
+		executor.shutdownNow();
+	}
+	
+	// Só depois do commit o original está no storage e a foto visível para outra transação
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void aoSalvarFoto(FotoProdutoSalvaEvent event) {
+		try {
+			executor.execute(() -> gerarVariantes(event));
+		} catch (RejectedExecutionException e) {
+			// Sem variantes a foto continua sendo servida pelo original
+			log.warn("Fila de geração de variantes cheia, foto {} ficará sem variantes", event.getNomeArquivo());
+		}
+	}
+	
+	private void gerarVariantes(FotoProdutoSalvaEvent event) {
+		try {
+			List<VarianteFotoProduto> variantes = catalogoFotoProduto.gerarVariantes(
+					event.getNomeArquivo(), event.getContentType());
+			
+			catalogoFotoProduto.registrarVariantes(event.getRestauranteId(), event.getProdutoId(), 
+					event.getNomeArquivo(), variantes);
+		} catch (Exception e) {
+			log.warn("Não foi possível gerar as variantes da foto " + event.getNomeArquivo(), e);
+		}
+	}
+	
+}
@@ -2,31 +2,28 @@ package com.algaworks.algafood.domain.listener;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.algaworks.algafood.domain.event.PedidoConfirmadoEvent;
 import com.algaworks.algafood.domain.model.Pedido;
-import com.algaworks.algafood.domain.service.EnvioEmailService;
-import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
+import com.algaworks.algafood.domain.service.CaixaSaidaEmailService;
 
 @Component
 public class NotificacaoClientePedidoConfirmadoListener {
 	
 	@Autowired
-	private EnvioEmailService envioEmail;
-		
-	@TransactionalEventListener
+	private CaixaSaidaEmailService caixaSaidaEmail;
+	
+	// Grava o e-mail na mesma transação da mudança de status; o envio é feito
+	// depois pelo CaixaSaidaEmailAgendador, fora da requisição
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
 	public void aoConfirmarPedido(PedidoConfirmadoEvent event) {
 		Pedido pedido = event.getPedido();
 		
-		var mensagem = Mensagem.builder()
-				.assunto(pedido.getRestaurante().getNome() + " - Pedido confirmado")
-				.corpo("emails/pedido-confirmado.html")
-				.variavel("pedido", pedido)
-				.destinatario(pedido.getCliente().getEmail())
-				.build();
-
-		envioEmail.enviar(mensagem);
+		caixaSaidaEmail.registrar(pedido, 
+				pedido.getRestaurante().getNome() + " - Pedido confirmado",
+				"emails/pedido-confirmado.html");
 	}
 
 }
@@ -0,0 +1,49 @@
+package com.algaworks.algafood.domain.model;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Arquivo de foto armazenado uma única vez por conteúdo (identificado pelo SHA-256),
+ * com o nome que recebeu no primeiro upload (UUID_nome) e a contagem de fotos de
+ * produto que o usam.
+ */
+@Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+public class ArquivoFoto {
+
+	@EqualsAndHashCode.Include
+	@Id
+	private String hash;
+	
+	private String nomeArquivo;
+	private String contentType;
+	private Long tamanho;
+	private Integer referencias = 0;
+	
+	@CreationTimestamp
+	private OffsetDateTime dataCriacao;
+	
+	public void adicionarReferencia() {
+		setReferencias(getReferencias() + 1);
+	}
+	
+	public void removerReferencia() {
+		if (getReferencias() > 0) {
+			setReferencias(getReferencias() - 1);
+		}
+	}
+	
+	public boolean semReferencias() {
+		return getReferencias() == 0;
+	}
+	
+}
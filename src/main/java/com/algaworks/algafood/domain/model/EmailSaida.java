@@ -0,0 +1,109 @@
+package com.algaworks.algafood.domain.model;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.CreationTimestamp;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * E-mail de notificação de pedido aguardando envio (transactional outbox).
+ * 
+ * É gravado na mesma transação que altera o status do pedido e enviado depois,
+ * fora da requisição, pelo CaixaSaidaEmailService.
+ */
+@Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+public class EmailSaida {
+
+	private static final int TAMANHO_MAXIMO_ERRO = 500;
+	
+	@EqualsAndHashCode.Include
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(nullable = false)
+	private Pedido pedido;
+	
+	@Column(nullable = false)
+	private String destinatario;
+	
+	@Column(nullable = false)
+	private String assunto;
+	
+	@Column(nullable = false)
+	private String corpo;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private StatusEmailSaida status = StatusEmailSaida.PENDENTE;
+	
+	@Column(nullable = false)
+	private int tentativas;
+	
+	@Column(nullable = false)
+	private OffsetDateTime proximaTentativa;
+	
+	private String ultimoErro;
+	
+	@CreationTimestamp
+	@Column(nullable = false, columnDefinition = "datetime")
+	private OffsetDateTime dataCriacao;
+	
+	private OffsetDateTime dataEnvio;
+	
+	public static EmailSaida paraPedido(Pedido pedido, String assunto, String corpo) {
+		EmailSaida email = new EmailSaida();
+		email.setPedido(pedido);
+		email.setDestinatario(pedido.getCliente().getEmail());
+		email.setAssunto(assunto);
+		email.setCorpo(corpo);
+		email.setProximaTentativa(OffsetDateTime.now());
+		
+		return email;
+	}
+	
+	// Reserva o e-mail para um despachante até o fim da concessão; se o resultado não
+	// for registrado até lá (queda da aplicação), ele volta a ser buscado como pendente
+	public void reservar(OffsetDateTime fimConcessao) {
+		setStatus(StatusEmailSaida.ENVIANDO);
+		setProximaTentativa(fimConcessao);
+	}
+	
+	public void registrarEnvio() {
+		setStatus(StatusEmailSaida.ENVIADO);
+		setDataEnvio(OffsetDateTime.now());
+		setTentativas(getTentativas() + 1);
+		setUltimoErro(null);
+	}
+	
+	public void registrarFalha(String erro, OffsetDateTime proximaTentativa) {
+		setStatus(StatusEmailSaida.PENDENTE);
+		setTentativas(getTentativas() + 1);
+		setUltimoErro(StringUtils.abbreviate(erro, TAMANHO_MAXIMO_ERRO));
+		setProximaTentativa(proximaTentativa);
+	}
+	
+	public void desistir(String erro) {
+		setTentativas(getTentativas() + 1);
+		setUltimoErro(StringUtils.abbreviate(erro, TAMANHO_MAXIMO_ERRO));
+		setStatus(StatusEmailSaida.FALHOU);
+	}
+	
+}
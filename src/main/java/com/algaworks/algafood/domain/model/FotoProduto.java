@@ -1,12 +1,23 @@
 package com.algaworks.algafood.domain.model;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
 import javax.persistence.MapsId;
 import javax.persistence.OneToOne;
 
+import org.springframework.util.DigestUtils;
+
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -29,6 +40,13 @@ public class FotoProduto {
 	private String contentType;
 	private Long tamanho;
 	
+	// SHA-256 do conteúdo, calculado durante o upload
+	private String hash;
+	
+	@ElementCollection
+	@CollectionTable(name = "foto_produto_variante", joinColumns = @JoinColumn(name = "produto_id"))
+	private Set<VarianteFotoProduto> variantes = new HashSet<>();
+	
 	public Long getRestauranteId() {
 		if (getProduto() != null) {
 			return getProduto().getRestaurante().getId();
@@ -37,4 +55,17 @@ public class FotoProduto {
 		return null;
 	}
 	
+	// Identifica o arquivo atual da foto (muda a cada novo upload); vai na URL versionada
+	// do conteúdo, que pode ficar em cache indefinidamente
+	public String getVersao() {
+		return DigestUtils.md5DigestAsHex(getNomeArquivo().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	// Menor variante que ainda cobre a largura pedida; sem nenhuma, o original é servido
+	public Optional<VarianteFotoProduto> getVariante(int largura) {
+		return getVariantes().stream()
+				.filter(variante -> variante.getLargura() >= largura)
+				.min(Comparator.comparing(VarianteFotoProduto::getLargura));
+	}
+	
 }
\ No newline at end of file
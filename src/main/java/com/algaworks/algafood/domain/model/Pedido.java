@@ -4,10 +4,10 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -24,6 +24,8 @@ import javax.persistence.PrePersist;
 import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.data.domain.AbstractAggregateRoot;
 
+import com.algaworks.algafood.core.jpa.UuidBinaryConverter;
+import com.algaworks.algafood.core.util.UuidOrdenado;
 import com.algaworks.algafood.domain.event.PedidoCanceladoEvent;
 import com.algaworks.algafood.domain.event.PedidoConfirmadoEvent;
 import com.algaworks.algafood.domain.exception.NegocioException;
@@ -41,6 +43,8 @@ public class Pedido extends AbstractAggregateRoot<Pedido> {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
+	@Convert(converter = UuidBinaryConverter.class)
+	@Column(columnDefinition = "binary(16)")
 	private String codigo;
 	
 	@Column(name = "subtotal", nullable = false)
@@ -137,6 +141,6 @@ public class Pedido extends AbstractAggregateRoot<Pedido> {
 	
 	@PrePersist
 	private void gerarCodigo() {
-		setCodigo(UUID.randomUUID().toString());
+		setCodigo(UuidOrdenado.gerar().toString());
 	}
 }
@@ -0,0 +1,7 @@
+package com.algaworks.algafood.domain.model;
+
+public enum StatusEmailSaida {
+	
+	PENDENTE, ENVIANDO, ENVIADO, FALHOU
+	
+}
@@ -29,4 +29,8 @@ public enum StatusPedido {
 	public boolean podeAlterarPara(StatusPedido novoStatus) {
 		return !naoPodeAlterarPara(novoStatus);
 	}
+	
+	public boolean contaComoVenda() {
+		return this == CONFIRMADO || this == ENTREGUE;
+	}
 }
@@ -0,0 +1,28 @@
+package com.algaworks.algafood.domain.model;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class VarianteFotoProduto {
+
+	@Column(nullable = false)
+	private Integer largura;
+	
+	@Column(nullable = false)
+	private String nomeArquivo;
+	
+	@Column(nullable = false)
+	private String contentType;
+	
+	@Column(nullable = false)
+	private Long tamanho;
+	
+}
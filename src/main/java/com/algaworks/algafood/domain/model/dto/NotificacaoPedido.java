@@ -0,0 +1,58 @@
+package com.algaworks.algafood.domain.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cópia plana dos dados do pedido usados nos templates de e-mail, montada
+ * enquanto a transação está aberta para que a renderização não dispare lazy loading.
+ */
+@AllArgsConstructor
+@Getter
+public class NotificacaoPedido {
+
+	private String codigo;
+	private String clienteNome;
+	private String restauranteNome;
+	private String formaPagamentoDescricao;
+	private BigDecimal taxaFrete;
+	private BigDecimal valorTotal;
+	private List<Item> itens;
+	
+	public static NotificacaoPedido de(Pedido pedido) {
+		List<Item> itens = pedido.getItens().stream()
+				.map(Item::de)
+				.collect(Collectors.toUnmodifiableList());
+		
+		return new NotificacaoPedido(
+				pedido.getCodigo(),
+				pedido.getCliente().getNome(),
+				pedido.getRestaurante().getNome(),
+				pedido.getFormaPagamento().getDescricao(),
+				pedido.getTaxaFrete(),
+				pedido.getValorTotal(),
+				itens);
+	}
+	
+	@AllArgsConstructor
+	@Getter
+	public static class Item {
+		
+		private Integer quantidade;
+		private String produtoNome;
+		private BigDecimal precoTotal;
+		
+		static Item de(ItemPedido item) {
+			return new Item(item.getQuantidade(), item.getProduto().getNome(), item.getPrecoTotal());
+		}
+		
+	}
+	
+}
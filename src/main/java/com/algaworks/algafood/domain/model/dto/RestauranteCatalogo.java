@@ -0,0 +1,21 @@
+package com.algaworks.algafood.domain.model.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Imutável: a mesma instância é lida por todas as requisições que listam restaurantes
+@AllArgsConstructor
+@Getter
+public class RestauranteCatalogo {
+
+	private final Long id;
+	private final String nome;
+	private final BigDecimal taxaFrete;
+	private final Long cozinhaId;
+	private final String cozinhaNome;
+	private final Boolean ativo;
+	private final Boolean aberto;
+	
+}
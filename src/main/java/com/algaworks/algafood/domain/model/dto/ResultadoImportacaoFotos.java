@@ -0,0 +1,28 @@
+package com.algaworks.algafood.domain.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+public class ResultadoImportacaoFotos {
+
+	private List<Long> produtosAtualizados = new ArrayList<>();
+	private List<Falha> falhas = new ArrayList<>();
+	
+	public void adicionarFalha(String arquivo, String motivo) {
+		falhas.add(new Falha(arquivo, motivo));
+	}
+	
+	@AllArgsConstructor
+	@Getter
+	public static class Falha {
+		
+		private String arquivo;
+		private String motivo;
+		
+	}
+	
+}
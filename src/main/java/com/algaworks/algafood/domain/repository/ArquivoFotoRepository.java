@@ -0,0 +1,34 @@
+package com.algaworks.algafood.domain.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.algaworks.algafood.domain.model.ArquivoFoto;
+
+@Repository
+public interface ArquivoFotoRepository extends JpaRepository<ArquivoFoto, String>, ArquivoFotoRepositoryQueries {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("from ArquivoFoto where hash = :hash")
+	Optional<ArquivoFoto> findComBloqueio(@Param("hash") String hash);
+	
+	// Timeout -2 = SKIP LOCKED: arquivos que estão ganhando uma referência agora ficam para a próxima coleta
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+	@Query("from ArquivoFoto where referencias = 0")
+	List<ArquivoFoto> findSemReferencias(Pageable pageable);
+	
+	boolean existsByNomeArquivo(String nomeArquivo);
+	
+}
@@ -0,0 +1,11 @@
+package com.algaworks.algafood.domain.repository;
+
+public interface ArquivoFotoRepositoryQueries {
+
+	/**
+	 * Cria o registro do arquivo, sem referências, se ainda não existir outro com o
+	 * mesmo hash. Retorna true se o registro foi criado por esta chamada.
+	 */
+	boolean inserirSeAusente(String hash, String nomeArquivo, String contentType, long tamanho);
+	
+}
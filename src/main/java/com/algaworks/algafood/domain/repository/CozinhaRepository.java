@@ -1,11 +1,25 @@
 package com.algaworks.algafood.domain.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.algaworks.algafood.domain.model.Cozinha;
 
 @Repository
-public interface CozinhaRepository extends JpaRepository<Cozinha, Long> {		
+public interface CozinhaRepository extends CustomJpaRepository<Cozinha, Long> {		
 
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<Cozinha> findAll();
+	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	Slice<Cozinha> findSlice(Pageable pageable);
+	
 }
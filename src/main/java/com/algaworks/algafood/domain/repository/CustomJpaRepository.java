@@ -2,6 +2,9 @@ package com.algaworks.algafood.domain.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 
@@ -9,4 +12,6 @@ import org.springframework.data.repository.NoRepositoryBean;
 public interface CustomJpaRepository<T, ID> extends JpaRepository<T, ID> {
 	Optional<T> buscarPrimeiro();	
 	void detach(T entity);
+	Slice<T> findSlice(Pageable pageable);
+	Slice<T> findSlice(Specification<T> spec, Pageable pageable);
 }
@@ -0,0 +1,30 @@
+package com.algaworks.algafood.domain.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.algaworks.algafood.domain.model.EmailSaida;
+
+@Repository
+public interface EmailSaidaRepository extends JpaRepository<EmailSaida, Long> {
+	
+	// Timeout -2 = SKIP LOCKED: outra instância do despachante pula as linhas que
+	// estão sendo reservadas em vez de esperar por elas. Um e-mail ENVIANDO só volta
+	// a ser buscado quando a concessão (proximaTentativa) expira.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+	@Query("from EmailSaida where status in ('PENDENTE', 'ENVIANDO') and proximaTentativa <= :agora order by id")
+	List<EmailSaida> findPendentes(@Param("agora") OffsetDateTime agora, Pageable pageable);
+
+}
@@ -1,6 +1,13 @@
 package com.algaworks.algafood.domain.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.algaworks.algafood.domain.model.Estado;
@@ -8,4 +15,7 @@ import com.algaworks.algafood.domain.model.Estado;
 @Repository
 public interface EstadoRepository extends JpaRepository<Estado, Long> {	
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<Estado> findAll();
+	
 }
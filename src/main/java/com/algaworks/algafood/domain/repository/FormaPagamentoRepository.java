@@ -1,9 +1,15 @@
 package com.algaworks.algafood.domain.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +18,9 @@ import com.algaworks.algafood.domain.model.FormaPagamento;
 @Repository
 public interface FormaPagamentoRepository extends JpaRepository<FormaPagamento, Long> {
 	
+	@QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+	List<FormaPagamento> findAll();
+	
 	@Query("select max(dataAtualizacao) from FormaPagamento")
 	OffsetDateTime getDataUltimaAtualizacao();
 	
@@ -1,6 +1,10 @@
 package com.algaworks.algafood.domain.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.algaworks.algafood.domain.model.Grupo;
@@ -8,4 +12,7 @@ import com.algaworks.algafood.domain.model.Grupo;
 @Repository
 public interface GrupoRepository extends JpaRepository<Grupo, Long> {	
 	
+	@Query("from Grupo g left join fetch g.permissoes where g.id = :id")
+	Optional<Grupo> findComPermissoesById(@Param("id") Long id);
+	
 }
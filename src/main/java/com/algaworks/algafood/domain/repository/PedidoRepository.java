@@ -1,24 +1,53 @@
 package com.algaworks.algafood.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.algaworks.algafood.domain.model.Pedido;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido> {
+public interface PedidoRepository extends CustomJpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido>, PedidoRepositoryQueries {
 	
 	Optional<Pedido> findByCodigo(String codigo);
 	
+	// select ... for update: mudanças de status concorrentes no mesmo pedido esperam
+	// a anterior terminar e já leem o status que ela gravou
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("from Pedido where codigo = :codigo")
+	Optional<Pedido> findComBloqueioByCodigo(@Param("codigo") String codigo);
+	
+	// Carrega o pedido com tudo que o PedidoModel exibe em uma única consulta. É JPQL e não
+	// @EntityGraph porque o Hibernate ignora no grafo caminhos que passam pelo embeddable
+	// (enderecoEntrega.cidade), e a cidade voltaria a vir num segundo select
+	@Query("select p from Pedido p join fetch p.formaPagamento join fetch p.cliente "
+			+ "join fetch p.restaurante r join fetch r.cozinha "
+			+ "join fetch p.enderecoEntrega.cidade c join fetch c.estado "
+			+ "left join fetch p.itens i left join fetch i.produto "
+			+ "where p.codigo = :codigo")
+	Optional<Pedido> findDetalhadoByCodigo(@Param("codigo") String codigo);
+	
+	@EntityGraph(attributePaths = {"formaPagamento", "restaurante", "cliente", "itens.produto"}, 
+			type = EntityGraphType.LOAD)
+	List<Pedido> findDistinctByIdIn(Collection<Long> ids);
+	
 	@Query("from Pedido p join fetch p.cliente join fetch p.restaurante r join fetch r.cozinha join fetch p.itens i join fetch i.produto")
 	List<Pedido> findAll();
 	
 	//consulta tá no orm.xml
 	boolean isPedidoGerenciadoPor(String codigoPedido, Long usuarioId);
+	
+	//consulta tá no orm.xml
+	Optional<Long> findRestauranteIdByCodigo(String codigo);
 
 }
@@ -0,0 +1,13 @@
+package com.algaworks.algafood.domain.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import com.algaworks.algafood.domain.filter.PedidoFilter;
+import com.algaworks.algafood.domain.model.Pedido;
+
+public interface PedidoRepositoryQueries {
+
+	List<Pedido> findAposCursor(PedidoFilter filtro, OffsetDateTime dataCriacao, Long id, int limite);
+	
+}
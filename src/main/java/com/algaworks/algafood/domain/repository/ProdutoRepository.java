@@ -1,5 +1,6 @@
 package com.algaworks.algafood.domain.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,13 +19,24 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long>, Produto
 	@Query("from Produto where restaurante.id = :restaurante and id = :produto")
     Optional<Produto> findById(@Param("restaurante") Long restauranteId, @Param("produto") Long produtoId);
 	
+	@Query("from Produto where restaurante.id = :restaurante and id in :produtos")
+	List<Produto> findAllById(@Param("restaurante") Long restauranteId, @Param("produtos") Collection<Long> produtoIds);
+	
     List<Produto> findAllByRestaurante(Restaurante restaurante);
     
     @Query("from Produto p where p.ativo = true and p.restaurante = :restaurante ")
     List<Produto> findAtivosByRestaurante(@Param("restaurante") Restaurante restaurante);  
     
-	@Query("select f from FotoProduto f join f.produto p "
-			+ "where p.restaurante.id = :restauranteId and f.produto.id = :produtoId")
+	@Query("select f from FotoProduto f join fetch f.produto p left join fetch f.variantes "
+			+ "where p.restaurante.id = :restauranteId and p.id = :produtoId")
 	Optional<FotoProduto> findFotoById(Long restauranteId, Long produtoId);
+	
+	@Query("select distinct f from FotoProduto f join f.produto p left join fetch f.variantes "
+			+ "where p.restaurante.id = :restauranteId and p.id in :produtoIds")
+	List<FotoProduto> findFotosByProdutoIds(@Param("restauranteId") Long restauranteId, 
+			@Param("produtoIds") Collection<Long> produtoIds);
+	
+	@Query("select distinct f from FotoProduto f join fetch f.variantes where f.nomeArquivo = :nomeArquivo")
+	List<FotoProduto> findFotosComVariantes(@Param("nomeArquivo") String nomeArquivo);
     
 }
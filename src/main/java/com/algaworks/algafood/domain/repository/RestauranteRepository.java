@@ -1,6 +1,8 @@
 package com.algaworks.algafood.domain.repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -20,10 +22,24 @@ public interface RestauranteRepository extends CustomJpaRepository<Restaurante,
 	@Query("select distinct r from Restaurante r join fetch r.cozinha")
 	List<Restaurante> findAll();
 	
+	// Com tudo que o RestauranteModel exibe, inclusive a cidade do endereço
+	@Query("from Restaurante r join fetch r.cozinha left join fetch r.endereco.cidade c left join fetch c.estado "
+			+ "where r.id = :id")
+	Optional<Restaurante> findDetalhadoById(@Param("id") Long id);
+	
+	@Query("from Restaurante r left join fetch r.formasPagamento where r.id = :id")
+	Optional<Restaurante> findComFormasPagamentoById(@Param("id") Long id);
+	
+	@Query("from Restaurante r left join fetch r.responsaveis where r.id = :id")
+	Optional<Restaurante> findComResponsaveisById(@Param("id") Long id);
+	
 	//@Query("from Restaurante where nome like %:nome% and cozinha.id = :id")
 	//A consulta tá no orm.xml
 	List<Restaurante> consultarPorNome(@Param("nome") String nome, @Param("id") Long id);
 	
 	//A consulta tá no orm.xml
 	boolean existsResponsavel(Long restauranteId, Long usuarioId);
+	
+	//A consulta tá no orm.xml
+	Set<Long> findIdsByResponsavel(Long usuarioId);
 }
@@ -3,6 +3,7 @@ package com.algaworks.algafood.domain.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.algaworks.algafood.domain.model.Usuario;
@@ -12,6 +13,9 @@ public interface UsuarioRepository extends CustomJpaRepository<Usuario, Long> {
 	
 	Optional<Usuario> findByEmail(String email);
 	
+	@Query("from Usuario u left join fetch u.grupos where u.id = :id")
+	Optional<Usuario> findComGruposById(@Param("id") Long id);
+	
     @Query("SELECT COUNT(u) > 0 FROM Usuario u WHERE u.email = :email and (:id is null or u.id <> :id)")
     boolean existsByEmailAndIdNot(String email, Long id);
 	
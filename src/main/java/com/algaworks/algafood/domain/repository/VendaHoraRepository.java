@@ -0,0 +1,20 @@
+package com.algaworks.algafood.domain.repository;
+
+/**
+ * Totais de vendas (pedidos confirmados ou entregues) por restaurante e hora UTC
+ * da criação do pedido, mantidos a cada mudança de status para que as estatísticas
+ * não precisem varrer a tabela de pedidos.
+ */
+public interface VendaHoraRepository {
+
+	/**
+	 * Soma (quantidade = 1) ou subtrai (quantidade = -1) o pedido dos totais da sua hora.
+	 */
+	void registrar(Long pedidoId, int quantidade);
+	
+	/**
+	 * Recalcula todos os totais a partir da tabela de pedidos.
+	 */
+	void reconstruir();
+	
+}
@@ -0,0 +1,123 @@
+package com.algaworks.algafood.domain.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.model.ArquivoFoto;
+import com.algaworks.algafood.domain.model.FotoProduto;
+import com.algaworks.algafood.domain.repository.ArquivoFotoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controla os arquivos de foto compartilhados por conteúdo (SHA-256). As referências
+ * são contadas com o registro do arquivo bloqueado, na mesma transação que registra
+ * ou remove a foto, e sem acessar o storage. Só a coleta apaga arquivos, e depois de
+ * remover o registro: um upload do mesmo conteúdo que chegue nesse meio tempo cria
+ * um registro novo com o próprio arquivo, e nunca aponta para um que está sendo apagado.
+ */
+@Slf4j
+@Service
+public class ArquivoFotoService {
+
+	@Autowired
+	private ArquivoFotoRepository arquivoFotoRepository;
+	
+	@Autowired
+	private FotoStorageService fotoStorageService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	/**
+	 * Adiciona uma referência ao arquivo com o hash informado e retorna o nome dele. Se
+	 * ainda não existe um arquivo com esse conteúdo, o recebido passa a ser o compartilhado;
+	 * se já existe, quem chamou deve apagar o recebido depois do commit. Deve rodar na
+	 * transação que registra a foto, para que um rollback desfaça também a referência.
+	 */
+	@Transactional
+	public String referenciar(String nomeArquivoRecebido, String hash, String contentType, long tamanho) {
+		arquivoFotoRepository.inserirSeAusente(hash, nomeArquivoRecebido, contentType, tamanho);
+		
+		ArquivoFoto arquivo = arquivoFotoRepository.findComBloqueio(hash).orElseThrow();
+		arquivo.adicionarReferencia();
+		
+		return arquivo.getNomeArquivo();
+	}
+	
+	/**
+	 * Remove a referência da foto ao seu arquivo. Retorna false se a foto não usa um
+	 * arquivo compartilhado (fotos enviadas antes da deduplicação), caso em que os
+	 * arquivos dela devem ser apagados diretamente.
+	 */
+	@Transactional
+	public boolean liberar(FotoProduto foto) {
+		if (foto.getHash() == null) {
+			return false;
+		}
+		
+		return arquivoFotoRepository.findComBloqueio(foto.getHash())
+				.filter(arquivo -> arquivo.getNomeArquivo().equals(foto.getNomeArquivo()))
+				.map(arquivo -> {
+					arquivo.removerReferencia();
+					return true;
+				})
+				.orElse(false);
+	}
+	
+	@Transactional(readOnly = true)
+	public boolean isCompartilhado(String nomeArquivo) {
+		return arquivoFotoRepository.existsByNomeArquivo(nomeArquivo);
+	}
+	
+	/**
+	 * Coleta até um lote de arquivos sem referências. Cada registro é removido na sua
+	 * própria transação, e o arquivo e as variantes reduzidas só são apagados do storage
+	 * depois do commit, sem segurar o bloqueio. Se a exclusão no storage falhar, sobra um
+	 * arquivo sem registro, que não é servido a ninguém. Retorna quantos foram coletados.
+	 */
+	public int coletarLote() {
+		int tamanhoLote = storageProperties.getDeduplicacao().getTamanhoLoteColeta();
+		int coletados = 0;
+		
+		while (coletados < tamanhoLote) {
+			String nomeArquivo = transactionTemplate.execute(status ->
+					arquivoFotoRepository.findSemReferencias(PageRequest.of(0, 1)).stream()
+						.findFirst()
+						.map(arquivo -> {
+							arquivoFotoRepository.delete(arquivo);
+							return arquivo.getNomeArquivo();
+						})
+						.orElse(null));
+			
+			if (nomeArquivo == null) {
+				break;
+			}
+			
+			removerArquivos(nomeArquivo);
+			coletados++;
+		}
+		
+		return coletados;
+	}
+	
+	private void removerArquivos(String nomeArquivo) {
+		try {
+			for (Integer largura : storageProperties.getVariantes().getLarguras()) {
+				fotoStorageService.remover(fotoStorageService.gerarNomeVariante(nomeArquivo, largura));
+			}
+			
+			fotoStorageService.remover(nomeArquivo);
+		} catch (RuntimeException e) {
+			log.warn("Não foi possível apagar do storage o arquivo coletado " + nomeArquivo, e);
+		}
+	}
+	
+}
@@ -1,13 +1,18 @@
 package com.algaworks.algafood.domain.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.algaworks.algafood.core.data.ContagemCache;
+import com.algaworks.algafood.domain.event.CozinhaAlteradaEvent;
 import com.algaworks.algafood.domain.exception.CozinhaNaoEncontradaException;
 import com.algaworks.algafood.domain.exception.EntidadeEmUsoException;
 import com.algaworks.algafood.domain.model.Cozinha;
@@ -15,13 +20,27 @@ import com.algaworks.algafood.domain.repository.CozinhaRepository;
 
 @Service
 public class CadastroCozinhaService {
+	
+	private static final String CHAVE_CONTAGEM = "cozinha";
 			
 	@Autowired
 	private CozinhaRepository cozinhaRepository;
 	
+	@Autowired
+	private ContagemCache contagemCache;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	
 	public Page<Cozinha> listar(Pageable pageable) {
-		return cozinhaRepository.findAll(pageable);
+		Slice<Cozinha> cozinhasSlice = cozinhaRepository.findSlice(pageable);
+		return PageableExecutionUtils.getPage(cozinhasSlice.getContent(), pageable, 
+				() -> contagemCache.contar(CHAVE_CONTAGEM, cozinhaRepository::count));
+	}
+	
+	public Slice<Cozinha> listarSemTotal(Pageable pageable) {
+		return cozinhaRepository.findSlice(pageable);
 	}
 	
 	public Cozinha buscar(Long id) {
@@ -32,7 +51,10 @@ public class CadastroCozinhaService {
 	
 	@Transactional
 	public Cozinha salvar(Cozinha cozinha) {
-		return cozinhaRepository.save(cozinha);
+		cozinha = cozinhaRepository.save(cozinha);
+		contagemCache.invalidar(CHAVE_CONTAGEM);
+		eventPublisher.publishEvent(new CozinhaAlteradaEvent(cozinha.getId()));
+		return cozinha;
 	}	
 	
 	@Transactional
@@ -40,6 +62,7 @@ public class CadastroCozinhaService {
 		try {
 			cozinhaRepository.deleteById(id);		
 			cozinhaRepository.flush();
+			contagemCache.invalidar(CHAVE_CONTAGEM);
 		} catch (EmptyResultDataAccessException e) {
 			throw new CozinhaNaoEncontradaException(id);		
 		} catch (DataIntegrityViolationException e) {
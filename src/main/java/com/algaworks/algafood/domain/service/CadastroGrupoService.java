@@ -34,6 +34,11 @@ public class CadastroGrupoService {
 		return grupo;		
 	}
 	
+	public Grupo buscarComPermissoes(Long id) {
+		return grupoRepository.findComPermissoesById(id)
+				 .orElseThrow(() -> new GrupoNaoEncontradoException(id));
+	}
+	
 	@Transactional
 	public Grupo salvar(Grupo grupo) {
 		return grupoRepository.save(grupo);
@@ -6,12 +6,15 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.algaworks.algafood.core.util.ClassNameForException;
+import com.algaworks.algafood.domain.event.ResponsavelRestauranteAlteradoEvent;
+import com.algaworks.algafood.domain.event.RestauranteAlteradoEvent;
 import com.algaworks.algafood.domain.exception.EntidadeEmUsoException;
 import com.algaworks.algafood.domain.exception.FormaPagamentoNaoEncontradaException;
 import com.algaworks.algafood.domain.exception.NegocioException;
@@ -44,6 +47,9 @@ public class CadastroRestauranteService {
 	@Autowired
 	private CadastroUsuarioService cadastroUsuarioService;
 	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
 	public List<Restaurante> listar(){
 		 return restauranteRepository.findAll();		
 	}
@@ -54,6 +60,21 @@ public class CadastroRestauranteService {
 		return restaurante;
 	}
 	
+	public Restaurante buscarDetalhado(Long id) {
+		return restauranteRepository.findDetalhadoById(id)
+				.orElseThrow(() -> new RestauranteNaoEncontradoException(id));
+	}
+	
+	public Restaurante buscarComFormasPagamento(Long id) {
+		return restauranteRepository.findComFormasPagamentoById(id)
+				.orElseThrow(() -> new RestauranteNaoEncontradoException(id));
+	}
+	
+	public Restaurante buscarComResponsaveis(Long id) {
+		return restauranteRepository.findComResponsaveisById(id)
+				.orElseThrow(() -> new RestauranteNaoEncontradoException(id));
+	}
+	
 	public List<Restaurante> buscarPorNome(String nome, Long id){
 		 return restauranteRepository.consultarPorNome(nome, id);		
 	}
@@ -66,8 +87,10 @@ public class CadastroRestauranteService {
 		return restauranteRepository.findComFreteGratis(nome);
 	}
 	
+	// O buscarPrimeiro é genérico e não traz a cidade do endereço
 	public Optional<Restaurante> buscarOPrimeiro(){
-		return restauranteRepository.buscarPrimeiro();
+		return restauranteRepository.buscarPrimeiro()
+				.map(restaurante -> buscarDetalhado(restaurante.getId()));
 	}
 	
 	@Transactional
@@ -84,7 +107,10 @@ public class CadastroRestauranteService {
 		restaurante.setCozinha(cozinha);
 		restaurante.getEndereco().setCidade(cidade);
 		
-		return restauranteRepository.save(restaurante);
+		Restaurante restauranteSalvo = restauranteRepository.save(restaurante);
+		eventPublisher.publishEvent(new RestauranteAlteradoEvent(restauranteSalvo.getId()));
+		
+		return restauranteSalvo;
 	}	
 	
 	
@@ -92,12 +118,14 @@ public class CadastroRestauranteService {
 	public void ativar(Long id) {
 		Restaurante restauranteAtual = buscar(id);		
 		restauranteAtual.ativar();
+		eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
 	}
 	
 	@Transactional
 	public void inativar(Long id) {
 		Restaurante restauranteAtual = buscar(id);		
 		restauranteAtual.inativar();
+		eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
 	}
 	
 	@Transactional
@@ -122,12 +150,14 @@ public class CadastroRestauranteService {
 	public void abrirRestaurante(Long id) {
 		Restaurante restaurante = buscar(id);
 		restaurante.abrir();
+		eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
 	}
 	
 	@Transactional
 	public void fecharRestaurante(Long id) {
 		Restaurante restaurante = buscar(id);
 		restaurante.fechar();
+		eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
 	}
 	
 	@Transactional
@@ -153,6 +183,7 @@ public class CadastroRestauranteService {
 		Restaurante restaurante = buscar(restauranteId);
 		Usuario usuario = cadastroUsuarioService.buscar(usuarioId);
 		restaurante.associar(usuario);
+		eventPublisher.publishEvent(new ResponsavelRestauranteAlteradoEvent(restauranteId, usuarioId));
 	}
 	
 	@Transactional
@@ -160,6 +191,7 @@ public class CadastroRestauranteService {
 		Restaurante restaurante = buscar(restauranteId);
 		Usuario usuario = cadastroUsuarioService.buscar(usuarioId);
 		restaurante.desassociar(usuario);
+		eventPublisher.publishEvent(new ResponsavelRestauranteAlteradoEvent(restauranteId, usuarioId));
 	}
 		
 	@Transactional
@@ -167,6 +199,7 @@ public class CadastroRestauranteService {
 		try {
 			restauranteRepository.deleteById(id);
 			restauranteRepository.flush();
+			eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
 		}catch (EmptyResultDataAccessException e) {
 			throw new RestauranteNaoEncontradoException(id);
 		}catch (DataIntegrityViolationException e) {
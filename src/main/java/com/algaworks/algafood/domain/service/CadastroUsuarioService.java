@@ -39,6 +39,11 @@ public class CadastroUsuarioService {
 		return usuario;
 	}
 	
+	public Usuario buscarComGrupos(Long id) {
+		return usuarioRepository.findComGruposById(id)
+				.orElseThrow(() -> new UsuarioNaoEncontradoException(id));
+	}
+	
 	@Transactional
 	public Usuario salvar(Usuario usuario) {	
 		
@@ -0,0 +1,174 @@
+package com.algaworks.algafood.domain.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.email.EmailProperties;
+import com.algaworks.algafood.domain.model.EmailSaida;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.dto.NotificacaoPedido;
+import com.algaworks.algafood.domain.repository.EmailSaidaRepository;
+import com.algaworks.algafood.domain.repository.PedidoRepository;
+import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class CaixaSaidaEmailService {
+
+	@Autowired
+	private EmailSaidaRepository emailSaidaRepository;
+	
+	@Autowired
+	private PedidoRepository pedidoRepository;
+	
+	@Autowired
+	private EnvioEmailService envioEmail;
+	
+	@Autowired
+	private EmailProperties emailProperties;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	@Transactional
+	public EmailSaida registrar(Pedido pedido, String assunto, String corpo) {
+		return emailSaidaRepository.save(EmailSaida.paraPedido(pedido, assunto, corpo));
+	}
+	
+	/**
+	 * Envia um lote de e-mails pendentes e retorna quantos foram processados.
+	 * 
+	 * O lote é reservado em uma transação curta, os e-mails são enviados sem nenhuma
+	 * transação aberta e o resultado é registrado em outra transação curta, de modo que
+	 * nem as linhas nem a conexão com o banco ficam presas durante a conversa com o SMTP.
+	 * Se o resultado não for registrado (queda da aplicação, por exemplo), a reserva
+	 * expira e os e-mails do lote são enviados de novo: a entrega é "pelo menos uma vez".
+	 */
+	public int despacharLote() {
+		Map<Mensagem, Long> mensagens = transactionTemplate.execute(status -> reservarLote());
+		
+		if (mensagens.isEmpty()) {
+			return 0;
+		}
+		
+		Map<Mensagem, Exception> falhas;
+		
+		try {
+			falhas = envioEmail.enviar(List.copyOf(mensagens.keySet()));
+		} catch (RuntimeException e) {
+			falhas = new IdentityHashMap<>();
+			
+			for (Mensagem mensagem : mensagens.keySet()) {
+				falhas.put(mensagem, e);
+			}
+		}
+		
+		Map<Mensagem, Exception> falhasEnvio = falhas;
+		transactionTemplate.executeWithoutResult(status -> registrarResultado(mensagens, falhasEnvio));
+		
+		return mensagens.size();
+	}
+	
+	// Marca os pendentes do lote como ENVIANDO até o fim da concessão e monta as mensagens,
+	// que não dependem mais do contexto de persistência depois do commit
+	private Map<Mensagem, Long> reservarLote() {
+		var caixaSaida = emailProperties.getCaixaSaida();
+		OffsetDateTime agora = OffsetDateTime.now();
+		
+		List<EmailSaida> pendentes = emailSaidaRepository.findPendentes(
+				agora, PageRequest.of(0, caixaSaida.getTamanhoLote()));
+		
+		Map<Long, NotificacaoPedido> notificacoes = carregarNotificacoes(pendentes);
+		
+		Map<Mensagem, Long> mensagens = new LinkedHashMap<>();
+		
+		for (EmailSaida email : pendentes) {
+			email.reservar(agora.plus(caixaSaida.getConcessao()));
+			mensagens.put(criarMensagem(email, notificacoes.get(email.getPedido().getId())), email.getId());
+		}
+		
+		return mensagens;
+	}
+	
+	private void registrarResultado(Map<Mensagem, Long> mensagens, Map<Mensagem, Exception> falhas) {
+		Map<Long, EmailSaida> emails = emailSaidaRepository.findAllById(mensagens.values()).stream()
+				.collect(Collectors.toMap(EmailSaida::getId, Function.identity()));
+		
+		mensagens.forEach((mensagem, emailId) -> {
+			EmailSaida email = emails.get(emailId);
+			
+			if (falhas.containsKey(mensagem)) {
+				registrarFalha(email, falhas.get(mensagem));
+			} else {
+				email.registrarEnvio();
+			}
+		});
+	}
+	
+	// Busca os pedidos do lote, com itens, cliente, restaurante e forma de pagamento,
+	// em uma única consulta e já os converte para o formato usado nos templates
+	private Map<Long, NotificacaoPedido> carregarNotificacoes(List<EmailSaida> emails) {
+		Set<Long> pedidoIds = emails.stream()
+				.map(email -> email.getPedido().getId())
+				.collect(Collectors.toSet());
+		
+		if (pedidoIds.isEmpty()) {
+			return Map.of();
+		}
+		
+		return pedidoRepository.findDistinctByIdIn(pedidoIds).stream()
+				.collect(Collectors.toMap(Pedido::getId, NotificacaoPedido::de));
+	}
+	
+	private Mensagem criarMensagem(EmailSaida email, NotificacaoPedido notificacao) {
+		return Mensagem.builder()
+				.assunto(email.getAssunto())
+				.corpo(email.getCorpo())
+				.variavel("pedido", notificacao)
+				.destinatario(email.getDestinatario())
+				.build();
+	}
+	
+	private void registrarFalha(EmailSaida email, Exception e) {
+		var caixaSaida = emailProperties.getCaixaSaida();
+		String erro = e.getMessage();
+		
+		if (e.getCause() != null) {
+			erro = erro + ": " + e.getCause().getMessage();
+		}
+		
+		if (email.getTentativas() + 1 >= caixaSaida.getMaximoTentativas()) {
+			log.error("Desistindo do e-mail {} após {} tentativas", email.getId(), email.getTentativas() + 1, e);
+			email.desistir(erro);
+			return;
+		}
+		
+		log.warn("Falha ao enviar e-mail {}, nova tentativa agendada", email.getId(), e);
+		email.registrarFalha(erro, OffsetDateTime.now().plus(calcularEspera(email.getTentativas())));
+	}
+	
+	// Backoff exponencial: intervaloInicial, 2x, 4x, ... limitado ao intervaloMaximo
+	private Duration calcularEspera(int tentativasAnteriores) {
+		var caixaSaida = emailProperties.getCaixaSaida();
+		Duration espera = caixaSaida.getIntervaloInicial()
+				.multipliedBy(1L << Math.min(tentativasAnteriores, 20));
+		
+		return espera.compareTo(caixaSaida.getIntervaloMaximo()) > 0 ? caixaSaida.getIntervaloMaximo() : espera;
+	}
+	
+}
@@ -1,17 +1,42 @@
 package com.algaworks.algafood.domain.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 
+import com.algaworks.algafood.core.io.VerificacaoArquivoInputStream;
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.event.FotoProdutoSalvaEvent;
 import com.algaworks.algafood.domain.exception.FotoProdutoNaoEncontradoException;
+import com.algaworks.algafood.domain.exception.NegocioException;
 import com.algaworks.algafood.domain.model.FotoProduto;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.VarianteFotoProduto;
 import com.algaworks.algafood.domain.repository.ProdutoRepository;
 import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+import com.algaworks.algafood.domain.service.RedimensionamentoFotoService.FotoRedimensionada;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 public class CatalogoFotoProdutoService {
 	
@@ -21,48 +46,302 @@ public class CatalogoFotoProdutoService {
 	@Autowired
 	private FotoStorageService fotoStorageService;
 	
-	@Transactional
+	@Autowired
+	private FotoStorageAsyncService fotoStorageAsyncService;
+	
+	@Autowired
+	private RedimensionamentoFotoService redimensionamentoFotoService;
+	
+	@Autowired
+	private ArquivoFotoService arquivoFotoService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
+	/**
+	 * Grava o arquivo no storage enquanto ele é recebido e só depois registra a foto
+	 * no banco, para que nenhuma conexão fique presa esperando o upload terminar.
+	 */
 	public FotoProduto salvar(FotoProduto foto, InputStream dadosArquivo) {
+		String nomeNovoArquivo = fotoStorageService.gerarNomeArquivo(foto.getNomeArquivo());
+		
+		armazenar(foto, nomeNovoArquivo, dadosArquivo);
+		
+		Set<String> arquivosDescartados = new HashSet<>();
+		FotoProduto fotoSalva;
+		
+		try {
+			fotoSalva = transactionTemplate.execute(status -> registrar(foto, arquivosDescartados));
+		} catch (RuntimeException e) {
+			// Compensação: a foto não foi registrada, então o arquivo gravado é descartado
+			removerArquivos(Set.of(nomeNovoArquivo));
+			throw e;
+		}
+		
+		removerArquivos(arquivosDescartados);
+		
+		return fotoSalva;
+	}
+	
+	private void armazenar(FotoProduto foto, String nomeArquivo, InputStream dadosArquivo) {
+		DataSize tamanhoMaximo = storageProperties.getTamanhoMaximoFoto();
+		var verificacao = new VerificacaoArquivoInputStream(dadosArquivo, tamanhoMaximo.toBytes());
+		String contentType;
+		
+		try {
+			contentType = verificacao.detectarContentType();
+		} catch (IOException e) {
+			throw new NegocioException("Não foi possível ler o arquivo enviado.", e);
+		}
+		
+		if (contentType == null) {
+			throw new NegocioException("O arquivo enviado não é uma imagem JPEG ou PNG.");
+		}
 		
+		try {
+			fotoStorageService.armazenar(NovaFoto.builder()
+					.nomeArquivo(nomeArquivo)
+					.contentType(contentType)
+					.inputStream(verificacao)
+					.build());
+		} catch (RuntimeException e) {
+			removerArquivos(Set.of(nomeArquivo));
+			
+			if (verificacao.isLimiteExcedido()) {
+				throw new NegocioException(String.format(
+						"O arquivo enviado excede o tamanho máximo de %d KB.", tamanhoMaximo.toKilobytes()));
+			}
+			
+			throw e;
+		}
+		
+		foto.setNomeArquivo(nomeArquivo);
+		foto.setContentType(contentType);
+		foto.setTamanho(verificacao.getTamanho());
+		foto.setHash(verificacao.getHash());
+	}
+	
+	private FotoProduto registrar(FotoProduto foto, Set<String> arquivosDescartados) {
 		Long restauranteId = foto.getRestauranteId();
 		Long produtoId = foto.getProduto().getId();
-		String nomeNovoArquivo = fotoStorageService.gerarNomeArquivo(foto.getNomeArquivo());
-		String nomeArquivoExistente = null;
+		
+		if (storageProperties.getDeduplicacao().isHabilitada()) {
+			referenciarArquivo(foto, arquivosDescartados);
+		}
 		
 		Optional<FotoProduto> fotoExistente = produtoRepository.findFotoById(restauranteId, produtoId);
 		
 		if (fotoExistente.isPresent()) {
-			nomeArquivoExistente = fotoExistente.get().getNomeArquivo();
+			if (!arquivoFotoService.liberar(fotoExistente.get())) {
+				arquivosDescartados.add(fotoExistente.get().getNomeArquivo());
+				arquivosDescartados.addAll(nomesArquivos(fotoExistente.get().getVariantes()));
+			}
+			
 			produtoRepository.delete(fotoExistente.get());
 		}
 		
-		foto.setNomeArquivo(nomeNovoArquivo);
 		foto =  produtoRepository.save(foto);
 		produtoRepository.flush();
 		
-		NovaFoto novaFoto = NovaFoto.builder()
-				.nomeArquivo(foto.getNomeArquivo())
-				.contentType(foto.getContentType())
-				.inputStream(dadosArquivo)
-				.build();
-				
-		fotoStorageService.substituir(nomeArquivoExistente, novaFoto);
+		// As variantes reduzidas são geradas depois do commit, fora da requisição
+		eventPublisher.publishEvent(new FotoProdutoSalvaEvent(restauranteId, produtoId, 
+				foto.getNomeArquivo(), foto.getContentType()));
 		
 		return foto;
 	}
 	
+	/**
+	 * Registra numa única transação fotos cujos arquivos já foram gravados no storage
+	 * (importação em lote), substituindo as fotos atuais dos produtos. Se a transação
+	 * falhar, os arquivos gravados são descartados.
+	 */
+	public void salvarLote(Long restauranteId, List<FotoProduto> fotos) {
+		Set<String> arquivosGravados = fotos.stream()
+				.map(FotoProduto::getNomeArquivo)
+				.collect(Collectors.toSet());
+		Set<String> arquivosDescartados = new HashSet<>();
+		
+		try {
+			transactionTemplate.executeWithoutResult(status -> 
+					registrarLote(restauranteId, fotos, arquivosDescartados));
+		} catch (RuntimeException e) {
+			removerArquivos(arquivosGravados);
+			throw e;
+		}
+		
+		removerArquivos(arquivosDescartados);
+	}
+	
+	private void registrarLote(Long restauranteId, List<FotoProduto> fotos, Set<String> arquivosDescartados) {
+		Set<Long> produtoIds = fotos.stream()
+				.map(foto -> foto.getProduto().getId())
+				.collect(Collectors.toSet());
+		
+		Map<Long, Produto> produtos = produtoRepository.findAllById(restauranteId, produtoIds).stream()
+				.collect(Collectors.toMap(Produto::getId, Function.identity()));
+		
+		for (FotoProduto existente : produtoRepository.findFotosByProdutoIds(restauranteId, produtoIds)) {
+			if (!arquivoFotoService.liberar(existente)) {
+				arquivosDescartados.add(existente.getNomeArquivo());
+				arquivosDescartados.addAll(nomesArquivos(existente.getVariantes()));
+			}
+			
+			produtoRepository.delete(existente);
+		}
+		
+		// Os deletes vão antes: no flush o Hibernate executa os inserts primeiro, e a
+		// nova foto tem a mesma chave da que está sendo substituída
+		produtoRepository.flush();
+		
+		for (FotoProduto foto : fotos) {
+			foto.setProduto(produtos.get(foto.getProduto().getId()));
+			
+			if (storageProperties.getDeduplicacao().isHabilitada()) {
+				referenciarArquivo(foto, arquivosDescartados);
+			}
+			
+			produtoRepository.save(foto);
+		}
+		
+		produtoRepository.flush();
+		
+		for (FotoProduto foto : fotos) {
+			eventPublisher.publishEvent(new FotoProdutoSalvaEvent(restauranteId, foto.getProduto().getId(), 
+					foto.getNomeArquivo(), foto.getContentType()));
+		}
+	}
+	
+	// Se o mesmo conteúdo já estava no storage, a foto passa a usar aquele arquivo e o
+	// recebido é descartado depois do commit. Num rollback ele continua sendo o único
+	// arquivo da foto, e é o que a compensação apaga.
+	private void referenciarArquivo(FotoProduto foto, Set<String> arquivosDescartados) {
+		String nomeArquivoRecebido = foto.getNomeArquivo();
+		
+		foto.setNomeArquivo(arquivoFotoService.referenciar(nomeArquivoRecebido, 
+				foto.getHash(), foto.getContentType(), foto.getTamanho()));
+		
+		if (!foto.getNomeArquivo().equals(nomeArquivoRecebido)) {
+			arquivosDescartados.add(nomeArquivoRecebido);
+		}
+	}
+	
+	// Remove em segundo plano; um arquivo que sobrou no storage não afeta a foto
+	// registrada, então a falha só é logada
+	void removerArquivos(Set<String> nomesArquivos) {
+		if (nomesArquivos.isEmpty()) {
+			return;
+		}
+		
+		fotoStorageAsyncService.remover(nomesArquivos).whenComplete((resultado, e) -> {
+			if (e != null) {
+				log.warn("Não foi possível remover os arquivos " + nomesArquivos, e);
+			}
+		});
+	}
+	
+	/**
+	 * Gera e armazena as variantes reduzidas da foto. Só faz sentido fora de transação:
+	 * lê o original do storage e grava cada variante antes de registrá-las no banco.
+	 */
+	public List<VarianteFotoProduto> gerarVariantes(String nomeArquivo, String contentType) {
+		// Com deduplicação, outra foto com o mesmo arquivo já pode ter as variantes prontas
+		List<FotoProduto> fotosMesmoArquivo = produtoRepository.findFotosComVariantes(nomeArquivo);
+		
+		if (!fotosMesmoArquivo.isEmpty()) {
+			return fotosMesmoArquivo.get(0).getVariantes().stream()
+					.map(variante -> new VarianteFotoProduto(variante.getLargura(), variante.getNomeArquivo(),
+							variante.getContentType(), variante.getTamanho()))
+					.collect(Collectors.toList());
+		}
+		
+		List<FotoRedimensionada> fotosRedimensionadas;
+		
+		try (InputStream original = fotoStorageService.abrir(nomeArquivo)) {
+			fotosRedimensionadas = redimensionamentoFotoService.redimensionar(original, contentType, 
+					storageProperties.getVariantes().getLarguras());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		List<VarianteFotoProduto> variantes = new ArrayList<>();
+		List<CompletableFuture<Void>> envios = new ArrayList<>();
+		
+		// As variantes são gravadas em paralelo; só são registradas depois que todas chegaram
+		for (FotoRedimensionada fotoRedimensionada : fotosRedimensionadas) {
+			String nomeVariante = fotoStorageService.gerarNomeVariante(nomeArquivo, fotoRedimensionada.getLargura());
+			
+			envios.add(fotoStorageAsyncService.armazenar(NovaFoto.builder()
+					.nomeArquivo(nomeVariante)
+					.contentType(fotoRedimensionada.getContentType())
+					.inputStream(new ByteArrayInputStream(fotoRedimensionada.getConteudo()))
+					.build()));
+			
+			variantes.add(new VarianteFotoProduto(fotoRedimensionada.getLargura(), nomeVariante,
+					fotoRedimensionada.getContentType(), (long) fotoRedimensionada.getConteudo().length));
+		}
+		
+		CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+		
+		return variantes;
+	}
+	
+	@Transactional
+	public void registrarVariantes(Long restauranteId, Long produtoId, String nomeArquivo, 
+			List<VarianteFotoProduto> variantes) {
+		Optional<FotoProduto> foto = produtoRepository.findFotoById(restauranteId, produtoId);
+		
+		// A foto pode ter sido trocada ou excluída enquanto as variantes eram geradas
+		if (foto.isEmpty() || !foto.get().getNomeArquivo().equals(nomeArquivo)) {
+			log.debug("Foto {} não é mais a atual do produto {}, descartando variantes", nomeArquivo, produtoId);
+			
+			// Variantes de um arquivo compartilhado são apagadas junto com ele, na coleta
+			if (!arquivoFotoService.isCompartilhado(nomeArquivo)) {
+				removerArquivos(nomesArquivos(variantes));
+			}
+			
+			return;
+		}
+		
+		foto.get().getVariantes().clear();
+		foto.get().getVariantes().addAll(variantes);
+	}
+	
 	public FotoProduto buscar(Long restauranteId, Long produtoId) {
 		FotoProduto fotoProduto = produtoRepository.findFotoById(restauranteId, produtoId)
 				.orElseThrow(() -> new FotoProdutoNaoEncontradoException(restauranteId, produtoId));
 		return fotoProduto;
 	}
 	
-	@Transactional
+	// Os arquivos só são apagados depois do commit, sem segurar a transação
 	public void excluir(Long restauranteId, Long produtoId) {
-		FotoProduto fotoProduto = buscar(restauranteId, produtoId);		
-		produtoRepository.delete(fotoProduto);		
-		produtoRepository.flush();		
-		fotoStorageService.remover(fotoProduto.getNomeArquivo());
+		Set<String> arquivosRemovidos = transactionTemplate.execute(status -> {
+			FotoProduto fotoProduto = buscar(restauranteId, produtoId);		
+			Set<String> arquivos = new HashSet<>();
+			
+			if (!arquivoFotoService.liberar(fotoProduto)) {
+				arquivos.add(fotoProduto.getNomeArquivo());
+				arquivos.addAll(nomesArquivos(fotoProduto.getVariantes()));
+			}
+			
+			produtoRepository.delete(fotoProduto);		
+			produtoRepository.flush();
+			
+			return arquivos;
+		});
+		
+		removerArquivos(arquivosRemovidos);
+	}
+	
+	private static Set<String> nomesArquivos(Collection<VarianteFotoProduto> variantes) {
+		return variantes.stream()
+				.map(VarianteFotoProduto::getNomeArquivo)
+				.collect(Collectors.toSet());
 	}
 	
 }
\ No newline at end of file
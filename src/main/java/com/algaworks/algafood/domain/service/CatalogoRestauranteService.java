@@ -0,0 +1,154 @@
+package com.algaworks.algafood.domain.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.data.IndiceTexto;
+import com.algaworks.algafood.domain.event.CozinhaAlteradaEvent;
+import com.algaworks.algafood.domain.event.RestauranteAlteradoEvent;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.RestauranteCatalogo;
+import com.algaworks.algafood.domain.repository.CozinhaRepository;
+import com.algaworks.algafood.domain.repository.RestauranteRepository;
+
+/**
+ * Cópia em memória dos dados básicos de todos os restaurantes, usada na listagem para
+ * que ela não consulte o banco. É montada na inicialização e atualizada restaurante a
+ * restaurante depois do commit de cada alteração feita pelo cadastro.
+ * 
+ * As alterações são raras e as leituras constantes: cada alteração publica uma nova
+ * lista imutável, e quem lê só pega a referência atual, sem nenhum bloqueio.
+ * 
+ * Quem altera o catálogo lê o banco já com o bloqueio e numa transação nova. Assim a
+ * última leitura aplicada é sempre a mais recente: uma alteração que termina depois
+ * de outra não consegue sobrescrevê-la com dados mais antigos, e a recarga completa
+ * não desfaz alterações publicadas enquanto ela consultava o banco.
+ */
+@Service
+public class CatalogoRestauranteService {
+
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+	
+	@Autowired
+	private CozinhaRepository cozinhaRepository;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	// Alterado só dentro de blocos synchronized; ordenado por ID, como a listagem
+	private final Map<Long, RestauranteCatalogo> restaurantes = new TreeMap<>();
+	
+	private volatile List<RestauranteCatalogo> lista = List.of();
+	
+	// Reconstruído junto com a lista; as alterações são raras o bastante para isso
+	private volatile IndiceTexto<RestauranteCatalogo> indiceNomes = new IndiceTexto<>(List.of(), RestauranteCatalogo::getNome);
+	
+	// Os eventos chegam depois do commit, mas com o contexto de persistência da transação
+	// que os publicou ainda ativo; uma consulta nele devolveria as entidades que essa
+	// transação carregou, e não o que está no banco agora
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		transactionTemplate.setReadOnly(true);
+	}
+	
+	public List<RestauranteCatalogo> listar() {
+		return lista;
+	}
+	
+	/**
+	 * Busca os restaurantes pelo nome, sem diferenciar acentos e aceitando palavras
+	 * incompletas ("pizz cal" encontra "Pizzaria Calabresa"), dos mais relevantes para
+	 * os menos.
+	 */
+	public Page<RestauranteCatalogo> buscarPorNome(String nome, Pageable pageable) {
+		List<RestauranteCatalogo> encontrados = indiceNomes.buscar(nome);
+		
+		int inicio = (int) Math.min(pageable.getOffset(), encontrados.size());
+		int fim = Math.min(inicio + pageable.getPageSize(), encontrados.size());
+		
+		return new PageImpl<>(encontrados.subList(inicio, fim), pageable, encontrados.size());
+	}
+	
+	@PostConstruct
+	public void recarregar() {
+		synchronized (restaurantes) {
+			List<RestauranteCatalogo> todos = transactionTemplate.execute(status -> 
+					restauranteRepository.findAll().stream()
+						.map(this::paraCatalogo)
+						.collect(Collectors.toList()));
+			
+			restaurantes.clear();
+			todos.forEach(restaurante -> restaurantes.put(restaurante.getId(), restaurante));
+			publicar();
+		}
+	}
+	
+	@TransactionalEventListener
+	public void aoAlterarRestaurante(RestauranteAlteradoEvent event) {
+		Long restauranteId = event.getRestauranteId();
+		
+		synchronized (restaurantes) {
+			Optional<RestauranteCatalogo> restaurante = transactionTemplate.execute(status -> 
+					restauranteRepository.findById(restauranteId).map(this::paraCatalogo));
+			
+			if (restaurante.isPresent()) {
+				restaurantes.put(restauranteId, restaurante.get());
+			} else {
+				restaurantes.remove(restauranteId);
+			}
+			
+			publicar();
+		}
+	}
+	
+	// O nome da cozinha faz parte da listagem
+	@TransactionalEventListener
+	public void aoAlterarCozinha(CozinhaAlteradaEvent event) {
+		synchronized (restaurantes) {
+			Optional<Cozinha> cozinha = transactionTemplate.execute(status -> 
+					cozinhaRepository.findById(event.getCozinhaId()));
+			
+			if (cozinha.isEmpty()) {
+				return;
+			}
+			
+			restaurantes.replaceAll((id, restaurante) -> restaurante.getCozinhaId().equals(cozinha.get().getId())
+					? new RestauranteCatalogo(restaurante.getId(), restaurante.getNome(), restaurante.getTaxaFrete(),
+							cozinha.get().getId(), cozinha.get().getNome(), restaurante.getAtivo(), restaurante.getAberto())
+					: restaurante);
+			
+			publicar();
+		}
+	}
+	
+	private void publicar() {
+		lista = List.copyOf(restaurantes.values());
+		indiceNomes = new IndiceTexto<>(lista, RestauranteCatalogo::getNome);
+	}
+	
+	private RestauranteCatalogo paraCatalogo(Restaurante restaurante) {
+		Cozinha cozinha = restaurante.getCozinha();
+		
+		return new RestauranteCatalogo(restaurante.getId(), restaurante.getNome(), restaurante.getTaxaFrete(),
+				cozinha.getId(), cozinha.getNome(), restaurante.getAtivo(), restaurante.getAberto());
+	}
+	
+}
@@ -2,17 +2,26 @@ package com.algaworks.algafood.domain.service;
 
 import static com.algaworks.algafood.infrastructure.repository.spec.PedidoSpecs.usandoFiltro;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.algaworks.algafood.core.data.ContagemCache;
 import com.algaworks.algafood.domain.exception.NegocioException;
 import com.algaworks.algafood.domain.exception.PedidoNaoEncontradoException;
 import com.algaworks.algafood.domain.filter.PedidoFilter;
@@ -46,9 +55,26 @@ public class EmissaoPedidoService {
 	
 	@Autowired
 	private CadastroFormaPagamentoService cadastroFormaPagamentoService;
+	
+	@Autowired
+	private ContagemCache contagemCache;
 		
+	// O total vem do ContagemCache e não é invalidado a cada emissão: pedidos novos
+	// podem ficar fora do total até o TTL (algafood.paginacao.contagem-cache.ttl) expirar
 	public Page<Pedido> pesquisar(PedidoFilter filtro, Pageable pageable){
-		return pedidoRepository.findAll(usandoFiltro(filtro), pageable);
+		Specification<Pedido> specification = usandoFiltro(filtro);
+		Slice<Pedido> pedidosSlice = pedidoRepository.findSlice(specification, pageable);
+		
+		return PageableExecutionUtils.getPage(pedidosSlice.getContent(), pageable, 
+				() -> contagemCache.contar(chaveContagem(filtro), () -> pedidoRepository.count(specification)));
+	}
+	
+	public Slice<Pedido> pesquisarSemTotal(PedidoFilter filtro, Pageable pageable){
+		return pedidoRepository.findSlice(usandoFiltro(filtro), pageable);
+	}
+	
+	public List<Pedido> pesquisar(PedidoFilter filtro, OffsetDateTime dataCriacao, Long id, int limite){
+		return pedidoRepository.findAposCursor(filtro, dataCriacao, id, limite);
 	}
 	
 	public Pedido buscar(String codigo) { 
@@ -57,6 +83,12 @@ public class EmissaoPedidoService {
 		return pedido;
 	}
 	
+	public Pedido buscarDetalhado(String codigo) { 
+		Pedido pedido = pedidoRepository.findDetalhadoByCodigo(codigo)
+				.orElseThrow(() -> new PedidoNaoEncontradoException(codigo));
+		return pedido;
+	}
+	
 	@Transactional
 	public Pedido emitir(Pedido pedido) {		
 		
@@ -91,35 +123,40 @@ public class EmissaoPedidoService {
 			throw new NegocioException(String.format("Forma de pagamento '%s' não é aceita por esse restaurante.", formaPagamento.getDescricao()));
 	}
 	
-	private void normalizarItens(Pedido pedido) {
+	// Visível no pacote para o benchmark (src/jmh/java)
+	void normalizarItens(Pedido pedido) {
 		
-		Set<ItemPedido> itensNormalizados = new HashSet<>();
+		Map<Long, ItemPedido> itensNormalizados = new LinkedHashMap<>();
 
 		for (ItemPedido item : pedido.getItens()) {
-			Optional<ItemPedido> itemNormalizadoOpt = itensNormalizados.stream()
-					.filter(itemNormalizado -> itemNormalizado.getProduto().equals(item.getProduto()))
-					.findFirst();
-
-			itemNormalizadoOpt.ifPresentOrElse(
-					itemNormalizado -> mesclarItens(itemNormalizado, item), () -> itensNormalizados.add(item));
+			itensNormalizados.merge(item.getProduto().getId(), item, 
+					(itemNormalizado, itemRepetido) -> mesclarItens(itemNormalizado, itemRepetido));
 		}
 			
-		pedido.setItens(new ArrayList<>(itensNormalizados));
+		pedido.setItens(new ArrayList<>(itensNormalizados.values()));
 	}
 	
-	private void mesclarItens(ItemPedido itemNormalizado, ItemPedido itemRepetido) {
+	private ItemPedido mesclarItens(ItemPedido itemNormalizado, ItemPedido itemRepetido) {
 		itemNormalizado.setQuantidade(itemNormalizado.getQuantidade() + itemRepetido.getQuantidade());
 		itemNormalizado.setObservacao(
 				(itemNormalizado.getObservacao() == null ? "" : itemNormalizado.getObservacao()) + 
 				(itemRepetido.getObservacao() == null ? "" : " / "+itemRepetido.getObservacao())
 				);
+		return itemNormalizado;
 	}
 	
 	private void validarItens(Pedido pedido) {
 		Long restauranteId = pedido.getRestaurante().getId();
 		
+		Set<Long> produtoIds = pedido.getItens().stream()
+				.map(item -> item.getProduto().getId())
+				.collect(Collectors.toSet());
+		
+		Map<Long, Produto> produtos = produtoRepository.findAllById(restauranteId, produtoIds).stream()
+				.collect(Collectors.toMap(Produto::getId, Function.identity()));
+		
 		pedido.getItens().forEach(item -> { 	
-			Produto produto = produtoRepository.findById(restauranteId, item.getProduto().getId())
+			Produto produto = Optional.ofNullable(produtos.get(item.getProduto().getId()))
 					.orElseThrow(() -> new NegocioException(
 			 				String.format("Não existe um cadastro de produto com código %d para o restaurante de código %d", item.getProduto().getId(), restauranteId)));
 				
@@ -129,4 +166,12 @@ public class EmissaoPedidoService {
 				item.calcularPrecoTotal();
 			});	
 	}
+	
+	private String chaveContagem(PedidoFilter filtro) {
+		return String.format("pedido:cliente=%s:restaurante=%s:inicio=%s:fim=%s", 
+				filtro.getClienteId(), 
+				filtro.getRestauranteId(),
+				filtro.getDataCriacaoInicio() == null ? null : filtro.getDataCriacaoInicio().toInstant(),
+				filtro.getDataCriacaoFim() == null ? null : filtro.getDataCriacaoFim().toInstant());
+	}
 }
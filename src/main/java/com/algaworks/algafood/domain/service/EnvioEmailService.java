@@ -1,5 +1,7 @@
 package com.algaworks.algafood.domain.service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -12,6 +14,25 @@ public interface EnvioEmailService {
 
 	void enviar(Mensagem mensagem);
 	
+	/**
+	 * Envia várias mensagens de uma vez, reaproveitando a conexão quando a implementação permitir.
+	 * 
+	 * @return as mensagens que não puderam ser enviadas, com o erro de cada uma
+	 */
+	default Map<Mensagem, Exception> enviar(List<Mensagem> mensagens) {
+		Map<Mensagem, Exception> falhas = new LinkedHashMap<>();
+		
+		for (Mensagem mensagem : mensagens) {
+			try {
+				enviar(mensagem);
+			} catch (Exception e) {
+				falhas.put(mensagem, e);
+			}
+		}
+		
+		return falhas;
+	}
+	
 	@Getter
 	@Builder
 	class Mensagem {
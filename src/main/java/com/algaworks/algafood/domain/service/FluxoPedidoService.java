@@ -4,36 +4,63 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.algaworks.algafood.domain.exception.PedidoNaoEncontradoException;
 import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.StatusPedido;
 import com.algaworks.algafood.domain.repository.PedidoRepository;
+import com.algaworks.algafood.domain.repository.VendaHoraRepository;
 
 @Service
 public class FluxoPedidoService {
 
 	@Autowired
-	private EmissaoPedidoService emissaoPedidoService;
+	private PedidoRepository pedidoRepository;
 	
 	@Autowired
-	private PedidoRepository pedidoRepository;
+	private VendaHoraRepository vendaHoraRepository;
 	
 	@Transactional
 	public void confirmar(String codigo) {
-		Pedido pedido = emissaoPedidoService.buscar(codigo);		
+		Pedido pedido = buscarComBloqueio(codigo);
+		StatusPedido statusAnterior = pedido.getStatus();
 		pedido.confirmar();		
 		pedidoRepository.save(pedido);		
+		atualizarVendas(pedido, statusAnterior);
 	}
 	
 	@Transactional
 	public void cancelar(String codigo) {
-		Pedido pedido = emissaoPedidoService.buscar(codigo);
+		Pedido pedido = buscarComBloqueio(codigo);
+		StatusPedido statusAnterior = pedido.getStatus();
 		pedido.cancelar();
 		pedidoRepository.save(pedido);
+		atualizarVendas(pedido, statusAnterior);
 	}
 	
 	@Transactional
 	public void entregar(String codigo) {
-		Pedido pedido = emissaoPedidoService.buscar(codigo);
+		Pedido pedido = buscarComBloqueio(codigo);
+		StatusPedido statusAnterior = pedido.getStatus();
 		pedido.entregar();
+		atualizarVendas(pedido, statusAnterior);
+	}
+	
+	// Sem o bloqueio, dois confirmar simultâneos (um duplo clique) leriam CRIADO e
+	// somariam o mesmo pedido duas vezes na venda_hora
+	private Pedido buscarComBloqueio(String codigo) {
+		return pedidoRepository.findComBloqueioByCodigo(codigo)
+				.orElseThrow(() -> new PedidoNaoEncontradoException(codigo));
+	}
+	
+	// Mantém os totais de vendas por hora usados nas estatísticas; só muda
+	// quando o pedido passa a contar (ou deixa de contar) como venda
+	private void atualizarVendas(Pedido pedido, StatusPedido statusAnterior) {
+		boolean eraVenda = statusAnterior.contaComoVenda();
+		boolean ehVenda = pedido.getStatus().contaComoVenda();
+		
+		if (eraVenda != ehVenda) {
+			vendaHoraRepository.registrar(pedido.getId(), ehVenda ? 1 : -1);
+		}
 	}
 	
 }
@@ -0,0 +1,34 @@
+package com.algaworks.algafood.domain.service;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import com.algaworks.algafood.domain.service.FotoStorageService.FotoRecuperada;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+
+/**
+ * Versão assíncrona do {@link FotoStorageService}: as operações rodam fora da thread
+ * que as chama, para que nenhuma espera por disco ou S3 aconteça com uma transação
+ * (e uma conexão do pool) aberta.
+ */
+public interface FotoStorageAsyncService {
+
+	CompletableFuture<FotoRecuperada> recuperar(String nomeArquivo);
+	
+	CompletableFuture<Void> armazenar(NovaFoto novaFoto);
+	
+	CompletableFuture<Void> remover(String nomeArquivo);
+	
+	default CompletableFuture<Void> remover(Collection<String> nomesArquivos) {
+		return CompletableFuture.allOf(nomesArquivos.stream()
+				.map(this::remover)
+				.toArray(CompletableFuture[]::new));
+	}
+	
+	default CompletableFuture<Void> substituir(String nomeArquivoAntigo, NovaFoto novaFoto) {
+		return armazenar(novaFoto).thenCompose(resultado -> nomeArquivoAntigo != null 
+				? remover(nomeArquivoAntigo) 
+				: CompletableFuture.completedFuture(null));
+	}
+	
+}
@@ -1,6 +1,8 @@
 package com.algaworks.algafood.domain.service;
 
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.UUID;
 
 import lombok.Builder;
@@ -9,6 +11,8 @@ import lombok.Getter;
 public interface FotoStorageService {
 	
 	FotoRecuperada recuperar(String nomeArquivo);
+	
+	InputStream abrir(String nomeArquivo);
 
 	void armazenar(NovaFoto novaFoto);
 	
@@ -26,6 +30,10 @@ public interface FotoStorageService {
 		return UUID.randomUUID().toString() + "_" + nomeOriginal;
 	}
 	
+	default String gerarNomeVariante(String nomeArquivo, int largura) {
+		return largura + "w_" + nomeArquivo;
+	}
+	
 	@Builder
 	@Getter
 	class NovaFoto {
@@ -43,10 +51,20 @@ public interface FotoStorageService {
 		private InputStream inputStream;
 		private String url;
 		
+		// Preenchidos quando a foto é um arquivo local, que pode ser servido sem
+		// passar pelo heap e atender requisições condicionais e parciais
+		private Path arquivo;
+		private long tamanho;
+		private Instant dataModificacao;
+		
 		public boolean temUrl() {
 			return url != null;
 		}
 		
+		public boolean temArquivo() {
+			return arquivo != null;
+		}
+		
 		public boolean temInputStream() {
 			return inputStream != null;
 		}
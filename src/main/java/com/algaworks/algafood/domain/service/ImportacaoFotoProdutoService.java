@@ -0,0 +1,280 @@
+package com.algaworks.algafood.domain.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.algaworks.algafood.core.io.VerificacaoArquivoInputStream;
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.exception.NegocioException;
+import com.algaworks.algafood.domain.model.FotoProduto;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.ResultadoImportacaoFotos;
+import com.algaworks.algafood.domain.repository.ProdutoRepository;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ImportacaoFotoProdutoService {
+
+	// ID do produto, opcionalmente seguido da descrição da foto: 12.jpg, 12_pizza-calabresa.png
+	private static final Pattern NOME_FOTO = Pattern.compile("(\\d{1,18})(?:[_-]([^.]*))?\\.\\w+");
+
+	@Autowired
+	private CadastroRestauranteService cadastroRestaurante;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private CatalogoFotoProdutoService catalogoFotoProduto;
+
+	@Autowired
+	private FotoStorageService fotoStorageService;
+
+	@Autowired
+	private FotoStorageAsyncService fotoStorageAsyncService;
+
+	@Autowired
+	private StorageProperties storageProperties;
+
+	/**
+	 * Importa as fotos dos produtos de um restaurante a partir de um arquivo zip, uma
+	 * foto por produto, identificado pelo início do nome do arquivo.
+	 *
+	 * O zip é lido em streaming: cada foto é verificada enquanto é lida e gravada no
+	 * storage em paralelo com a leitura das próximas, e as fotos gravadas são
+	 * registradas no banco em lotes. Uma foto com problema não impede as demais.
+	 */
+	public ResultadoImportacaoFotos importar(Long restauranteId, InputStream arquivoZip) {
+		Restaurante restaurante = cadastroRestaurante.buscar(restauranteId);
+
+		Map<Long, Produto> produtos = produtoRepository.findAllByRestaurante(restaurante).stream()
+				.collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+		var resultado = new ResultadoImportacaoFotos();
+		List<FotoImportada> fotos = new ArrayList<>();
+
+		try {
+			ler(arquivoZip, produtos, fotos, resultado);
+		} catch (IOException e) {
+			descartar(fotos);
+			throw new NegocioException("Não foi possível ler o arquivo zip enviado.", e);
+		} catch (RuntimeException e) {
+			descartar(fotos);
+			throw e;
+		}
+
+		registrar(restauranteId, aguardarEnvios(fotos, resultado), resultado);
+
+		return resultado;
+	}
+
+	private void ler(InputStream arquivoZip, Map<Long, Produto> produtos, List<FotoImportada> fotos,
+			ResultadoImportacaoFotos resultado) throws IOException {
+		// Limita quantas fotos já lidas esperam pelo storage, e com isso a memória usada
+		var enviosPendentes = new Semaphore(storageProperties.getImportacao().getEnviosSimultaneos());
+		Set<Long> produtosLidos = new HashSet<>();
+		boolean vazio = true;
+
+		try (var zip = new ZipInputStream(arquivoZip)) {
+			ZipEntry entrada;
+
+			while ((entrada = zip.getNextEntry()) != null) {
+				vazio = false;
+				String nomeArquivo = StringUtils.getFilename(entrada.getName());
+
+				// Diretórios e metadados que alguns compactadores incluem (__MACOSX, .DS_Store)
+				if (entrada.isDirectory() || nomeArquivo.startsWith(".")
+						|| entrada.getName().startsWith("__MACOSX/")) {
+					continue;
+				}
+
+				FotoLida fotoLida = lerFoto(entrada.getName(), nomeArquivo, zip, produtos, produtosLidos, resultado);
+
+				if (fotoLida == null) {
+					continue;
+				}
+
+				enviosPendentes.acquireUninterruptibly();
+
+				CompletableFuture<Void> envio = fotoStorageAsyncService.armazenar(NovaFoto.builder()
+							.nomeArquivo(fotoLida.getFoto().getNomeArquivo())
+							.contentType(fotoLida.getFoto().getContentType())
+							.inputStream(new ByteArrayInputStream(fotoLida.getConteudo()))
+							.build())
+						.whenComplete((resultadoEnvio, e) -> enviosPendentes.release());
+
+				fotos.add(new FotoImportada(entrada.getName(), fotoLida.getFoto(), envio));
+			}
+		}
+
+		if (vazio) {
+			throw new NegocioException("O arquivo enviado não é um zip ou não contém fotos.");
+		}
+	}
+
+	// A entrada precisa ser lida inteira aqui: o ZipInputStream só avança de forma
+	// sequencial, então o envio em paralelo trabalha com uma cópia do conteúdo
+	private FotoLida lerFoto(String entrada, String nomeArquivo, InputStream zip, Map<Long, Produto> produtos,
+			Set<Long> produtosLidos, ResultadoImportacaoFotos resultado) throws IOException {
+		Matcher matcher = NOME_FOTO.matcher(nomeArquivo);
+
+		if (!matcher.matches()) {
+			resultado.adicionarFalha(entrada, "O nome do arquivo deve começar pelo código do produto.");
+			return null;
+		}
+
+		Long produtoId = Long.valueOf(matcher.group(1));
+		Produto produto = produtos.get(produtoId);
+
+		if (produto == null) {
+			resultado.adicionarFalha(entrada, String.format(
+					"Não existe um produto de código %d neste restaurante.", produtoId));
+			return null;
+		}
+
+		if (produtosLidos.contains(produtoId)) {
+			resultado.adicionarFalha(entrada, String.format(
+					"O arquivo já contém uma foto para o produto de código %d.", produtoId));
+			return null;
+		}
+
+		DataSize tamanhoMaximo = storageProperties.getTamanhoMaximoFoto();
+		var verificacao = new VerificacaoArquivoInputStream(zip, tamanhoMaximo.toBytes());
+		String contentType = verificacao.detectarContentType();
+
+		if (contentType == null) {
+			resultado.adicionarFalha(entrada, "O arquivo não é uma imagem JPEG ou PNG.");
+			return null;
+		}
+
+		byte[] conteudo;
+
+		try {
+			conteudo = verificacao.readAllBytes();
+		} catch (IOException e) {
+			if (!verificacao.isLimiteExcedido()) {
+				throw e;
+			}
+
+			// O restante da entrada é descartado pelo próximo getNextEntry
+			resultado.adicionarFalha(entrada, String.format(
+					"O arquivo excede o tamanho máximo de %d KB.", tamanhoMaximo.toKilobytes()));
+			return null;
+		}
+
+		produtosLidos.add(produtoId);
+
+		String descricao = matcher.group(2) != null && !matcher.group(2).isBlank()
+				? matcher.group(2).replace('-', ' ').replace('_', ' ')
+				: produto.getNome();
+
+		var foto = new FotoProduto();
+		foto.setProduto(produto);
+		foto.setDescricao(descricao);
+		foto.setNomeArquivo(fotoStorageService.gerarNomeArquivo(nomeArquivo));
+		foto.setContentType(contentType);
+		foto.setTamanho((long) conteudo.length);
+		foto.setHash(verificacao.getHash());
+
+		return new FotoLida(foto, conteudo);
+	}
+
+	private List<FotoImportada> aguardarEnvios(List<FotoImportada> fotos, ResultadoImportacaoFotos resultado) {
+		List<FotoImportada> gravadas = new ArrayList<>();
+		Set<String> arquivosComFalha = new HashSet<>();
+
+		for (FotoImportada foto : fotos) {
+			try {
+				foto.getEnvio().join();
+				gravadas.add(foto);
+			} catch (CompletionException e) {
+				log.warn("Não foi possível gravar a foto " + foto.getEntrada() + " no storage", e.getCause());
+				resultado.adicionarFalha(foto.getEntrada(), "Não foi possível gravar a foto no storage.");
+
+				// Uma gravação interrompida pode ter deixado o arquivo pela metade
+				arquivosComFalha.add(foto.getFoto().getNomeArquivo());
+			}
+		}
+
+		catalogoFotoProduto.removerArquivos(arquivosComFalha);
+
+		return gravadas;
+	}
+
+	private void registrar(Long restauranteId, List<FotoImportada> fotos, ResultadoImportacaoFotos resultado) {
+		int tamanhoLote = storageProperties.getImportacao().getTamanhoLote();
+
+		for (int inicio = 0; inicio < fotos.size(); inicio += tamanhoLote) {
+			List<FotoImportada> lote = fotos.subList(inicio, Math.min(inicio + tamanhoLote, fotos.size()));
+
+			try {
+				catalogoFotoProduto.salvarLote(restauranteId, lote.stream()
+						.map(FotoImportada::getFoto)
+						.collect(Collectors.toList()));
+
+				lote.forEach(foto -> resultado.getProdutosAtualizados().add(foto.getFoto().getProduto().getId()));
+			} catch (RuntimeException e) {
+				log.warn("Não foi possível registrar um lote de " + lote.size() + " fotos importadas", e);
+				lote.forEach(foto -> resultado.adicionarFalha(foto.getEntrada(), "Não foi possível registrar a foto."));
+			}
+		}
+	}
+
+	// Leitura interrompida: espera as gravações em andamento e apaga o que já foi gravado
+	private void descartar(List<FotoImportada> fotos) {
+		CompletableFuture.allOf(fotos.stream()
+					.map(foto -> foto.getEnvio().exceptionally(e -> null))
+					.toArray(CompletableFuture[]::new))
+				.join();
+
+		catalogoFotoProduto.removerArquivos(fotos.stream()
+				.map(foto -> foto.getFoto().getNomeArquivo())
+				.collect(Collectors.toSet()));
+	}
+
+	@AllArgsConstructor
+	@Getter
+	private static class FotoLida {
+
+		private FotoProduto foto;
+		private byte[] conteudo;
+
+	}
+
+	@AllArgsConstructor
+	@Getter
+	private static class FotoImportada {
+
+		private String entrada;
+		private FotoProduto foto;
+		private CompletableFuture<Void> envio;
+
+	}
+
+}
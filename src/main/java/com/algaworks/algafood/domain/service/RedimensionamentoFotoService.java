@@ -0,0 +1,28 @@
+package com.algaworks.algafood.domain.service;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+public interface RedimensionamentoFotoService {
+
+	/**
+	 * Gera uma cópia reduzida da foto para cada largura informada. Larguras iguais ou
+	 * maiores que a do original são ignoradas, já que o original serve para elas.
+	 */
+	List<FotoRedimensionada> redimensionar(InputStream original, String contentType, Collection<Integer> larguras);
+	
+	@Builder
+	@Getter
+	class FotoRedimensionada {
+		
+		private int largura;
+		private String contentType;
+		private byte[] conteudo;
+		
+	}
+	
+}
@@ -0,0 +1,13 @@
+package com.algaworks.algafood.domain.service;
+
+import java.io.OutputStream;
+
+import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
+
+public interface VendaExportService {
+
+	void exportarVendasDiariasCsv(VendaDiariaFilter filtro, String timeOffset, OutputStream saida);
+	
+	void exportarVendasDiariasXlsx(VendaDiariaFilter filtro, String timeOffset, OutputStream saida);
+	
+}
@@ -1,6 +1,7 @@
 package com.algaworks.algafood.domain.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
 import com.algaworks.algafood.domain.model.dto.VendaDiaria;
@@ -8,5 +9,13 @@ import com.algaworks.algafood.domain.model.dto.VendaDiaria;
 public interface VendaQueryService {
 	
 	List<VendaDiaria> consultarVendasDiarias(VendaDiariaFilter filtro, String timeOffset);
+	
+	/**
+	 * Entrega as vendas ao consumidor uma a uma, conforme são lidas do banco. A consulta
+	 * fica aberta até a última linha ser consumida: se o consumidor escreve numa resposta
+	 * HTTP, a transação e a conexão do pool ficam presas enquanto durar o download, e um
+	 * cliente lento segura a conexão pelo mesmo tempo.
+	 */
+	void consultarVendasDiarias(VendaDiariaFilter filtro, String timeOffset, Consumer<VendaDiaria> consumidor);
 
 }
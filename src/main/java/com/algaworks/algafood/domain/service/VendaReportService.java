@@ -1,9 +1,19 @@
 package com.algaworks.algafood.domain.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
 
 public interface VendaReportService {
 
-	byte[] emitirVendasDiarias(VendaDiariaFilter filtro, String timeOffset);
+	void emitirVendasDiarias(VendaDiariaFilter filtro, String timeOffset, OutputStream saida);
+	
+	default byte[] emitirVendasDiarias(VendaDiariaFilter filtro, String timeOffset) {
+		var saida = new ByteArrayOutputStream();
+		emitirVendasDiarias(filtro, timeOffset, saida);
+		
+		return saida.toByteArray();
+	}
 	
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.algaworks.algafood.infrastructure.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.algaworks.algafood.domain.model.ArquivoFoto;
+import com.algaworks.algafood.domain.repository.ArquivoFotoRepositoryQueries;
+
+@Repository
+public class ArquivoFotoRepositoryImpl implements ArquivoFotoRepositoryQueries {
+
+	@PersistenceContext
+	private EntityManager manager;
+	
+	// Com insert ignore, dois uploads simultâneos do mesmo conteúdo não falham por
+	// chave duplicada: o segundo espera o primeiro e só um deles cria o registro
+	@Override
+	@Transactional
+	public boolean inserirSeAusente(String hash, String nomeArquivo, String contentType, long tamanho) {
+		return manager.createNativeQuery("insert ignore into arquivo_foto "
+					+ "(hash, nome_arquivo, content_type, tamanho, referencias, data_criacao) "
+					+ "values (:hash, :nomeArquivo, :contentType, :tamanho, 0, utc_timestamp())")
+				.unwrap(NativeQuery.class)
+				.addSynchronizedEntityClass(ArquivoFoto.class)
+				.setParameter("hash", hash)
+				.setParameter("nomeArquivo", nomeArquivo)
+				.setParameter("contentType", contentType)
+				.setParameter("tamanho", tamanho)
+				.executeUpdate() > 0;
+	}
+	
+}
@@ -1,9 +1,15 @@
 package com.algaworks.algafood.infrastructure.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 
@@ -32,5 +38,33 @@ public class CustomJpaRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> i
 	public void detach(T entity) {
 		manager.detach(entity);
 	}
+	
+	@Override
+	public Slice<T> findSlice(Pageable pageable) {
+		return findSlice(null, pageable);
+	}
+	
+	// Busca um registro a mais que o tamanho da página para saber se existe
+	// uma próxima, dispensando o count(*) feito pelo findAll paginado
+	@Override
+	public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+		TypedQuery<T> query = getQuery(spec, pageable);
+		
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(query.getResultList());
+		}
+		
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize() + 1);
+		
+		List<T> content = query.getResultList();
+		boolean hasNext = content.size() > pageable.getPageSize();
+		
+		if (hasNext) {
+			content = content.subList(0, pageable.getPageSize());
+		}
+		
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
 
 }
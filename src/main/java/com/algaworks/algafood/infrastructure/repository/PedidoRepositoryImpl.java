@@ -0,0 +1,47 @@
+package com.algaworks.algafood.infrastructure.repository;
+
+import static com.algaworks.algafood.infrastructure.repository.spec.PedidoSpecs.aposCursor;
+import static com.algaworks.algafood.infrastructure.repository.spec.PedidoSpecs.usandoFiltro;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import com.algaworks.algafood.domain.filter.PedidoFilter;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.repository.PedidoRepositoryQueries;
+
+@Repository
+public class PedidoRepositoryImpl implements PedidoRepositoryQueries {
+
+	@PersistenceContext
+	private EntityManager manager;
+	
+	// Paginação por keyset: ordena por (dataCriacao, id) decrescente e busca a partir do último
+	// registro da página anterior, sem offset e sem count(*)
+	@Override
+	public List<Pedido> findAposCursor(PedidoFilter filtro, OffsetDateTime dataCriacao, Long id, int limite) {
+		
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		CriteriaQuery<Pedido> criteriaQuery = builder.createQuery(Pedido.class);
+		Root<Pedido> root = criteriaQuery.from(Pedido.class);
+		
+		Specification<Pedido> specification = usandoFiltro(filtro).and(aposCursor(dataCriacao, id));
+		
+		criteriaQuery.where(specification.toPredicate(root, criteriaQuery, builder));
+		criteriaQuery.orderBy(builder.desc(root.get("dataCriacao")), builder.desc(root.get("id")));
+		
+		return manager.createQuery(criteriaQuery)
+				.setMaxResults(limite)
+				.getResultList();
+	}
+	
+}
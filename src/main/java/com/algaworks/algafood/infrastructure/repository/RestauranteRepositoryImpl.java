@@ -37,6 +37,7 @@ public class RestauranteRepositoryImpl implements RestauranteRepositoryQueries {
 		CriteriaBuilder builder = manager.getCriteriaBuilder();		
 		CriteriaQuery<Restaurante> criteriaQuery = builder.createQuery(Restaurante.class);		
 		Root<Restaurante> root = criteriaQuery.from(Restaurante.class);
+		carregarCozinhaECidade(root);
 		
 		List<Predicate> predicates = new ArrayList<>();
 		
@@ -57,7 +58,8 @@ public class RestauranteRepositoryImpl implements RestauranteRepositoryQueries {
 	@Override
 	public List<Restaurante> findComFreteGratis(String nome) {
 		return restauranteRepository.findAll(comFreteGratis()
-				.and(comNomeSemelhante(nome)));
+				.and(comNomeSemelhante(nome))
+				.and(comCozinhaECidade()));
 	}
 	
 }
@@ -0,0 +1,60 @@
+package com.algaworks.algafood.infrastructure.repository;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.algaworks.algafood.domain.repository.VendaHoraRepository;
+
+@Repository
+public class VendaHoraRepositoryImpl implements VendaHoraRepository {
+
+	private static final String HORA_CRIACAO = "date_format(p.data_criacao, '%Y-%m-%d %H:00:00')";
+	
+	@PersistenceContext
+	private EntityManager manager;
+	
+	// A hora e o valor vêm da própria linha do pedido, então o incremento cai
+	// exatamente no mesmo grupo que a reconstrução calcularia. O update usa values()
+	// em vez de repetir p.valor_total, que o H2 dos testes não enxerga nessa cláusula
+	@Override
+	@Transactional
+	public void registrar(Long pedidoId, int quantidade) {
+		executar("insert into venda_hora (restaurante_id, hora, total_vendas, total_faturado) "
+				+ "select p.restaurante_id, " + HORA_CRIACAO + ", :quantidade, :quantidade * p.valor_total "
+				+ "from pedido p where p.id = :pedidoId "
+				+ "on duplicate key update "
+				+ "total_vendas = venda_hora.total_vendas + values(total_vendas), "
+				+ "total_faturado = venda_hora.total_faturado + values(total_faturado)",
+				Map.of("pedidoId", pedidoId, "quantidade", quantidade));
+	}
+	
+	@Override
+	@Transactional
+	public void reconstruir() {
+		executar("delete from venda_hora", Map.of());
+		
+		executar("insert into venda_hora (restaurante_id, hora, total_vendas, total_faturado) "
+				+ "select p.restaurante_id, " + HORA_CRIACAO + ", count(*), sum(p.valor_total) "
+				+ "from pedido p "
+				+ "where p.status in ('CONFIRMADO', 'ENTREGUE') "
+				+ "group by p.restaurante_id, " + HORA_CRIACAO, Map.of());
+	}
+	
+	private int executar(String sql, Map<String, Object> parametros) {
+		// Sem declarar a tabela afetada, o Hibernate invalidaria todo o cache de segundo nível
+		NativeQuery<?> query = manager.createNativeQuery(sql)
+				.unwrap(NativeQuery.class)
+				.addSynchronizedQuerySpace("venda_hora");
+		
+		parametros.forEach(query::setParameter);
+		
+		return query.executeUpdate();
+	}
+	
+}
@@ -1,5 +1,6 @@
 package com.algaworks.algafood.infrastructure.repository.spec;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 
 import javax.persistence.criteria.Predicate;
@@ -41,4 +42,18 @@ public class PedidoSpecs {
 		};
 	}
 	
-}
\ No newline at end of file
+	public static Specification<Pedido> aposCursor(OffsetDateTime dataCriacao, Long id) {
+		return (root, query, builder) -> {
+			if (dataCriacao == null || id == null) {
+				return builder.conjunction();
+			}
+			
+			return builder.or(
+					builder.lessThan(root.get("dataCriacao"), dataCriacao),
+					builder.and(
+							builder.equal(root.get("dataCriacao"), dataCriacao),
+							builder.lessThan(root.get("id"), id)));
+		};
+	}
+	
+}
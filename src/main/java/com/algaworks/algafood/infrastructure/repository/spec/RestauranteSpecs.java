@@ -2,6 +2,9 @@ package com.algaworks.algafood.infrastructure.repository.spec;
 
 import java.math.BigDecimal;
 
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import com.algaworks.algafood.domain.model.Restaurante;
@@ -13,6 +16,22 @@ public class RestauranteSpecs {
 			builder.equal(root.get("taxaFrete"), BigDecimal.ZERO);
 	}
 	
+	// Não filtra nada: carrega junto o que o RestauranteModel exibe
+	public static Specification<Restaurante> comCozinhaECidade() {
+		return (root, query, builder) -> {
+			if (Restaurante.class.equals(query.getResultType())) {
+				carregarCozinhaECidade(root);
+			}
+			
+			return null;
+		};
+	}
+	
+	public static void carregarCozinhaECidade(Root<Restaurante> root) {
+		root.fetch("cozinha");
+		root.fetch("endereco").fetch("cidade", JoinType.LEFT).fetch("estado", JoinType.LEFT);
+	}
+	
 	public static Specification<Restaurante> comNomeSemelhante(String nome) {
 		return (root, query, builder) ->
 			builder.like(root.get("nome"), "%" + nome + "%");
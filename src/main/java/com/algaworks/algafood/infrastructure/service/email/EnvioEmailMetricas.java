@@ -0,0 +1,69 @@
+package com.algaworks.algafood.infrastructure.service.email;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas do envio de e-mails por SMTP, publicadas por JMX
+ * (com.algaworks.algafood:name=envioEmailMetricas).
+ */
+@Component
+@ManagedResource(objectName = "com.algaworks.algafood:name=envioEmailMetricas")
+public class EnvioEmailMetricas {
+
+	private final AtomicInteger tamanhoFila = new AtomicInteger();
+	private final LongAdder enviados = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private final LongAdder tempoTotalEnvioNanos = new LongAdder();
+	private final AtomicLong tempoMaximoEnvioNanos = new AtomicLong();
+	
+	public void enfileirar(int quantidade) {
+		tamanhoFila.addAndGet(quantidade);
+	}
+	
+	public void registrarEnvio(long duracaoNanos) {
+		tamanhoFila.decrementAndGet();
+		enviados.increment();
+		tempoTotalEnvioNanos.add(duracaoNanos);
+		tempoMaximoEnvioNanos.accumulateAndGet(duracaoNanos, Math::max);
+	}
+	
+	public void registrarFalha() {
+		tamanhoFila.decrementAndGet();
+		falhas.increment();
+	}
+	
+	@ManagedAttribute(description = "Mensagens aguardando uma conexão SMTP")
+	public int getTamanhoFila() {
+		return tamanhoFila.get();
+	}
+	
+	@ManagedAttribute(description = "Mensagens enviadas")
+	public long getEnviados() {
+		return enviados.sum();
+	}
+	
+	@ManagedAttribute(description = "Mensagens que falharam")
+	public long getFalhas() {
+		return falhas.sum();
+	}
+	
+	@ManagedAttribute(description = "Tempo médio de envio de uma mensagem, em milissegundos")
+	public double getLatenciaMediaMs() {
+		long quantidade = enviados.sum();
+		
+		return quantidade == 0 ? 0 : (double) tempoTotalEnvioNanos.sum() / quantidade / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	@ManagedAttribute(description = "Maior tempo de envio de uma mensagem, em milissegundos")
+	public double getLatenciaMaximaMs() {
+		return (double) tempoMaximoEnvioNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+}
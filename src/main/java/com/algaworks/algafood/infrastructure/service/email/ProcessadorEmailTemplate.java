@@ -1,29 +1,92 @@
 package com.algaworks.algafood.infrastructure.service.email;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Component;
-import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
 import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 public class ProcessadorEmailTemplate {
 
+	private static final String PASTA_TEMPLATES = "classpath:/templates/";
+	private static final String TEMPLATES_EMAIL = "emails/*.html";
+
+	// Os e-mails gerados têm poucos KB; o buffer de cada thread é reaproveitado entre
+	// as mensagens e só é descartado se algum e-mail fugir muito desse tamanho
+	private static final int TAMANHO_BUFFER = 8 * 1024;
+	private static final int TAMANHO_MAXIMO_BUFFER = 64 * 1024;
+
+	private static final ThreadLocal<StringWriter> BUFFER =
+			ThreadLocal.withInitial(() -> new StringWriter(TAMANHO_BUFFER));
+
 	@Autowired
 	private Configuration freemarkerConfig;
-	
+
+	@Autowired
+	private ResourcePatternResolver resourcePatternResolver;
+
+	private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+	// Faz o parse dos templates de e-mail na inicialização, para que o primeiro
+	// envio não pague esse custo
+	@PostConstruct
+	public void carregarTemplates() {
+		try {
+			for (Resource resource : resourcePatternResolver.getResources(PASTA_TEMPLATES + TEMPLATES_EMAIL)) {
+				String nome = "emails/" + resource.getFilename();
+				templates.put(nome, freemarkerConfig.getTemplate(nome));
+			}
+		} catch (IOException e) {
+			log.warn("Não foi possível pré-carregar os templates de e-mail", e);
+		}
+	}
+
 	protected String processarTemplate(Mensagem mensagem) {
+		StringWriter buffer = BUFFER.get();
+
 		try {
-			Template template = freemarkerConfig.getTemplate(mensagem.getCorpo());
-			
-			return FreeMarkerTemplateUtils.processTemplateIntoString(
-					template, mensagem.getVariaveis());
+			getTemplate(mensagem.getCorpo()).process(mensagem.getVariaveis(), buffer);
+
+			return buffer.toString();
 		} catch (Exception e) {
 			throw new EmailException("Não foi possível montar o template do e-mail", e);
+		} finally {
+			limpar(buffer);
+		}
+	}
+
+	private Template getTemplate(String nome) throws IOException {
+		Template template = templates.get(nome);
+
+		if (template == null) {
+			template = freemarkerConfig.getTemplate(nome);
+			templates.put(nome, template);
+		}
+
+		return template;
+	}
+
+	private void limpar(StringWriter buffer) {
+		StringBuffer conteudo = buffer.getBuffer();
+		conteudo.setLength(0);
+
+		if (conteudo.capacity() > TAMANHO_MAXIMO_BUFFER) {
+			BUFFER.remove();
 		}
 	}
-	
+
 }
@@ -0,0 +1,171 @@
+package com.algaworks.algafood.infrastructure.service.email;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém um número fixo de conexões SMTP abertas e distribui os lotes de mensagens
+ * entre elas, enviando as mensagens de cada parte em sequência pela mesma conexão.
+ * 
+ * Conexões que o servidor derrubou (timeout de inatividade, erro no envio) são
+ * reabertas na próxima vez que forem usadas.
+ */
+@Slf4j
+public class SmtpConexaoPool implements AutoCloseable {
+
+	private final JavaMailSenderImpl mailSender;
+	private final EnvioEmailMetricas metricas;
+	private final int tamanho;
+	private final BlockingQueue<Conexao> conexoes;
+	private final ExecutorService executor;
+	
+	public SmtpConexaoPool(JavaMailSenderImpl mailSender, EnvioEmailMetricas metricas, int tamanho) {
+		this.mailSender = mailSender;
+		this.metricas = metricas;
+		this.tamanho = tamanho;
+		this.conexoes = new ArrayBlockingQueue<>(tamanho);
+		
+		var threadFactory = new CustomizableThreadFactory("smtp-envio-");
+		threadFactory.setDaemon(true);
+		this.executor = Executors.newFixedThreadPool(tamanho, threadFactory);
+		
+		for (int i = 0; i < tamanho; i++) {
+			conexoes.add(new Conexao());
+		}
+	}
+	
+	public Map<MimeMessage, Exception> enviar(List<MimeMessage> mensagens) {
+		Map<MimeMessage, Exception> falhas = new LinkedHashMap<>();
+		
+		if (mensagens.isEmpty()) {
+			return falhas;
+		}
+		
+		metricas.enfileirar(mensagens.size());
+		
+		List<Future<Map<MimeMessage, Exception>>> envios = new ArrayList<>();
+		
+		for (List<MimeMessage> parte : dividir(mensagens, Math.min(tamanho, mensagens.size()))) {
+			envios.add(executor.submit(() -> enviarPelaMesmaConexao(parte)));
+		}
+		
+		for (Future<Map<MimeMessage, Exception>> envio : envios) {
+			try {
+				falhas.putAll(envio.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new EmailException("Envio de e-mails interrompido", e);
+			} catch (ExecutionException e) {
+				throw new EmailException("Não foi possível enviar e-mails", e.getCause());
+			}
+		}
+		
+		return falhas;
+	}
+	
+	@Override
+	public void close() {
+		executor.shutdown();
+		conexoes.forEach(Conexao::fechar);
+	}
+	
+	private Map<MimeMessage, Exception> enviarPelaMesmaConexao(List<MimeMessage> mensagens) 
+			throws InterruptedException {
+		Map<MimeMessage, Exception> falhas = new LinkedHashMap<>();
+		Conexao conexao = conexoes.take();
+		
+		try {
+			for (MimeMessage mensagem : mensagens) {
+				long inicio = System.nanoTime();
+				
+				try {
+					conexao.enviar(mensagem);
+					metricas.registrarEnvio(System.nanoTime() - inicio);
+				} catch (MessagingException e) {
+					metricas.registrarFalha();
+					falhas.put(mensagem, e);
+					conexao.fechar();
+				}
+			}
+		} finally {
+			conexoes.put(conexao);
+		}
+		
+		return falhas;
+	}
+	
+	private static List<List<MimeMessage>> dividir(List<MimeMessage> mensagens, int partes) {
+		List<List<MimeMessage>> divisao = new ArrayList<>(partes);
+		
+		for (int i = 0; i < partes; i++) {
+			divisao.add(new ArrayList<>());
+		}
+		
+		for (int i = 0; i < mensagens.size(); i++) {
+			divisao.get(i % partes).add(mensagens.get(i));
+		}
+		
+		return divisao;
+	}
+	
+	private class Conexao {
+		
+		private Transport transport;
+		
+		void enviar(MimeMessage mensagem) throws MessagingException {
+			if (mensagem.getSentDate() == null) {
+				mensagem.setSentDate(new Date());
+			}
+			
+			mensagem.saveChanges();
+			abrir().sendMessage(mensagem, mensagem.getAllRecipients());
+		}
+		
+		private Transport abrir() throws MessagingException {
+			if (transport == null || !transport.isConnected()) {
+				fechar();
+				
+				String protocolo = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+				transport = mailSender.getSession().getTransport(protocolo);
+				transport.connect(mailSender.getHost(), mailSender.getPort(), 
+						mailSender.getUsername(), mailSender.getPassword());
+			}
+			
+			return transport;
+		}
+		
+		void fechar() {
+			if (transport == null) {
+				return;
+			}
+			
+			try {
+				transport.close();
+			} catch (MessagingException e) {
+				log.debug("Erro ao fechar conexão SMTP", e);
+			}
+			
+			transport = null;
+		}
+		
+	}
+	
+}
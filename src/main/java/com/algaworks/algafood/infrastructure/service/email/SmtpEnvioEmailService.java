@@ -1,10 +1,19 @@
 package com.algaworks.algafood.infrastructure.service.email;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
 
 import com.algaworks.algafood.core.email.EmailProperties;
@@ -21,15 +30,93 @@ public class SmtpEnvioEmailService implements EnvioEmailService {
 	@Autowired
 	private ProcessadorEmailTemplate processadorEmailTemplate;
 	
+	@Autowired
+	private EnvioEmailMetricas metricas;
+	
+	private SmtpConexaoPool conexaoPool;
+	
+	@PostConstruct
+	public void iniciarConexaoPool() {
+		int conexoes = emailProperties.getSmtp().getConexoes();
+		
+		if (conexoes > 0 && mailSender instanceof JavaMailSenderImpl) {
+			conexaoPool = new SmtpConexaoPool((JavaMailSenderImpl) mailSender, metricas, conexoes);
+		}
+	}
+	
+	@PreDestroy
+	public void fecharConexaoPool() {
+		if (conexaoPool != null) {
+			conexaoPool.close();
+		}
+	}
+	
 	@Override
 	public void enviar(Mensagem mensagem) {
-	    try {
-	        MimeMessage mimeMessage = criarMimeMessage(mensagem);
-	        
-	        mailSender.send(mimeMessage);
-	    } catch (Exception e) {
-	        throw new EmailException("Não foi possível enviar e-mail", e);
-	    }
+		Exception falha = enviar(List.of(mensagem)).get(mensagem);
+		
+		if (falha instanceof EmailException) {
+			throw (EmailException) falha;
+		}
+		
+		if (falha != null) {
+			throw new EmailException("Não foi possível enviar e-mail", falha);
+		}
+	}
+	
+	@Override
+	public Map<Mensagem, Exception> enviar(List<Mensagem> mensagens) {
+		Map<Mensagem, Exception> falhas = new LinkedHashMap<>();
+		Map<MimeMessage, Mensagem> mimeMessages = new LinkedHashMap<>();
+		
+		for (Mensagem mensagem : mensagens) {
+			try {
+				mimeMessages.put(criarMimeMessage(mensagem), mensagem);
+			} catch (Exception e) {
+				falhas.put(mensagem, new EmailException("Não foi possível enviar e-mail", e));
+			}
+		}
+		
+		enviarMimeMessages(List.copyOf(mimeMessages.keySet())).forEach(
+				(mimeMessage, e) -> falhas.put(mimeMessages.get(mimeMessage), e));
+		
+		return falhas;
+	}
+	
+	private Map<MimeMessage, Exception> enviarMimeMessages(List<MimeMessage> mimeMessages) {
+		if (conexaoPool != null) {
+			return conexaoPool.enviar(mimeMessages);
+		}
+		
+		Map<MimeMessage, Exception> falhas = new LinkedHashMap<>();
+		
+		if (mimeMessages.isEmpty()) {
+			return falhas;
+		}
+		
+		// Sem o pool, o JavaMailSender abre uma única conexão para todo o lote
+		metricas.enfileirar(mimeMessages.size());
+		long inicio = System.nanoTime();
+		
+		try {
+			mailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+		} catch (MailSendException e) {
+			e.getFailedMessages().forEach((mimeMessage, falha) -> falhas.put((MimeMessage) mimeMessage, falha));
+		} catch (MailException e) {
+			mimeMessages.forEach(mimeMessage -> falhas.put(mimeMessage, e));
+		}
+		
+		long duracaoPorMensagem = (System.nanoTime() - inicio) / mimeMessages.size();
+		
+		for (MimeMessage mimeMessage : mimeMessages) {
+			if (falhas.containsKey(mimeMessage)) {
+				metricas.registrarFalha();
+			} else {
+				metricas.registrarEnvio(duracaoPorMensagem);
+			}
+		}
+		
+		return falhas;
 	}
 	
 	protected MimeMessage criarMimeMessage(Mensagem mensagem) throws MessagingException {
@@ -46,4 +133,4 @@ public class SmtpEnvioEmailService implements EnvioEmailService {
 	    return mimeMessage;
 	}
 	
-}
\ No newline at end of file
+}
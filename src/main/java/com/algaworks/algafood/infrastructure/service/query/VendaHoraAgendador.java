@@ -0,0 +1,27 @@
+package com.algaworks.algafood.infrastructure.service.query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.algaworks.algafood.domain.repository.VendaHoraRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class VendaHoraAgendador {
+
+	@Autowired
+	private VendaHoraRepository vendaHoraRepository;
+	
+	// Reconstrói a tabela agregada a partir dos pedidos, corrigindo qualquer
+	// divergência causada por alterações feitas fora do FluxoPedidoService
+	@Scheduled(cron = "${algafood.vendas.reconstrucao-cron:0 0 4 * * *}", zone = "UTC")
+	public void reconstruir() {
+		long inicio = System.currentTimeMillis();
+		vendaHoraRepository.reconstruir();
+		log.info("Totais de vendas por hora reconstruídos em {} ms", System.currentTimeMillis() - inicio);
+	}
+	
+}
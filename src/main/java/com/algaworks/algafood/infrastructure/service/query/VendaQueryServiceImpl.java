@@ -1,14 +1,33 @@
 package com.algaworks.algafood.infrastructure.service.query;
 
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.Predicate;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
 import com.algaworks.algafood.domain.model.Pedido;
@@ -19,11 +38,156 @@ import com.algaworks.algafood.domain.service.VendaQueryService;
 @Repository
 public class VendaQueryServiceImpl implements VendaQueryService  {
 	
+	private static final int SEGUNDOS_POR_HORA = 3600;
+	
+	// Faz o driver do MySQL entregar as linhas conforme são lidas, em vez de
+	// carregar o resultado inteiro na memória antes do primeiro next()
+	private static final int FETCH_SIZE_STREAMING_MYSQL = Integer.MIN_VALUE;
+	
 	@PersistenceContext
 	private EntityManager manager;
+	
+	// Outros bancos (como o H2 dos testes) recusam fetch size negativo
+	private boolean mysql;
+	
+	@PostConstruct
+	public void identificarBanco() {
+		Dialect dialect = manager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+				.getJdbcServices().getDialect();
+		
+		mysql = dialect instanceof MySQLDialect;
+	}
 
 	@Override
 	public List<VendaDiaria> consultarVendasDiarias(VendaDiariaFilter filtro, String timeOffset) {
+		if (podeUsarVendasPorHora(filtro, timeOffset)) {
+			List<?> linhas = consultarVendasPorHora(filtro, timeOffset).getResultList();
+			
+			return linhas.stream()
+					.map(Object[].class::cast)
+					.map(VendaQueryServiceImpl::paraVendaDiaria)
+					.collect(Collectors.toList());
+		}
+		
+		return consultarPedidos(filtro, timeOffset).getResultList();
+	}
+	
+	@Transactional(readOnly = true)
+	@Override
+	public void consultarVendasDiarias(VendaDiariaFilter filtro, String timeOffset, 
+			Consumer<VendaDiaria> consumidor) {
+		if (podeUsarVendasPorHora(filtro, timeOffset)) {
+			percorrer(consultarVendasPorHora(filtro, timeOffset), 
+					VendaQueryServiceImpl::paraVendaDiaria, consumidor);
+		} else {
+			percorrer(consultarPedidos(filtro, timeOffset), 
+					linha -> (VendaDiaria) linha[0], consumidor);
+		}
+	}
+	
+	private void percorrer(Query query, Function<Object[], VendaDiaria> conversor, 
+			Consumer<VendaDiaria> consumidor) {
+		org.hibernate.query.Query<?> consulta = query.unwrap(org.hibernate.query.Query.class);
+		
+		if (mysql) {
+			consulta.setFetchSize(FETCH_SIZE_STREAMING_MYSQL);
+		}
+		
+		ScrollableResults resultados = consulta
+				.setReadOnly(true)
+				.scroll(ScrollMode.FORWARD_ONLY);
+		
+		try {
+			while (resultados.next()) {
+				consumidor.accept(conversor.apply(resultados.get()));
+			}
+		} finally {
+			resultados.close();
+		}
+	}
+	
+	/*
+	 * A tabela venda_hora agrupa os pedidos por hora UTC, então ela só responde
+	 * exatamente quando o fuso é de horas inteiras e o período começa e termina
+	 * em limites de hora (data_criacao é gravada com precisão de segundos).
+	 * Nos demais casos a consulta é feita direto nos pedidos.
+	 */
+	private boolean podeUsarVendasPorHora(VendaDiariaFilter filtro, String timeOffset) {
+		try {
+			if (ZoneOffset.of(timeOffset).getTotalSeconds() % SEGUNDOS_POR_HORA != 0) {
+				return false;
+			}
+		} catch (DateTimeException e) {
+			return false;
+		}
+		
+		if (filtro.getDataCriacaoInicio() != null 
+				&& !inicioDeHora(primeiroSegundo(filtro.getDataCriacaoInicio()))) {
+			return false;
+		}
+		
+		return filtro.getDataCriacaoFim() == null 
+				|| inicioDeHora(ultimoSegundo(filtro.getDataCriacaoFim()).plusSeconds(1));
+	}
+	
+	private Query consultarVendasPorHora(VendaDiariaFilter filtro, String timeOffset) {
+		var sql = new StringBuilder(
+				"select date(convert_tz(v.hora, '+00:00', :timeOffset)) as data, "
+				+ "sum(v.total_vendas), sum(v.total_faturado) "
+				+ "from venda_hora v where 1 = 1");
+		var parametros = new HashMap<String, Object>();
+		parametros.put("timeOffset", timeOffset);
+		
+		if (filtro.getRestauranteId() != null) {
+			sql.append(" and v.restaurante_id = :restauranteId");
+			parametros.put("restauranteId", filtro.getRestauranteId());
+		}
+		
+		if (filtro.getDataCriacaoInicio() != null) {
+			sql.append(" and v.hora >= :inicio");
+			parametros.put("inicio", paraUtc(primeiroSegundo(filtro.getDataCriacaoInicio())));
+		}
+		
+		if (filtro.getDataCriacaoFim() != null) {
+			sql.append(" and v.hora <= :fim");
+			parametros.put("fim", paraUtc(ultimoSegundo(filtro.getDataCriacaoFim())));
+		}
+		
+		// Pelo apelido: repetir a expressão geraria um segundo parâmetro, e com prepared
+		// statements no servidor o banco não a reconhece como a mesma do select
+		sql.append(" group by data");
+		
+		var query = manager.createNativeQuery(sql.toString());
+		parametros.forEach(query::setParameter);
+		
+		return query;
+	}
+	
+	private static VendaDiaria paraVendaDiaria(Object[] linha) {
+		return new VendaDiaria(
+				new Date(((Date) linha[0]).getTime()),
+				((Number) linha[1]).longValue(),
+				(BigDecimal) linha[2]);
+	}
+	
+	private static OffsetDateTime primeiroSegundo(OffsetDateTime dataHora) {
+		OffsetDateTime segundo = dataHora.truncatedTo(ChronoUnit.SECONDS);
+		return segundo.equals(dataHora) ? segundo : segundo.plusSeconds(1);
+	}
+	
+	private static OffsetDateTime ultimoSegundo(OffsetDateTime dataHora) {
+		return dataHora.truncatedTo(ChronoUnit.SECONDS);
+	}
+	
+	private static boolean inicioDeHora(OffsetDateTime dataHora) {
+		return dataHora.toEpochSecond() % SEGUNDOS_POR_HORA == 0;
+	}
+	
+	private static LocalDateTime paraUtc(OffsetDateTime dataHora) {
+		return dataHora.atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+	}
+	
+	private TypedQuery<VendaDiaria> consultarPedidos(VendaDiariaFilter filtro, String timeOffset) {
 		var builder = manager.getCriteriaBuilder();
 		var query = builder.createQuery(VendaDiaria.class);
 		var root = query.from(Pedido.class);
@@ -60,7 +224,7 @@ public class VendaQueryServiceImpl implements VendaQueryService  {
 		query.where(predicates.toArray(new Predicate[0]));
 		query.groupBy(functionDateDataCriacao);
 		
-		return manager.createQuery(query).getResultList();
+		return manager.createQuery(query);
 	}
 
 }
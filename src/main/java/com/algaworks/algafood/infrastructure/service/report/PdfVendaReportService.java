@@ -1,18 +1,32 @@
 package com.algaworks.algafood.infrastructure.service.report;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Locale;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.algaworks.algafood.core.report.RelatorioProperties;
 import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
 import com.algaworks.algafood.domain.service.VendaQueryService;
 import com.algaworks.algafood.domain.service.VendaReportService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 
 @Service
 public class PdfVendaReportService implements VendaReportService {
@@ -20,24 +34,132 @@ public class PdfVendaReportService implements VendaReportService {
 	@Autowired
 	private VendaQueryService vendaQueryService;
 	
+	@Autowired
+	private RelatorioProperties relatorioProperties;
+	
+	private JasperReport relatorioVendasDiarias;
+	
+	// PDFs emitidos recentemente, para que a mesma consulta repetida em sequência
+	// (dashboards, cliques duplos) não preencha o relatório de novo
+	private Cache<String, byte[]> relatoriosEmitidos;
+	
+	@PostConstruct
+	public void inicializar() {
+		try (var inputStream = getClass().getResourceAsStream("/relatorios/vendas-diarias.jasper")) {
+			relatorioVendasDiarias = (JasperReport) JRLoader.loadObject(inputStream);
+		} catch (Exception e) {
+			throw new ReportException("Não foi possível carregar o relatório de vendas diárias", e);
+		}
+		
+		var cache = relatorioProperties.getCache();
+		relatoriosEmitidos = Caffeine.newBuilder()
+				.expireAfterWrite(cache.getTtl())
+				.maximumWeight(cache.getTamanhoMaximo().toBytes())
+				.<String, byte[]>weigher((chave, pdf) -> pdf.length)
+				.build();
+	}
+	
 	@Override
-	public byte[] emitirVendasDiarias(VendaDiariaFilter filtro, String timeOffset) {
+	public void emitirVendasDiarias(VendaDiariaFilter filtro, String timeOffset, OutputStream saida) {
+		String chave = chave(filtro, timeOffset);
+		byte[] pdf = relatoriosEmitidos.getIfPresent(chave);
+		
 		try {
-			var inputStream = this.getClass().getResourceAsStream(
-					"/relatorios/vendas-diarias.jasper");
+			if (pdf != null) {
+				saida.write(pdf);
+				return;
+			}
 			
+			var copia = new CopiaLimitadaOutputStream(saida, 
+					relatorioProperties.getCache().getTamanhoMaximoRelatorio().toBytes());
+			
+			preencherEExportar(filtro, timeOffset, copia);
+			
+			if (copia.isCompleta()) {
+				relatoriosEmitidos.put(chave, copia.toByteArray());
+			}
+		} catch (Exception e) {
+			throw new ReportException("Não foi possível emitir relatório de vendas diárias", e);
+		}
+	}
+	
+	// O virtualizador manda para um arquivo temporário as páginas além das primeiras,
+	// então relatórios de vários anos não ficam inteiros no heap
+	private void preencherEExportar(VendaDiariaFilter filtro, String timeOffset, OutputStream saida) 
+			throws Exception {
+		var swapFile = new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 64);
+		var virtualizer = new JRSwapFileVirtualizer(relatorioProperties.getPaginasEmMemoria(), swapFile, true);
+		
+		try {
 			var parametros = new HashMap<String, Object>();
 			parametros.put("REPORT_LOCALE", new Locale("pt", "BR"));
+			parametros.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
 			
 			var vendasDiarias = vendaQueryService.consultarVendasDiarias(filtro, timeOffset);
 			var dataSource = new JRBeanCollectionDataSource(vendasDiarias);
 			
-			var jasperPrint = JasperFillManager.fillReport(inputStream, parametros, dataSource);
+			var jasperPrint = JasperFillManager.fillReport(relatorioVendasDiarias, parametros, dataSource);
+			virtualizer.setReadOnly(true);
+			
+			JasperExportManager.exportReportToPdfStream(jasperPrint, saida);
+		} finally {
+			virtualizer.cleanup();
+		}
+	}
+	
+	private String chave(VendaDiariaFilter filtro, String timeOffset) {
+		return filtro.getRestauranteId() + "|" + filtro.getDataCriacaoInicio() + "|" 
+				+ filtro.getDataCriacaoFim() + "|" + timeOffset;
+	}
+	
+	/**
+	 * Repassa tudo para a saída original e guarda uma cópia enquanto ela couber no limite,
+	 * permitindo colocar o PDF no cache sem deixar de enviá-lo em streaming.
+	 */
+	private static class CopiaLimitadaOutputStream extends FilterOutputStream {
 		
-			return JasperExportManager.exportReportToPdf(jasperPrint);
-		} catch (Exception e) {
-			throw new ReportException("Não foi possível emitir relatório de vendas diárias", e);
+		private final long limite;
+		private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+		
+		CopiaLimitadaOutputStream(OutputStream saida, long limite) {
+			super(saida);
+			this.limite = limite;
 		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			
+			if (cabe(1)) {
+				copia.write(b);
+			}
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			
+			if (cabe(len)) {
+				copia.write(b, off, len);
+			}
+		}
+		
+		private boolean cabe(int len) {
+			if (copia != null && copia.size() + len > limite) {
+				copia = null;
+			}
+			
+			return copia != null;
+		}
+		
+		boolean isCompleta() {
+			return copia != null;
+		}
+		
+		byte[] toByteArray() {
+			return copia.toByteArray();
+		}
+		
 	}
 
-}
\ No newline at end of file
+}
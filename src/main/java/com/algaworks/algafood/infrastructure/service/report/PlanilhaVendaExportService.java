@@ -0,0 +1,112 @@
+package com.algaworks.algafood.infrastructure.service.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
+import com.algaworks.algafood.domain.model.dto.VendaDiaria;
+import com.algaworks.algafood.domain.service.VendaExportService;
+import com.algaworks.algafood.domain.service.VendaQueryService;
+
+@Service
+public class PlanilhaVendaExportService implements VendaExportService {
+
+	private static final String[] CABECALHO = { "data", "total_vendas", "total_faturado" };
+	
+	// Linhas mantidas em memória pelo SXSSF; as anteriores já vão para o arquivo temporário
+	private static final int JANELA_LINHAS_XLSX = 100;
+	
+	@Autowired
+	private VendaQueryService vendaQueryService;
+	
+	@Override
+	public void exportarVendasDiariasCsv(VendaDiariaFilter filtro, String timeOffset, OutputStream saida) {
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+			
+			writer.write(String.join(",", CABECALHO));
+			writer.write("\r\n");
+			
+			vendaQueryService.consultarVendasDiarias(filtro, timeOffset, venda -> {
+				try {
+					writer.write(paraData(venda.getData()).toString());
+					writer.write(',');
+					writer.write(venda.getTotalVendas().toString());
+					writer.write(',');
+					writer.write(venda.getTotalFaturado().toPlainString());
+					writer.write("\r\n");
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			
+			writer.flush();
+		} catch (IOException | UncheckedIOException e) {
+			throw new ReportException("Não foi possível exportar as vendas diárias em CSV", e);
+		}
+	}
+	
+	@Override
+	public void exportarVendasDiariasXlsx(VendaDiariaFilter filtro, String timeOffset, OutputStream saida) {
+		var workbook = new SXSSFWorkbook(JANELA_LINHAS_XLSX);
+		
+		try {
+			Sheet planilha = workbook.createSheet("Vendas diárias");
+			
+			CellStyle estiloData = workbook.createCellStyle();
+			estiloData.setDataFormat(workbook.getCreationHelper()
+					.createDataFormat().getFormat("dd/mm/yyyy"));
+			
+			CellStyle estiloValor = workbook.createCellStyle();
+			estiloValor.setDataFormat(workbook.getCreationHelper()
+					.createDataFormat().getFormat("#,##0.00"));
+			
+			Row cabecalho = planilha.createRow(0);
+			for (int i = 0; i < CABECALHO.length; i++) {
+				cabecalho.createCell(i).setCellValue(CABECALHO[i]);
+			}
+			
+			vendaQueryService.consultarVendasDiarias(filtro, timeOffset, venda -> {
+				Row linha = planilha.createRow(planilha.getLastRowNum() + 1);
+				
+				var data = linha.createCell(0);
+				data.setCellValue(paraData(venda.getData()));
+				data.setCellStyle(estiloData);
+				
+				linha.createCell(1).setCellValue(venda.getTotalVendas());
+				
+				var valor = linha.createCell(2);
+				valor.setCellValue(venda.getTotalFaturado().doubleValue());
+				valor.setCellStyle(estiloValor);
+			});
+			
+			workbook.write(saida);
+		} catch (IOException e) {
+			throw new ReportException("Não foi possível exportar as vendas diárias em XLSX", e);
+		} finally {
+			workbook.dispose();
+		}
+	}
+	
+	// As datas vêm do driver como meia-noite no fuso da JVM
+	private static LocalDate paraData(Date data) {
+		return Instant.ofEpochMilli(data.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+	
+}
@@ -0,0 +1,71 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.FotoStorageAsyncService;
+import com.algaworks.algafood.domain.service.FotoStorageService;
+import com.algaworks.algafood.domain.service.FotoStorageService.FotoRecuperada;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+
+/**
+ * Executa as operações do {@link FotoStorageService} configurado (local ou S3) em um
+ * pool próprio. Os clientes de disco e do SDK do S3 são bloqueantes, então o que se
+ * ganha é tirar a espera das threads de requisição e de dentro das transações; o pool
+ * é limitado e, cheio, executa a operação na própria thread que chamou.
+ */
+@Service
+public class ExecutorFotoStorageAsyncService implements FotoStorageAsyncService {
+
+	@Autowired
+	private FotoStorageService fotoStorageService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	private ThreadPoolExecutor executor;
+	
+	@PostConstruct
+	public void inicializar() {
+		var assincrono = storageProperties.getAssincrono();
+		
+		var threadFactory = new CustomizableThreadFactory("foto-storage-");
+		threadFactory.setDaemon(true);
+		
+		executor = new ThreadPoolExecutor(assincrono.getThreads(), assincrono.getThreads(), 
+				0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(assincrono.getFila()), 
+				threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+	
+	@PreDestroy
+	public void finalizar() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+	
+	@Override
+	public CompletableFuture<FotoRecuperada> recuperar(String nomeArquivo) {
+		return CompletableFuture.supplyAsync(() -> fotoStorageService.recuperar(nomeArquivo), executor);
+	}
+	
+	@Override
+	public CompletableFuture<Void> armazenar(NovaFoto novaFoto) {
+		return CompletableFuture.runAsync(() -> fotoStorageService.armazenar(novaFoto), executor);
+	}
+	
+	@Override
+	public CompletableFuture<Void> remover(String nomeArquivo) {
+		return CompletableFuture.runAsync(() -> fotoStorageService.remover(nomeArquivo), executor);
+	}
+	
+}
@@ -0,0 +1,175 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.RedimensionamentoFotoService;
+
+@Service
+public class ImageIoRedimensionamentoFotoService implements RedimensionamentoFotoService {
+
+	@Autowired
+	private StorageProperties storageProperties;
+
+	@Override
+	public List<FotoRedimensionada> redimensionar(InputStream original, String contentType,
+			Collection<Integer> larguras) {
+
+		boolean png = MediaType.IMAGE_PNG_VALUE.equalsIgnoreCase(contentType);
+
+		try {
+			BufferedImage imagem = ler(original, larguras);
+			int tipo = png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+			List<FotoRedimensionada> fotos = new ArrayList<>();
+
+			// Da maior para a menor: cada variante é reduzida a partir da anterior,
+			// que já está mais perto do tamanho final que o original
+			Iterator<Integer> iterator = larguras.stream()
+					.distinct()
+					.filter(largura -> largura > 0)
+					.sorted(Comparator.reverseOrder())
+					.iterator();
+
+			int larguraOriginal = imagem.getWidth();
+
+			while (iterator.hasNext()) {
+				int largura = iterator.next();
+
+				if (largura >= larguraOriginal) {
+					continue;
+				}
+
+				imagem = reduzir(imagem, largura, tipo);
+
+				fotos.add(FotoRedimensionada.builder()
+						.largura(largura)
+						.contentType(png ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE)
+						.conteudo(png ? gravarPng(imagem) : gravarJpeg(imagem))
+						.build());
+			}
+
+			return fotos;
+		} catch (IOException e) {
+			throw new StorageException("Não foi possível redimensionar a foto.", e);
+		}
+	}
+
+	/*
+	 * Fotos de câmera costumam ter vários milhares de pixels de largura. Quando o
+	 * original é bem maior que a maior variante, o decoder já descarta pixels na
+	 * leitura (subsampling), o que economiza memória e tempo; a imagem lida fica com
+	 * pelo menos o dobro da maior largura para que a redução final ainda suavize.
+	 *
+	 * Visível no pacote para o teste, já que o subsampling não aparece nas variantes.
+	 */
+	BufferedImage ler(InputStream original, Collection<Integer> larguras) throws IOException {
+		try (ImageInputStream entrada = ImageIO.createImageInputStream(original)) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(entrada);
+
+			if (!readers.hasNext()) {
+				throw new StorageException("Formato de imagem não suportado.");
+			}
+
+			ImageReader reader = readers.next();
+
+			try {
+				reader.setInput(entrada, true, true);
+
+				int maiorLargura = larguras.stream().mapToInt(Integer::intValue).max().orElse(0);
+				int fator = maiorLargura > 0 ? Math.max(1, reader.getWidth(0) / (2 * maiorLargura)) : 1;
+
+				var param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(fator, fator, 0, 0);
+
+				return reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/*
+	 * Reduz pela metade enquanto possível e faz o ajuste final de uma vez; a
+	 * interpolação bilinear sozinha perde detalhes em reduções maiores que 2x.
+	 *
+	 * Os decoders devolvem tipos variados (muitas vezes TYPE_CUSTOM), que o Java2D
+	 * desenha bem mais devagar que os tipos INT. Cada passo já desenha no tipo INT,
+	 * então a conversão acontece na primeira redução, e não numa cópia do original
+	 * em tamanho cheio.
+	 */
+	private BufferedImage reduzir(BufferedImage imagem, int largura, int tipo) {
+		while (imagem.getWidth() / 2 >= largura) {
+			imagem = desenhar(imagem, imagem.getWidth() / 2, Math.max(1, imagem.getHeight() / 2), tipo);
+		}
+
+		if (imagem.getWidth() != largura) {
+			int altura = Math.max(1, (int) Math.round((double) imagem.getHeight() * largura / imagem.getWidth()));
+			imagem = desenhar(imagem, largura, altura, tipo);
+		}
+
+		return imagem;
+	}
+
+	private BufferedImage desenhar(BufferedImage imagem, int largura, int altura, int tipo) {
+		var destino = new BufferedImage(largura, altura, tipo);
+		Graphics2D graphics = destino.createGraphics();
+
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(imagem, 0, 0, largura, altura, null);
+		} finally {
+			graphics.dispose();
+		}
+
+		return destino;
+	}
+
+	private byte[] gravarPng(BufferedImage imagem) throws IOException {
+		var saida = new ByteArrayOutputStream();
+		ImageIO.write(imagem, "png", saida);
+
+		return saida.toByteArray();
+	}
+
+	private byte[] gravarJpeg(BufferedImage imagem) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		var saida = new ByteArrayOutputStream();
+
+		try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(saida)) {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(storageProperties.getVariantes().getQualidadeJpeg());
+
+			writer.setOutput(imageOutput);
+			writer.write(null, new IIOImage(imagem, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+
+		return saida.toByteArray();
+	}
+
+}
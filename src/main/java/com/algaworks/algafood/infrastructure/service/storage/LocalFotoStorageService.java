@@ -1,7 +1,9 @@
 package com.algaworks.algafood.infrastructure.service.storage;
 
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.FileCopyUtils;
@@ -41,9 +43,12 @@ public class LocalFotoStorageService implements FotoStorageService {
 	public FotoRecuperada recuperar(String nomeArquivo) {
 		try {		
 			Path arquivoPath = getArquivoPath(nomeArquivo);		
+			BasicFileAttributes atributos = Files.readAttributes(arquivoPath, BasicFileAttributes.class);
 			
 			FotoRecuperada fotoRecuperada = FotoRecuperada.builder()
-					.inputStream(Files.newInputStream(arquivoPath))
+					.arquivo(arquivoPath)
+					.tamanho(atributos.size())
+					.dataModificacao(atributos.lastModifiedTime().toInstant())
 					.build();
 			
 			return fotoRecuperada;				
@@ -52,8 +57,25 @@ public class LocalFotoStorageService implements FotoStorageService {
 		}
 	}
 	
+	@Override
+	public InputStream abrir(String nomeArquivo) {
+		try {
+			return Files.newInputStream(getArquivoPath(nomeArquivo));
+		} catch (Exception e) {
+			throw new StorageException("Não foi possível ler o arquivo.", e);
+		}
+	}
+	
 	private Path getArquivoPath(String nomeArquivo) {
-		return storageProperties.getLocal().getDiretorioFotos().resolve(Path.of(nomeArquivo));
+		Path diretorioFotos = storageProperties.getLocal().getDiretorioFotos().toAbsolutePath().normalize();
+		Path arquivoPath = diretorioFotos.resolve(nomeArquivo).normalize();
+		
+		// Nomes com "../" ou caminhos absolutos não podem sair do diretório de fotos
+		if (!arquivoPath.getParent().equals(diretorioFotos)) {
+			throw new StorageException("Nome de arquivo inválido: " + nomeArquivo);
+		}
+		
+		return arquivoPath;
 	}
 
 
@@ -1,16 +1,30 @@
 package com.algaworks.algafood.infrastructure.service.storage;
 
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.algaworks.algafood.core.storage.StorageProperties;
 import com.algaworks.algafood.domain.service.FotoStorageService;
+import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 public class S3FotoStorageService implements FotoStorageService {
 	
@@ -20,37 +34,130 @@ public class S3FotoStorageService implements FotoStorageService {
 	@Autowired
 	private StorageProperties storageProperties;
 
+	// URLs por nome de arquivo. Uma URL assinada fica no cache por metade da validade,
+	// então quem a recebe ainda tem pelo menos a outra metade para usá-la; enquanto
+	// isso a URL não muda, e navegador e CDN conseguem reaproveitar a resposta
+	private Cache<String, String> urls;
+
+	@PostConstruct
+	public void inicializar() {
+		var s3 = storageProperties.getS3();
+		var builder = Caffeine.newBuilder().maximumSize(s3.getTamanhoCacheUrls());
+
+		if (s3.isUrlAssinada()) {
+			builder.expireAfterWrite(s3.getValidadeUrl().dividedBy(2));
+		}
+
+		urls = builder.build();
+	}
+
 	@Override
 	public FotoRecuperada recuperar(String nomeArquivo) {
+		return FotoRecuperada.builder()
+				.url(urls.get(nomeArquivo, this::gerarUrl)).build();
+	}
+
+	private String gerarUrl(String nomeArquivo) {
+		var s3 = storageProperties.getS3();
 		String caminhoArquivo = getCaminhoArquivo(nomeArquivo);
 		
-		URL url = amazonS3.getUrl(storageProperties.getS3().getBucket(), caminhoArquivo);
+		if (s3.isUrlAssinada()) {
+			var expiracao = new Date(System.currentTimeMillis() + s3.getValidadeUrl().toMillis());
 		
-		return FotoRecuperada.builder()
-				.url(url.toString()).build();
+			return amazonS3.generatePresignedUrl(s3.getBucket(), caminhoArquivo, expiracao, HttpMethod.GET)
+					.toString();
+		}
+
+		return amazonS3.getUrl(s3.getBucket(), caminhoArquivo).toString();
 	}
 
 	@Override
-	public void armazenar(NovaFoto novaFoto) {
+	public InputStream abrir(String nomeArquivo) {
 		try {
-			String caminhoArquivo = getCaminhoArquivo(novaFoto.getNomeArquivo());
+			String caminhoArquivo = getCaminhoArquivo(nomeArquivo);
 			
-			var objectMetadata = new ObjectMetadata();
-			objectMetadata.setContentType(novaFoto.getContentType());
+			return amazonS3.getObject(storageProperties.getS3().getBucket(), caminhoArquivo)
+					.getObjectContent();
+		} catch (Exception e) {
+			throw new StorageException("Não foi possível ler o arquivo na Amazon S3.", e);
+		}
+	}
+
+	/*
+	 * O tamanho do arquivo recebido nem sempre é conhecido (upload em streaming), e o
+	 * SDK bufferiza na memória o que é enviado sem Content-Length. Por isso o conteúdo
+	 * é lido em partes de tamanho fixo: se cabe em uma parte vai num putObject comum,
+	 * senão cada parte vai num uploadPart, sempre com o tamanho conhecido.
+	 */
+	@Override
+	public void armazenar(NovaFoto novaFoto) {
+		String caminhoArquivo = getCaminhoArquivo(novaFoto.getNomeArquivo());
+		int tamanhoParte = (int) storageProperties.getS3().getTamanhoParteMultipart().toBytes();
 			
-			var putObjectRequest = new PutObjectRequest(
-					storageProperties.getS3().getBucket(),
-					caminhoArquivo,
-					novaFoto.getInputStream(),
-					objectMetadata)
-				.withCannedAcl(CannedAccessControlList.PublicRead);
+		try (InputStream inputStream = novaFoto.getInputStream()) {
+			byte[] parte = inputStream.readNBytes(tamanhoParte);
 			
-			amazonS3.putObject(putObjectRequest);
+			if (parte.length < tamanhoParte) {
+				enviarObjeto(caminhoArquivo, novaFoto.getContentType(), parte);
+			} else {
+				enviarMultipart(caminhoArquivo, novaFoto.getContentType(), parte, inputStream, tamanhoParte);
+			}
 		} catch (Exception e) {
 			throw new StorageException("Não foi possível enviar o arquivo para Amazon S3.", e);
 		}
 	}
 	
+	private void enviarObjeto(String caminhoArquivo, String contentType, byte[] conteudo) {
+		var objectMetadata = new ObjectMetadata();
+		objectMetadata.setContentType(contentType);
+		objectMetadata.setContentLength(conteudo.length);
+
+		var putObjectRequest = new PutObjectRequest(
+				storageProperties.getS3().getBucket(),
+				caminhoArquivo,
+				new ByteArrayInputStream(conteudo),
+				objectMetadata)
+			.withCannedAcl(getAcl());
+
+		amazonS3.putObject(putObjectRequest);
+	}
+
+	private void enviarMultipart(String caminhoArquivo, String contentType, byte[] primeiraParte,
+			InputStream restante, int tamanhoParte) throws Exception {
+		String bucket = storageProperties.getS3().getBucket();
+
+		var objectMetadata = new ObjectMetadata();
+		objectMetadata.setContentType(contentType);
+
+		String uploadId = amazonS3.initiateMultipartUpload(
+				new InitiateMultipartUploadRequest(bucket, caminhoArquivo, objectMetadata)
+					.withCannedACL(getAcl()))
+				.getUploadId();
+
+		try {
+			List<PartETag> partes = new ArrayList<>();
+			byte[] parte = primeiraParte;
+
+			while (parte.length > 0) {
+				var uploadPartRequest = new UploadPartRequest()
+						.withBucketName(bucket)
+						.withKey(caminhoArquivo)
+						.withUploadId(uploadId)
+						.withPartNumber(partes.size() + 1)
+						.withInputStream(new ByteArrayInputStream(parte))
+						.withPartSize(parte.length);
+
+				partes.add(amazonS3.uploadPart(uploadPartRequest).getPartETag());
+				parte = restante.readNBytes(tamanhoParte);
+			}
+
+			amazonS3.completeMultipartUpload(
+					new CompleteMultipartUploadRequest(bucket, caminhoArquivo, uploadId, partes));
+		} catch (Exception e) {
+			amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, caminhoArquivo, uploadId));
+			throw e;
+		}
+	}
 
 	@Override
 	public void remover(String nomeArquivo) {
@@ -60,14 +167,20 @@ public class S3FotoStorageService implements FotoStorageService {
 			var deleteObjectRequest = new DeleteObjectRequest(storageProperties.getS3().getBucket(), caminhoArquivo);
 			
 			amazonS3.deleteObject(deleteObjectRequest);			
+			urls.invalidate(nomeArquivo);
 		} catch (Exception e) {
 			throw new StorageException("Não foi possível excluir o arquivo na Amazon S3.", e);
 		}
 		
 	}
 	
+	// Com URLs assinadas o objeto segue a ACL padrão do bucket (privado)
+	private CannedAccessControlList getAcl() {
+		return storageProperties.getS3().isUrlAssinada() ? null : CannedAccessControlList.PublicRead;
+	}
+	
 	private String getCaminhoArquivo(String nomeArquivo) {
 		return String.format("%s/%s", storageProperties.getS3().getDiretorioFotos(), nomeArquivo);
 	}
 
-}
\ No newline at end of file
+}
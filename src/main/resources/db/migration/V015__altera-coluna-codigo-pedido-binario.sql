@@ -0,0 +1,8 @@
+alter table pedido add codigo_binario binary(16) null after codigo;
+update pedido set codigo_binario = unhex(replace(codigo, '-', ''));
+
+alter table pedido drop index uk_pedido_codigo;
+alter table pedido drop column codigo;
+
+alter table pedido change codigo_binario codigo binary(16) not null;
+alter table pedido add constraint uk_pedido_codigo unique (codigo);
@@ -0,0 +1,18 @@
+create table email_saida (
+  id bigint not null auto_increment,
+  pedido_id bigint not null,
+  destinatario varchar(255) not null,
+  assunto varchar(255) not null,
+  corpo varchar(100) not null,
+  status varchar(10) not null,
+  tentativas int not null,
+  proxima_tentativa datetime not null,
+  ultimo_erro varchar(500),
+  data_criacao datetime not null,
+  data_envio datetime,
+
+  primary key (id),
+  constraint fk_email_saida_pedido foreign key (pedido_id) references pedido (id)
+) engine=InnoDB default charset=utf8;
+
+create index idx_email_saida_status_proxima_tentativa on email_saida (status, proxima_tentativa);
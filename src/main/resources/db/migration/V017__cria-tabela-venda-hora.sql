@@ -0,0 +1,17 @@
+create table venda_hora (
+  restaurante_id bigint not null,
+  hora datetime not null,
+  total_vendas int not null,
+  total_faturado decimal(12,2) not null,
+
+  primary key (restaurante_id, hora),
+  constraint fk_venda_hora_restaurante foreign key (restaurante_id) references restaurante (id)
+) engine=InnoDB default charset=utf8;
+
+create index idx_venda_hora_hora on venda_hora (hora);
+
+insert into venda_hora (restaurante_id, hora, total_vendas, total_faturado)
+select restaurante_id, date_format(data_criacao, '%Y-%m-%d %H:00:00'), count(*), sum(valor_total)
+from pedido
+where status in ('CONFIRMADO', 'ENTREGUE')
+group by restaurante_id, date_format(data_criacao, '%Y-%m-%d %H:00:00');
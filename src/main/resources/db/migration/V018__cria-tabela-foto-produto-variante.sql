@@ -0,0 +1,10 @@
+create table foto_produto_variante (
+  produto_id bigint not null,
+  largura int not null,
+  nome_arquivo varchar(160) not null,
+  content_type varchar(80) not null,
+  tamanho int not null,
+
+  primary key (produto_id, largura),
+  constraint fk_foto_produto_variante_foto_produto foreign key (produto_id) references foto_produto (produto_id)
+) engine=InnoDB default charset=utf8;
@@ -0,0 +1 @@
+alter table foto_produto add column hash char(64) after tamanho;
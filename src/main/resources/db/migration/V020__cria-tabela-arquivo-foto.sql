@@ -0,0 +1,11 @@
+create table arquivo_foto (
+  hash char(64) not null,
+  nome_arquivo varchar(150) not null,
+  content_type varchar(80) not null,
+  tamanho int not null,
+  referencias int not null,
+  data_criacao datetime not null,
+
+  primary key (hash),
+  key idx_arquivo_foto_referencias (referencias)
+) engine=InnoDB default charset=utf8;
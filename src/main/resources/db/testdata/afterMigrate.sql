@@ -4,7 +4,8 @@ lock tables cidade write, cozinha write, estado write, forma_pagamento write,
 	grupo write, grupo_permissao write, permissao write,
 	produto write, restaurante write, restaurante_forma_pagamento write,
 	restaurante_usuario_responsavel write, usuario write, usuario_grupo write,
-	pedido write, item_pedido write, foto_produto write, oauth_client_details write; 
+	pedido write, item_pedido write, foto_produto write, oauth_client_details write,
+	email_saida write, venda_hora write, foto_produto_variante write, arquivo_foto write; 
 
 delete from cidade;
 delete from cozinha;
@@ -22,7 +23,11 @@ delete from usuario_grupo;
 delete from pedido;
 delete from item_pedido;
 delete from foto_produto;
+delete from foto_produto_variante;
+delete from arquivo_foto;
 delete from oauth_client_details;
+delete from email_saida;
+delete from venda_hora;
 
 set foreign_key_checks = 1;
 
@@ -37,6 +42,7 @@ alter table restaurante auto_increment = 1;
 alter table usuario auto_increment = 1;
 alter table pedido auto_increment = 1;
 alter table item_pedido auto_increment = 1;
+alter table email_saida auto_increment = 1;
 
 insert into cozinha (id, nome) values (1, 'Tailandesa');
 insert into cozinha (id, nome) values (2, 'Indiana');
@@ -133,7 +139,7 @@ insert into restaurante_usuario_responsavel (restaurante_id, usuario_id) values
 insert into pedido (id, codigo, restaurante_id, usuario_cliente_id, forma_pagamento_id, endereco_cidade_id, endereco_cep, 
                     endereco_logradouro, endereco_numero, endereco_complemento, endereco_bairro,
                   status, data_criacao, subtotal, taxa_frete, valor_total)
-values (1, 'f9981ca4-5a5e-4da3-af04-933861df3e55', 1, 6, 1, 1, '38400-000', 'Rua Floriano Peixoto', '500', 'Apto 801', 'Brasil',
+values (1, unhex(replace('f9981ca4-5a5e-4da3-af04-933861df3e55', '-', '')), 1, 6, 1, 1, '38400-000', 'Rua Floriano Peixoto', '500', 'Apto 801', 'Brasil',
         'CRIADO', utc_timestamp, 298.90, 10, 308.90);
 
 insert into item_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, preco_total, observacao)
@@ -146,7 +152,7 @@ values (2, 1, 2, 2, 110, 220, 'Menos picante, por favor');
 insert into pedido (id, codigo, restaurante_id, usuario_cliente_id, forma_pagamento_id, endereco_cidade_id, endereco_cep, 
                     endereco_logradouro, endereco_numero, endereco_complemento, endereco_bairro,
                   status, data_criacao, subtotal, taxa_frete, valor_total)
-values (2, 'd178b637-a785-4768-a3cb-aa1ce5a8cdab', 4, 6, 2, 1, '38400-111', 'Rua Acre', '300', 'Casa 2', 'Centro',
+values (2, unhex(replace('d178b637-a785-4768-a3cb-aa1ce5a8cdab', '-', '')), 4, 6, 2, 1, '38400-111', 'Rua Acre', '300', 'Casa 2', 'Centro',
         'CRIADO', utc_timestamp, 79, 0, 79);
 
 insert into item_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, preco_total, observacao)
@@ -156,7 +162,7 @@ values (3, 2, 6, 1, 79, 79, 'Ao ponto');
 insert into pedido (id, codigo, restaurante_id, usuario_cliente_id, forma_pagamento_id, endereco_cidade_id, endereco_cep, 
                     endereco_logradouro, endereco_numero, endereco_complemento, endereco_bairro,
                   status, data_criacao, data_confirmacao, data_entrega, subtotal, taxa_frete, valor_total)
-values (3, 'b5741512-8fbc-47fa-9ac1-b530354fc0ff', 1, 7, 1, 1, '38400-222', 'Rua Natal', '200', null, 'Brasil',
+values (3, unhex(replace('b5741512-8fbc-47fa-9ac1-b530354fc0ff', '-', '')), 1, 7, 1, 1, '38400-222', 'Rua Natal', '200', null, 'Brasil',
         'ENTREGUE', '2019-10-30 21:10:00', '2019-10-30 21:10:45', '2019-10-30 21:55:44', 110, 10, 120);
 
 insert into item_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, preco_total, observacao)
@@ -166,7 +172,7 @@ values (4, 3, 2, 1, 110, 110, null);
 insert into pedido (id, codigo, restaurante_id, usuario_cliente_id, forma_pagamento_id, endereco_cidade_id, endereco_cep, 
                     endereco_logradouro, endereco_numero, endereco_complemento, endereco_bairro,
                   status, data_criacao, data_confirmacao, data_entrega, subtotal, taxa_frete, valor_total)
-values (4, '5c621c9a-ba61-4454-8631-8aabefe58dc2', 1, 7, 1, 1, '38400-800', 'Rua Fortaleza', '900', 'Apto 504', 'Centro',
+values (4, unhex(replace('5c621c9a-ba61-4454-8631-8aabefe58dc2', '-', '')), 1, 7, 1, 1, '38400-800', 'Rua Fortaleza', '900', 'Apto 504', 'Centro',
         'ENTREGUE', '2019-11-02 20:34:04', '2019-11-02 20:35:10', '2019-11-02 21:10:32', 174.4, 5, 179.4);
 
 insert into item_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, preco_total, observacao)
@@ -176,7 +182,7 @@ values (5, 4, 3, 2, 87.2, 174.4, null);
 insert into pedido (id, codigo, restaurante_id, usuario_cliente_id, forma_pagamento_id, endereco_cidade_id, endereco_cep, 
                     endereco_logradouro, endereco_numero, endereco_complemento, endereco_bairro,
                   status, data_criacao, data_confirmacao, data_entrega, subtotal, taxa_frete, valor_total)
-values (5, '8d774bcf-b238-42f3-aef1-5fb388754d63', 1, 3, 2, 1, '38400-200', 'Rua 10', '930', 'Casa 20', 'Martins',
+values (5, unhex(replace('8d774bcf-b238-42f3-aef1-5fb388754d63', '-', '')), 1, 3, 2, 1, '38400-200', 'Rua 10', '930', 'Casa 20', 'Martins',
         'ENTREGUE', '2019-11-03 02:00:30', '2019-11-03 02:01:21', '2019-11-03 02:20:10', 87.2, 10, 97.2);
 
 insert into item_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, preco_total, observacao)
@@ -215,4 +221,10 @@ values (
   null, null, null
 );
 
+insert into venda_hora (restaurante_id, hora, total_vendas, total_faturado)
+select restaurante_id, date_format(data_criacao, '%Y-%m-%d %H:00:00'), count(*), sum(valor_total)
+from pedido
+where status in ('CONFIRMADO', 'ENTREGUE')
+group by restaurante_id, date_format(data_criacao, '%Y-%m-%d %H:00:00');
+
 unlock tables;
\ No newline at end of file
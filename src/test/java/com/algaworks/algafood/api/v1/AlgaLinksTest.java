@@ -0,0 +1,337 @@
+package com.algaworks.algafood.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.TemplateVariable;
+import org.springframework.hateoas.TemplateVariable.VariableType;
+import org.springframework.hateoas.TemplateVariables;
+import org.springframework.hateoas.UriTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.algaworks.algafood.api.v1.controller.CidadeController;
+import com.algaworks.algafood.api.v1.controller.CozinhaController;
+import com.algaworks.algafood.api.v1.controller.EstadoController;
+import com.algaworks.algafood.api.v1.controller.EstatisticasController;
+import com.algaworks.algafood.api.v1.controller.FluxoPedidoController;
+import com.algaworks.algafood.api.v1.controller.FormaPagamentoController;
+import com.algaworks.algafood.api.v1.controller.GrupoController;
+import com.algaworks.algafood.api.v1.controller.GrupoPermissaoController;
+import com.algaworks.algafood.api.v1.controller.PedidoController;
+import com.algaworks.algafood.api.v1.controller.PermissaoController;
+import com.algaworks.algafood.api.v1.controller.RestauranteController;
+import com.algaworks.algafood.api.v1.controller.RestauranteFormaPagamentoController;
+import com.algaworks.algafood.api.v1.controller.RestauranteProdutoController;
+import com.algaworks.algafood.api.v1.controller.RestauranteProdutoFotoController;
+import com.algaworks.algafood.api.v1.controller.RestauranteUsuarioResponsavelController;
+import com.algaworks.algafood.api.v1.controller.UsuarioController;
+import com.algaworks.algafood.api.v1.controller.UsuarioGrupoController;
+import com.algaworks.algafood.domain.filter.PedidoFilter;
+
+// Os links gerados pelo LinkTemplate têm que ser iguais aos do linkTo(methodOn(...)),
+// que o AlgaLinks usava antes, inclusive atrás de proxy e com context path
+class AlgaLinksTest {
+
+	private static final String REL = "teste";
+	private static final String SELF = IanaLinkRelations.SELF.value();
+
+	private static final Long ID = 1L;
+	private static final Long OUTRO_ID = 22L;
+	private static final String CODIGO_PEDIDO = "f9981ca4-5a5e-4da3-af04-933861df3e55";
+	private static final String CODIGO_A_CODIFICAR = "código com espaço";
+
+	private static final TemplateVariables PEDIDOS_FILTRO_VARIABLES = new TemplateVariables(
+			new TemplateVariable("clienteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM));
+
+	private static final TemplateVariables VENDAS_DIARIAS_FILTRO_VARIABLES = new TemplateVariables(
+			new TemplateVariable("restauranteId", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoInicio", VariableType.REQUEST_PARAM),
+			new TemplateVariable("dataCriacaoFim", VariableType.REQUEST_PARAM),
+			new TemplateVariable("timeOffset", VariableType.REQUEST_PARAM));
+
+	private final AlgaLinks algaLinks = new AlgaLinks();
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@TestFactory
+	Stream<DynamicTest> deveGerarOsMesmosLinks_QuandoRequisicaoVierPorProxy() throws Exception {
+		MockHttpServletRequest request = novaRequisicao();
+		request.addHeader("X-Forwarded-Proto", "https");
+		request.addHeader("X-Forwarded-Host", "api.algafood.com.br");
+		request.addHeader("X-Forwarded-Port", "8443");
+		request.addHeader("X-Forwarded-Prefix", "/gateway");
+
+		HttpServletRequest[] requestEncaminhada = new HttpServletRequest[1];
+		new ForwardedHeaderFilter().doFilter(request, new MockHttpServletResponse(),
+				(req, res) -> requestEncaminhada[0] = (HttpServletRequest) req);
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(requestEncaminhada[0]));
+		assertThat(algaLinks.linkToCozinhas().getHref()).isEqualTo("https://api.algafood.com.br:8443/gateway/v1/cozinhas");
+
+		return compararLinks(requestEncaminhada[0]);
+	}
+
+	@TestFactory
+	Stream<DynamicTest> deveGerarOsMesmosLinks_QuandoRequisicaoForDireta() {
+		return compararLinks(novaRequisicao());
+	}
+
+	@Test
+	void deveCompararTodosOsMetodos() {
+		List<String> metodos = Arrays.stream(AlgaLinks.class.getDeclaredMethods())
+				.filter(metodo -> Modifier.isPublic(metodo.getModifiers()))
+				.filter(metodo -> Link.class.equals(metodo.getReturnType()))
+				.map(AlgaLinksTest::assinatura)
+				.sorted()
+				.collect(Collectors.toList());
+
+		List<String> comparados = casos().stream()
+				.map(caso -> caso.metodo)
+				.sorted()
+				.collect(Collectors.toList());
+
+		assertThat(comparados).containsExactlyElementsOf(metodos);
+	}
+
+	private Stream<DynamicTest> compararLinks(HttpServletRequest request) {
+		return casos().stream()
+				.map(caso -> DynamicTest.dynamicTest(caso.metodo, () -> {
+					// Como em produção, a URI base fica em cache na requisição e vale para todos os links
+					RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+					Link esperado = caso.antigo.get();
+					Link gerado = caso.novo.get();
+
+					assertThat(gerado.getHref()).isEqualTo(esperado.getHref());
+					assertThat(gerado.getRel()).isEqualTo(esperado.getRel());
+				}));
+	}
+
+	private List<Caso> casos() {
+		PedidoFilter filtro = new PedidoFilter();
+		filtro.setClienteId(ID);
+		filtro.setRestauranteId(OUTRO_ID);
+		filtro.setDataCriacaoInicio(OffsetDateTime.parse("2021-03-01T00:00:00-03:00"));
+
+		return List.of(
+			caso("linkToPedidos(String)", () -> algaLinks.linkToPedidos(REL),
+					() -> Link.of(UriTemplate.of(linkTo(PedidoController.class).toUri().toString(),
+							AlgaLinks.PAGINACAO_VARIABLES.concat(PEDIDOS_FILTRO_VARIABLES)), REL)),
+			caso("linkToPedidos(PedidoFilter,String,int,String)",
+					() -> algaLinks.linkToPedidos(filtro, "MTA6MTIz", 20, "next"),
+					() -> Link.of(UriComponentsBuilder.fromUri(linkTo(PedidoController.class).toUri())
+							.queryParam("clienteId", ID)
+							.queryParam("restauranteId", OUTRO_ID)
+							.queryParam("dataCriacaoInicio", filtro.getDataCriacaoInicio().toInstant())
+							.queryParam("size", 20)
+							.queryParam("cursor", "MTA6MTIz")
+							.build().toUriString(), "next")),
+			caso("linkToConfirmacaoPedido(String,String)", () -> algaLinks.linkToConfirmacaoPedido(CODIGO_PEDIDO, REL),
+					() -> linkTo(methodOn(FluxoPedidoController.class).confirmar(CODIGO_PEDIDO)).withRel(REL)),
+			caso("linkToEntregaPedido(String,String)", () -> algaLinks.linkToEntregaPedido(CODIGO_A_CODIFICAR, REL),
+					() -> linkTo(methodOn(FluxoPedidoController.class).entregar(CODIGO_A_CODIFICAR)).withRel(REL)),
+			caso("linkToCancelamentoPedido(String,String)", () -> algaLinks.linkToCancelamentoPedido(CODIGO_PEDIDO, REL),
+					() -> linkTo(methodOn(FluxoPedidoController.class).cancelar(CODIGO_PEDIDO)).withRel(REL)),
+
+			caso("linkToRestaurante(Long,String)", () -> algaLinks.linkToRestaurante(ID, REL),
+					() -> linkTo(methodOn(RestauranteController.class).buscar(ID)).withRel(REL)),
+			caso("linkToRestaurante(Long)", () -> algaLinks.linkToRestaurante(ID),
+					() -> linkTo(methodOn(RestauranteController.class).buscar(ID)).withRel(SELF)),
+			caso("linkToRestaurantes(String)", () -> algaLinks.linkToRestaurantes(REL),
+					() -> linkTo(RestauranteController.class).withRel(REL)),
+			caso("linkToRestaurantes()", () -> algaLinks.linkToRestaurantes(),
+					() -> linkTo(RestauranteController.class).withRel(SELF)),
+			caso("linkToRestauranteResponsaveis(Long,String)", () -> algaLinks.linkToRestauranteResponsaveis(ID, REL),
+					() -> linkTo(methodOn(RestauranteUsuarioResponsavelController.class).listar(ID)).withRel(REL)),
+			caso("linkToRestauranteResponsaveis(Long)", () -> algaLinks.linkToRestauranteResponsaveis(ID),
+					() -> linkTo(methodOn(RestauranteUsuarioResponsavelController.class).listar(ID)).withRel(SELF)),
+			caso("linkToRestauranteResponsavelDesassociacao(Long,Long,String)",
+					() -> algaLinks.linkToRestauranteResponsavelDesassociacao(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(RestauranteUsuarioResponsavelController.class)
+							.desassociarResponsavel(ID, OUTRO_ID)).withRel(REL)),
+			caso("linkToRestauranteResponsavelAssociacao(Long,String)",
+					() -> algaLinks.linkToRestauranteResponsavelAssociacao(ID, REL),
+					() -> linkTo(methodOn(RestauranteUsuarioResponsavelController.class)
+							.associarResponsavel(ID, null)).withRel(REL)),
+			caso("linkToRestauranteFormasPagamento(Long,String)", () -> algaLinks.linkToRestauranteFormasPagamento(ID, REL),
+					() -> linkTo(methodOn(RestauranteFormaPagamentoController.class).listar(ID)).withRel(REL)),
+			caso("linkToRestauranteFormasPagamento(Long)", () -> algaLinks.linkToRestauranteFormasPagamento(ID),
+					() -> linkTo(methodOn(RestauranteFormaPagamentoController.class).listar(ID)).withRel(SELF)),
+			caso("linkToRestauranteFormaPagamentoAssociacao(Long,String)",
+					() -> algaLinks.linkToRestauranteFormaPagamentoAssociacao(ID, REL),
+					() -> linkTo(methodOn(RestauranteFormaPagamentoController.class).associar(ID, null)).withRel(REL)),
+			caso("linkToRestauranteFormaPagamentoDesassociacao(Long,Long,String)",
+					() -> algaLinks.linkToRestauranteFormaPagamentoDesassociacao(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(RestauranteFormaPagamentoController.class).desassociar(ID, OUTRO_ID)).withRel(REL)),
+
+			caso("linkToFormasPagamento(String)", () -> algaLinks.linkToFormasPagamento(REL),
+					() -> linkTo(FormaPagamentoController.class).withRel(REL)),
+			caso("linkToFormasPagamento()", () -> algaLinks.linkToFormasPagamento(),
+					() -> linkTo(FormaPagamentoController.class).withRel(SELF)),
+			caso("linkToFormaPagamento(Long,String)", () -> algaLinks.linkToFormaPagamento(OUTRO_ID, REL),
+					() -> linkTo(FormaPagamentoController.class).slash(OUTRO_ID).withRel(REL)),
+			caso("linkToFormaPagamento(Long)", () -> algaLinks.linkToFormaPagamento(OUTRO_ID),
+					() -> linkTo(FormaPagamentoController.class).slash(OUTRO_ID).withRel(SELF)),
+
+			caso("linkToRestauranteAbertura(Long,String)", () -> algaLinks.linkToRestauranteAbertura(ID, REL),
+					() -> linkTo(methodOn(RestauranteController.class).abrir(ID)).withRel(REL)),
+			caso("linkToRestauranteFechamento(Long,String)", () -> algaLinks.linkToRestauranteFechamento(ID, REL),
+					() -> linkTo(methodOn(RestauranteController.class).fechar(ID)).withRel(REL)),
+			caso("linkToRestauranteInativacao(Long,String)", () -> algaLinks.linkToRestauranteInativacao(ID, REL),
+					() -> linkTo(methodOn(RestauranteController.class).inativar(ID)).withRel(REL)),
+			caso("linkToRestauranteAtivacao(Long,String)", () -> algaLinks.linkToRestauranteAtivacao(ID, REL),
+					() -> linkTo(methodOn(RestauranteController.class).ativar(ID)).withRel(REL)),
+
+			caso("linkToCozinhas()", () -> algaLinks.linkToCozinhas(),
+					() -> linkTo(CozinhaController.class).withRel(SELF)),
+			caso("linkToCozinhas(String)", () -> algaLinks.linkToCozinhas(REL),
+					() -> linkTo(CozinhaController.class).withRel(REL)),
+			caso("linkToCozinha(Long,String)", () -> algaLinks.linkToCozinha(ID, REL),
+					() -> linkTo(methodOn(CozinhaController.class).buscar(ID)).withRel(REL)),
+			caso("linkToCozinha(Long)", () -> algaLinks.linkToCozinha(ID),
+					() -> linkTo(methodOn(CozinhaController.class).buscar(ID)).withRel(SELF)),
+
+			caso("linkToUsuario(Long)", () -> algaLinks.linkToUsuario(ID),
+					() -> linkTo(methodOn(UsuarioController.class).buscar(ID)).withRel(SELF)),
+			caso("linkToUsuario(Long,String)", () -> algaLinks.linkToUsuario(ID, REL),
+					() -> linkTo(methodOn(UsuarioController.class).buscar(ID)).withRel(REL)),
+			caso("linkToUsuarios(String)", () -> algaLinks.linkToUsuarios(REL),
+					() -> linkTo(UsuarioController.class).withRel(REL)),
+			caso("linkToUsuarios()", () -> algaLinks.linkToUsuarios(),
+					() -> linkTo(UsuarioController.class).withRel(SELF)),
+			caso("linkToGruposUsuario(Long,String)", () -> algaLinks.linkToGruposUsuario(ID, REL),
+					() -> linkTo(methodOn(UsuarioGrupoController.class).listar(ID)).withRel(REL)),
+			caso("linkToGruposUsuario(Long)", () -> algaLinks.linkToGruposUsuario(ID),
+					() -> linkTo(methodOn(UsuarioGrupoController.class).listar(ID)).withRel(SELF)),
+			caso("linkToUsuarioGrupoAssociacao(Long,String)", () -> algaLinks.linkToUsuarioGrupoAssociacao(ID, REL),
+					() -> linkTo(methodOn(UsuarioGrupoController.class).associarGrupo(ID, null)).withRel(REL)),
+			caso("linkToUsuarioGrupoDesassociacao(Long,Long,String)",
+					() -> algaLinks.linkToUsuarioGrupoDesassociacao(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(UsuarioGrupoController.class).desassociarGrupo(ID, OUTRO_ID)).withRel(REL)),
+
+			caso("linkToGrupos(String)", () -> algaLinks.linkToGrupos(REL),
+					() -> linkTo(GrupoController.class).withRel(REL)),
+			caso("linkToGrupos()", () -> algaLinks.linkToGrupos(),
+					() -> linkTo(GrupoController.class).withRel(SELF)),
+			caso("linkToGrupo(Long,String)", () -> algaLinks.linkToGrupo(ID, REL),
+					() -> linkTo(methodOn(GrupoController.class).buscar(ID)).withRel(REL)),
+			caso("linkToGrupo(Long)", () -> algaLinks.linkToGrupo(ID),
+					() -> linkTo(methodOn(GrupoController.class).buscar(ID)).withRel(SELF)),
+			caso("linkToGrupoPermissoes(Long,String)", () -> algaLinks.linkToGrupoPermissoes(ID, REL),
+					() -> linkTo(methodOn(GrupoPermissaoController.class).listar(ID)).withRel(REL)),
+			caso("linkToGrupoPermissoes(Long)", () -> algaLinks.linkToGrupoPermissoes(ID),
+					() -> linkTo(methodOn(GrupoPermissaoController.class).listar(ID)).withRel(SELF)),
+			caso("linkToGrupoPermissaoAssociacao(Long,String)", () -> algaLinks.linkToGrupoPermissaoAssociacao(ID, REL),
+					() -> linkTo(methodOn(GrupoPermissaoController.class).associarPermissao(ID, null)).withRel(REL)),
+			caso("linkToGrupoPermissaoDesassociacao(Long,Long,String)",
+					() -> algaLinks.linkToGrupoPermissaoDesassociacao(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(GrupoPermissaoController.class).desassociarPermissao(ID, OUTRO_ID)).withRel(REL)),
+			caso("linkToPermissoes(String)", () -> algaLinks.linkToPermissoes(REL),
+					() -> linkTo(PermissaoController.class).withRel(REL)),
+			caso("linkToPermissoes()", () -> algaLinks.linkToPermissoes(),
+					() -> linkTo(PermissaoController.class).withRel(SELF)),
+
+			caso("linkToCidades(String)", () -> algaLinks.linkToCidades(REL),
+					() -> linkTo(CidadeController.class).withRel(REL)),
+			caso("linkToCidades()", () -> algaLinks.linkToCidades(),
+					() -> linkTo(CidadeController.class).withRel(SELF)),
+			caso("linkToCidade(Long)", () -> algaLinks.linkToCidade(ID),
+					() -> linkTo(methodOn(CidadeController.class).buscar(ID)).withRel(SELF)),
+			caso("linkToCidade(Long,String)", () -> algaLinks.linkToCidade(ID, REL),
+					() -> linkTo(methodOn(CidadeController.class).buscar(ID)).withRel(REL)),
+			caso("linkToEstados()", () -> algaLinks.linkToEstados(),
+					() -> linkTo(EstadoController.class).withRel(SELF)),
+			caso("linkToEstados(String)", () -> algaLinks.linkToEstados(REL),
+					() -> linkTo(EstadoController.class).withRel(REL)),
+			caso("linkToEstado(Long)", () -> algaLinks.linkToEstado(ID),
+					() -> linkTo(methodOn(EstadoController.class).buscar(ID)).withRel(SELF)),
+			caso("linkToEstado(Long,String)", () -> algaLinks.linkToEstado(ID, REL),
+					() -> linkTo(methodOn(EstadoController.class).buscar(ID)).withRel(REL)),
+
+			caso("linkToProduto(Long,Long,String)", () -> algaLinks.linkToProduto(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(RestauranteProdutoController.class).buscar(ID, OUTRO_ID)).withRel(REL)),
+			caso("linkToProduto(Long,Long)", () -> algaLinks.linkToProduto(ID, OUTRO_ID),
+					() -> linkTo(methodOn(RestauranteProdutoController.class).buscar(ID, OUTRO_ID)).withRel(SELF)),
+			caso("linkToProdutos(Long,String)", () -> algaLinks.linkToProdutos(ID, REL),
+					() -> linkTo(methodOn(RestauranteProdutoController.class).listar(ID, null)).withRel(REL)),
+			caso("linkToProdutos(Long)", () -> algaLinks.linkToProdutos(ID),
+					() -> linkTo(methodOn(RestauranteProdutoController.class).listar(ID, null)).withRel(SELF)),
+			caso("linkToFotoProduto(Long,Long,String)", () -> algaLinks.linkToFotoProduto(ID, OUTRO_ID, REL),
+					() -> linkTo(methodOn(RestauranteProdutoFotoController.class).buscarFoto(ID, OUTRO_ID)).withRel(REL)),
+			caso("linkToFotoProduto(Long,Long)", () -> algaLinks.linkToFotoProduto(ID, OUTRO_ID),
+					() -> linkTo(methodOn(RestauranteProdutoFotoController.class).buscarFoto(ID, OUTRO_ID)).withRel(SELF)),
+			caso("linkToFotoProdutoConteudo(Long,Long,String,String)",
+					() -> algaLinks.linkToFotoProdutoConteudo(ID, OUTRO_ID, "0cc175b9", REL),
+					() -> Link.of(UriComponentsBuilder.fromUri(linkTo(methodOn(RestauranteProdutoFotoController.class)
+							.buscarFoto(ID, OUTRO_ID)).toUri()).queryParam("v", "0cc175b9").build().toUriString(), REL)),
+
+			caso("linkToEstatisticas(String)", () -> algaLinks.linkToEstatisticas(REL),
+					() -> linkTo(EstatisticasController.class).withRel(REL)),
+			caso("linkToEstatisticasVendasDiarias(String)", () -> algaLinks.linkToEstatisticasVendasDiarias(REL),
+					() -> Link.of(UriTemplate.of(linkTo(methodOn(EstatisticasController.class)
+							.consultarVendasDiarias(null, null)).toUri().toString(), VENDAS_DIARIAS_FILTRO_VARIABLES), REL))
+		);
+	}
+
+	private static MockHttpServletRequest novaRequisicao() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/algafood/v1/restaurantes");
+		request.setContextPath("/algafood");
+		request.setServerName("localhost");
+		request.setServerPort(8080);
+		return request;
+	}
+
+	private static String assinatura(Method metodo) {
+		return metodo.getName() + Arrays.stream(metodo.getParameterTypes())
+				.map(Class::getSimpleName)
+				.collect(Collectors.joining(",", "(", ")"));
+	}
+
+	private static Caso caso(String metodo, Supplier<Link> novo, Supplier<Link> antigo) {
+		return new Caso(metodo, novo, antigo);
+	}
+
+	private static class Caso {
+
+		private final String metodo;
+		private final Supplier<Link> novo;
+		private final Supplier<Link> antigo;
+
+		Caso(String metodo, Supplier<Link> novo, Supplier<Link> antigo) {
+			this.metodo = metodo;
+			this.novo = novo;
+			this.antigo = antigo;
+		}
+
+	}
+
+}
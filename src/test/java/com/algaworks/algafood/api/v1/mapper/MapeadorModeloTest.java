@@ -0,0 +1,227 @@
+package com.algaworks.algafood.api.v1.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.api.v1.model.PedidoModel;
+import com.algaworks.algafood.api.v1.model.PedidoResumoModel;
+import com.algaworks.algafood.api.v1.model.ProdutoModel;
+import com.algaworks.algafood.api.v1.model.RestauranteBasicoModel;
+import com.algaworks.algafood.api.v1.model.RestauranteModel;
+import com.algaworks.algafood.core.modelmapper.ModelMapperConfig;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// O ModelMapper, com a configuração da aplicação, é a referência: os mapeadores
+// escritos à mão precisam gerar o mesmo JSON para o mesmo grafo de objetos
+class MapeadorModeloTest {
+
+	private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private PedidoModelMapper pedidoModelMapper;
+
+	private RestauranteModelMapper restauranteModelMapper;
+
+	private ProdutoModelMapper produtoModelMapper;
+
+	@BeforeEach
+	void setUp() {
+		var enderecoModelMapper = new EnderecoModelMapper();
+
+		restauranteModelMapper = new RestauranteModelMapper();
+		ReflectionTestUtils.setField(restauranteModelMapper, "enderecoModelMapper", enderecoModelMapper);
+
+		pedidoModelMapper = new PedidoModelMapper();
+		ReflectionTestUtils.setField(pedidoModelMapper, "restauranteModelMapper", restauranteModelMapper);
+		ReflectionTestUtils.setField(pedidoModelMapper, "enderecoModelMapper", enderecoModelMapper);
+
+		produtoModelMapper = new ProdutoModelMapper();
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoMapearPedidoCompleto() {
+		Pedido pedido = pedido();
+		pedido.confirmar();
+
+		var pedidoModel = new PedidoModel();
+		pedidoModelMapper.map(pedido, pedidoModel);
+
+		JsonNode json = json(pedidoModel);
+		assertThat(json).isEqualTo(json(modelMapper.map(pedido, PedidoModel.class)));
+
+		assertThat(json.at("/status").asText()).isEqualTo("CONFIRMADO");
+		assertThat(json.at("/enderecoEntrega/cidade/estado").asText()).isEqualTo("Minas Gerais");
+		assertThat(json.at("/itens/1/produtoNome").asText()).isEqualTo("Pad Thai");
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoPedidoNaoTiverAssociacoesOpcionais() {
+		Pedido pedido = pedido();
+		pedido.setFormaPagamento(null);
+		pedido.getEnderecoEntrega().setCidade(null);
+		pedido.getItens().get(0).setObservacao(null);
+
+		var pedidoModel = new PedidoModel();
+		pedidoModelMapper.map(pedido, pedidoModel);
+
+		assertThat(json(pedidoModel)).isEqualTo(json(modelMapper.map(pedido, PedidoModel.class)));
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoMapearPedidoResumido() {
+		Pedido pedido = pedido();
+
+		var pedidoResumoModel = new PedidoResumoModel();
+		pedidoModelMapper.map(pedido, pedidoResumoModel);
+
+		JsonNode json = json(pedidoResumoModel);
+		assertThat(json).isEqualTo(json(modelMapper.map(pedido, PedidoResumoModel.class)));
+		assertThat(json.at("/cliente/email").asText()).isEqualTo("joao@algafood.com.br");
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoMapearRestaurante() {
+		Restaurante restaurante = restaurante();
+
+		JsonNode json = json(restauranteModelMapper.toModel(restaurante));
+		assertThat(json).isEqualTo(json(modelMapper.map(restaurante, RestauranteModel.class)));
+		assertThat(json.at("/endereco/cidade/estado").asText()).isEqualTo("Minas Gerais");
+
+		var restauranteBasicoModel = new RestauranteBasicoModel();
+		restauranteModelMapper.map(restaurante, restauranteBasicoModel);
+
+		assertThat(json(restauranteBasicoModel))
+			.isEqualTo(json(modelMapper.map(restaurante, RestauranteBasicoModel.class)));
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoRestauranteNaoTiverEndereco() {
+		Restaurante restaurante = restaurante();
+		restaurante.setEndereco(null);
+
+		assertThat(json(restauranteModelMapper.toModel(restaurante)))
+			.isEqualTo(json(modelMapper.map(restaurante, RestauranteModel.class)));
+	}
+
+	@Test
+	void deveGerarMesmoJsonQueModelMapper_QuandoMapearProduto() {
+		Produto produto = produto(1L, "Pad Thai", "32.90");
+
+		assertThat(json(produtoModelMapper.toModel(produto)))
+			.isEqualTo(json(modelMapper.map(produto, ProdutoModel.class)));
+	}
+
+	private JsonNode json(Object model) {
+		return objectMapper.valueToTree(model);
+	}
+
+	private static Pedido pedido() {
+		var formaPagamento = new FormaPagamento();
+		formaPagamento.setId(1L);
+		formaPagamento.setDescricao("Cartão de crédito");
+
+		var cliente = new Usuario();
+		cliente.setId(1L);
+		cliente.setNome("João da Silva");
+		cliente.setEmail("joao@algafood.com.br");
+		cliente.setSenha("segredo");
+
+		var pedido = new Pedido();
+		pedido.setId(1L);
+		pedido.setCodigo("f9981ca4-5a5e-4da3-af04-933861df3e55");
+		pedido.setRestaurante(restaurante());
+		pedido.setCliente(cliente);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setEnderecoEntrega(endereco());
+		pedido.setDataCriacao(OffsetDateTime.of(2026, 1, 10, 12, 30, 0, 0, ZoneOffset.UTC));
+		pedido.setItens(List.of(
+				item(pedido, produto(1L, "Porco com molho agridoce", "78.90"), 2, "Menos picante, por favor"),
+				item(pedido, produto(2L, "Pad Thai", "32.90"), 1, null)));
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+
+		return pedido;
+	}
+
+	private static ItemPedido item(Pedido pedido, Produto produto, int quantidade, String observacao) {
+		var item = new ItemPedido();
+		item.setPedido(pedido);
+		item.setProduto(produto);
+		item.setQuantidade(quantidade);
+		item.setPrecoUnitario(produto.getPreco());
+		item.setObservacao(observacao);
+		item.calcularPrecoTotal();
+
+		return item;
+	}
+
+	private static Produto produto(Long id, String nome, String preco) {
+		var produto = new Produto();
+		produto.setId(id);
+		produto.setNome(nome);
+		produto.setDescricao(nome + " da casa");
+		produto.setPreco(new BigDecimal(preco));
+		produto.setAtivo(true);
+
+		return produto;
+	}
+
+	private static Restaurante restaurante() {
+		var cozinha = new Cozinha();
+		cozinha.setId(1L);
+		cozinha.setNome("Tailandesa");
+
+		var restaurante = new Restaurante();
+		restaurante.setId(1L);
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10.00"));
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco());
+
+		return restaurante;
+	}
+
+	private static Endereco endereco() {
+		var estado = new Estado();
+		estado.setId(1L);
+		estado.setNome("Minas Gerais");
+
+		var cidade = new Cidade();
+		cidade.setId(1L);
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setComplemento("Apto 901");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		return endereco;
+	}
+
+}
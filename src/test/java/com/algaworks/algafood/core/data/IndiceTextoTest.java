@@ -0,0 +1,64 @@
+package com.algaworks.algafood.core.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class IndiceTextoTest {
+
+	@Test
+	void devePriorizarTermoExato_QuandoOutroNomeSoCasarPorPrefixo() {
+		var indice = indice("Pizzaria", "Pizza Napolitana Tradicional");
+
+		assertThat(indice.buscar("pizza")).containsExactly("Pizza Napolitana Tradicional", "Pizzaria");
+	}
+
+	@Test
+	void devePriorizarNomeQueComecaComConsulta_QuandoAmbosCasaremTermoExato() {
+		var indice = indice("Casa da Pizza", "Pizza Mania Grande");
+
+		assertThat(indice.buscar("pizza")).containsExactly("Pizza Mania Grande", "Casa da Pizza");
+	}
+
+	@Test
+	void deveDesempatarPeloNomeMaisCurtoEDepoisAlfabetico_QuandoPontuacaoForIgual() {
+		var indice = indice("Thai Gourmet", "Thai Bar", "Thai Delivery", "Thai Alt");
+
+		assertThat(indice.buscar("thai")).containsExactly("Thai Alt", "Thai Bar", "Thai Gourmet", "Thai Delivery");
+	}
+
+	@Test
+	void deveIgnorarAcentosEMaiusculas_NosNomesENaConsulta() {
+		var indice = indice("Açaí da Praça", "Acai Mix");
+
+		assertThat(indice.buscar("acai")).containsExactly("Acai Mix", "Açaí da Praça");
+		assertThat(indice.buscar("PRAÇA")).containsExactly("Açaí da Praça");
+		assertThat(indice.buscar("Açaí mi")).containsExactly("Acai Mix");
+	}
+
+	@Test
+	void deveExigirTodosOsTermos_QuandoConsultaTiverVariasPalavras() {
+		var indice = indice("Pizzaria Calabresa", "Pizzaria Napoli", "Calabresa Grill");
+
+		assertThat(indice.buscar("pizz cal")).containsExactly("Pizzaria Calabresa");
+		assertThat(indice.buscar("cal-pizz")).containsExactly("Pizzaria Calabresa");
+		assertThat(indice.buscar("pizz xyz")).isEmpty();
+	}
+
+	@Test
+	void deveRetornarListaVazia_QuandoConsultaNaoTiverTermos() {
+		var indice = indice("Thai Gourmet");
+
+		assertThat(indice.buscar("")).isEmpty();
+		assertThat(indice.buscar(" - ")).isEmpty();
+		assertThat(indice.buscar(null)).isEmpty();
+	}
+
+	private static IndiceTexto<String> indice(String... nomes) {
+		return new IndiceTexto<>(List.of(nomes), Function.identity());
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.algaworks.algafood.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+
+// As implementações customizadas dos repositórios (infrastructure.repository) são @Repository
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@ActiveProfiles("test")
+class PedidoRepositoryTest {
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private String codigoPedido;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		Estado estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		Cidade cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		Cozinha cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10"));
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco(cidade));
+		entityManager.persist(restaurante);
+
+		FormaPagamento formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Cartão de crédito");
+		entityManager.persist(formaPagamento);
+
+		Usuario cliente = new Usuario();
+		cliente.setNome("João da Silva");
+		cliente.setEmail("joao@algafood.com.br");
+		cliente.setSenha("123");
+		entityManager.persist(cliente);
+
+		Pedido pedido = new Pedido();
+		pedido.setRestaurante(restaurante);
+		pedido.setCliente(cliente);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setEnderecoEntrega(endereco(cidade));
+
+		for (int i = 1; i <= 3; i++) {
+			Produto produto = new Produto();
+			produto.setNome("Produto " + i);
+			produto.setDescricao("Descrição do produto " + i);
+			produto.setPreco(new BigDecimal("20"));
+			produto.setAtivo(true);
+			produto.setRestaurante(restaurante);
+			entityManager.persist(produto);
+
+			ItemPedido item = new ItemPedido();
+			item.setPedido(pedido);
+			item.setProduto(produto);
+			item.setQuantidade(i);
+			item.setPrecoUnitario(produto.getPreco());
+			item.calcularPrecoTotal();
+			pedido.getItens().add(item);
+		}
+
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+		entityManager.persist(pedido);
+
+		codigoPedido = pedido.getCodigo();
+
+		entityManager.flush();
+		entityManager.clear();
+		entityManagerFactory.getCache().evictAll();
+		statistics.clear();
+	}
+
+	@Test
+	void deveCarregarPedidoDetalhadoEmUmaConsulta_QuandoBuscarPorCodigo() {
+		Pedido pedido = pedidoRepository.findDetalhadoByCodigo(codigoPedido).orElseThrow();
+
+		// Tudo que o PedidoModel exibe
+		assertThat(pedido.getFormaPagamento().getDescricao()).isEqualTo("Cartão de crédito");
+		assertThat(pedido.getRestaurante().getCozinha().getNome()).isEqualTo("Tailandesa");
+		assertThat(pedido.getCliente().getNome()).isEqualTo("João da Silva");
+		assertThat(pedido.getEnderecoEntrega().getCidade().getNome()).isEqualTo("Uberlândia");
+		assertThat(pedido.getEnderecoEntrega().getCidade().getEstado().getNome()).isEqualTo("Minas Gerais");
+		assertThat(pedido.getItens()).hasSize(3)
+			.allSatisfy(item -> assertThat(item.getProduto().getNome()).startsWith("Produto"));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private static Endereco endereco(Cidade cidade) {
+		Endereco endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+		return endereco;
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.algaworks.algafood.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+
+// Sem Open Session in View, o que o RestauranteModel exibe tem que vir nas consultas
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@ActiveProfiles("test")
+class RestauranteRepositoryTest {
+
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Long cozinhaId;
+
+	private Long restauranteId;
+
+	@BeforeEach
+	void setUp() {
+		Estado estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		Cidade cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		Cozinha cozinha = new Cozinha();
+		cozinha.setNome("Brasileira");
+		entityManager.persist(cozinha);
+
+		FormaPagamento formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Dinheiro");
+		entityManager.persist(formaPagamento);
+
+		Usuario responsavel = new Usuario();
+		responsavel.setNome("Maria Joaquina");
+		responsavel.setEmail("maria@algafood.com.br");
+		responsavel.setSenha("123");
+		entityManager.persist(responsavel);
+
+		Endereco endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Comida Mineira");
+		restaurante.setTaxaFrete(BigDecimal.ZERO);
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+		restaurante.adicionarFormaPagamento(formaPagamento);
+		restaurante.associar(responsavel);
+		entityManager.persist(restaurante);
+
+		cozinhaId = cozinha.getId();
+		restauranteId = restaurante.getId();
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void deveCarregarCozinhaECidade_QuandoBuscarDetalhado() {
+		Restaurante restaurante = restauranteRepository.findDetalhadoById(restauranteId).orElseThrow();
+
+		assertCozinhaECidadeCarregadas(restaurante);
+	}
+
+	@Test
+	void deveCarregarCozinhaECidade_QuandoConsultarPorNome() {
+		List<Restaurante> restaurantes = restauranteRepository.consultarPorNome("Mineira", cozinhaId);
+
+		assertThat(restaurantes).hasSize(1);
+		assertCozinhaECidadeCarregadas(restaurantes.get(0));
+	}
+
+	@Test
+	void deveCarregarCozinhaECidade_QuandoBuscarPorNomeEFrete() {
+		List<Restaurante> restaurantes = restauranteRepository.find("Mineira", null, null);
+
+		assertThat(restaurantes).hasSize(1);
+		assertCozinhaECidadeCarregadas(restaurantes.get(0));
+	}
+
+	@Test
+	void deveCarregarCozinhaECidade_QuandoBuscarComFreteGratis() {
+		List<Restaurante> restaurantes = restauranteRepository.findComFreteGratis("Mineira");
+
+		assertThat(restaurantes).hasSize(1);
+		assertCozinhaECidadeCarregadas(restaurantes.get(0));
+	}
+
+	@Test
+	void deveCarregarFormasPagamento_QuandoBuscarComFormasPagamento() {
+		Restaurante restaurante = restauranteRepository.findComFormasPagamentoById(restauranteId).orElseThrow();
+
+		assertThat(Hibernate.isInitialized(restaurante.getFormasPagamento())).isTrue();
+		assertThat(restaurante.getFormasPagamento()).hasSize(1);
+	}
+
+	@Test
+	void deveCarregarResponsaveis_QuandoBuscarComResponsaveis() {
+		Restaurante restaurante = restauranteRepository.findComResponsaveisById(restauranteId).orElseThrow();
+
+		assertThat(Hibernate.isInitialized(restaurante.getResponsaveis())).isTrue();
+		assertThat(restaurante.getResponsaveis()).hasSize(1);
+	}
+
+	private void assertCozinhaECidadeCarregadas(Restaurante restaurante) {
+		assertThat(Hibernate.isInitialized(restaurante.getCozinha())).isTrue();
+		assertThat(Hibernate.isInitialized(restaurante.getEndereco().getCidade())).isTrue();
+		assertThat(Hibernate.isInitialized(restaurante.getEndereco().getCidade().getEstado())).isTrue();
+	}
+
+}
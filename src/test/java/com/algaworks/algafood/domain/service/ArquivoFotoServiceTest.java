@@ -0,0 +1,235 @@
+package com.algaworks.algafood.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.model.ArquivoFoto;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FotoProduto;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.repository.ArquivoFotoRepository;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+import com.algaworks.algafood.infrastructure.service.report.FuncoesMySqlH2;
+
+/*
+ * Contagem de referências dos arquivos compartilhados, com o storage simulado. O H2
+ * roda em modo MySQL por causa do "insert ignore", e sem transação no teste: o
+ * registro da foto e a coleta abrem as suas, como em produção.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class),
+		properties = "algafood.storage.deduplicacao.habilitada=true")
+@Import({ ArquivoFotoService.class, CatalogoFotoProdutoService.class, StorageProperties.class })
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArquivoFotoServiceTest {
+
+	private static final byte[] CONTEUDO_JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 1, 2, 3, 4 };
+
+	@Autowired
+	private ArquivoFotoService arquivoFotoService;
+
+	@Autowired
+	private CatalogoFotoProdutoService catalogoFotoProduto;
+
+	@Autowired
+	private ArquivoFotoRepository arquivoFotoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockBean
+	private FotoStorageService fotoStorageService;
+
+	@MockBean
+	private FotoStorageAsyncService fotoStorageAsyncService;
+
+	@MockBean
+	private RedimensionamentoFotoService redimensionamentoFotoService;
+
+	@BeforeEach
+	void setUp() {
+		var sequencia = new AtomicInteger();
+
+		when(fotoStorageService.gerarNomeArquivo(anyString()))
+			.thenAnswer(invocacao -> sequencia.incrementAndGet() + "_" + invocacao.getArgument(0));
+		when(fotoStorageService.gerarNomeVariante(anyString(), anyInt()))
+			.thenAnswer(invocacao -> invocacao.getArgument(1) + "w_" + invocacao.getArgument(0));
+		when(fotoStorageAsyncService.remover(anyCollection()))
+			.thenReturn(CompletableFuture.completedFuture(null));
+
+		// O hash é calculado enquanto o storage lê o arquivo
+		doAnswer(invocacao -> invocacao.getArgument(0, NovaFoto.class).getInputStream()
+				.transferTo(OutputStream.nullOutputStream()))
+			.when(fotoStorageService).armazenar(any());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			FuncoesMySqlH2.registrar(entityManager);
+			entityManager.createNativeQuery("set mode MySQL").executeUpdate();
+			entityManager.createQuery("delete from ArquivoFoto").executeUpdate();
+		});
+	}
+
+	// No modo MySQL o H2 não reconhece os aliases já criados
+	@AfterEach
+	void tearDown() {
+		transactionTemplate.executeWithoutResult(status ->
+				entityManager.createNativeQuery("set mode Regular").executeUpdate());
+	}
+
+	@Test
+	void deveReaproveitarArquivoRegistradoEDescartarOEnviado_QuandoMesmoConteudoForEnviadoDeNovo() {
+		Restaurante restaurante = transactionTemplate.execute(status -> criarRestaurante());
+		Produto primeiroProduto = transactionTemplate.execute(status -> criarProduto(restaurante));
+		Produto segundoProduto = transactionTemplate.execute(status -> criarProduto(restaurante));
+
+		FotoProduto primeiraFoto = catalogoFotoProduto.salvar(novaFoto(primeiroProduto),
+				new ByteArrayInputStream(CONTEUDO_JPEG));
+		FotoProduto segundaFoto = catalogoFotoProduto.salvar(novaFoto(segundoProduto),
+				new ByteArrayInputStream(CONTEUDO_JPEG));
+
+		assertThat(primeiraFoto.getNomeArquivo()).isEqualTo("1_foto.jpg");
+		assertThat(segundaFoto.getNomeArquivo()).isEqualTo("1_foto.jpg");
+		assertThat(arquivoFotoRepository.findById(primeiraFoto.getHash()).orElseThrow())
+			.extracting(ArquivoFoto::getNomeArquivo, ArquivoFoto::getReferencias)
+			.containsExactly("1_foto.jpg", 2);
+
+		verify(fotoStorageAsyncService).remover(Set.of("2_foto.jpg"));
+		verify(fotoStorageAsyncService, never()).remover(argThat((Set<String> nomes) -> nomes.contains("1_foto.jpg")));
+	}
+
+	@Test
+	void deveDesfazerReferencia_QuandoTransacaoQueRegistraFotoForDesfeita() {
+		String hash = UUID.randomUUID().toString();
+		String hashNovo = UUID.randomUUID().toString();
+
+		arquivoFotoService.referenciar("1_foto.jpg", hash, "image/jpeg", 8);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			assertThat(arquivoFotoService.referenciar("2_foto.jpg", hash, "image/jpeg", 8)).isEqualTo("1_foto.jpg");
+			assertThat(arquivoFotoService.referenciar("3_foto.jpg", hashNovo, "image/jpeg", 8)).isEqualTo("3_foto.jpg");
+			status.setRollbackOnly();
+		});
+
+		assertThat(arquivoFotoRepository.findById(hash).orElseThrow().getReferencias()).isEqualTo(1);
+		assertThat(arquivoFotoRepository.findById(hashNovo)).isEmpty();
+	}
+
+	@Test
+	void deveColetarSomenteArquivosSemReferencias() {
+		String hashEmUso = UUID.randomUUID().toString();
+		String hashLiberado = UUID.randomUUID().toString();
+
+		arquivoFotoService.referenciar("1_em-uso.jpg", hashEmUso, "image/jpeg", 8);
+		arquivoFotoService.referenciar("2_liberado.jpg", hashLiberado, "image/jpeg", 8);
+
+		var fotoLiberada = new FotoProduto();
+		fotoLiberada.setNomeArquivo("2_liberado.jpg");
+		fotoLiberada.setHash(hashLiberado);
+		assertThat(arquivoFotoService.liberar(fotoLiberada)).isTrue();
+
+		assertThat(arquivoFotoService.coletarLote()).isEqualTo(1);
+
+		assertThat(arquivoFotoRepository.findById(hashLiberado)).isEmpty();
+		assertThat(arquivoFotoRepository.findById(hashEmUso).orElseThrow().getReferencias()).isEqualTo(1);
+
+		verify(fotoStorageService).remover("2_liberado.jpg");
+		verify(fotoStorageService).remover("128w_2_liberado.jpg");
+		verify(fotoStorageService, never()).remover("1_em-uso.jpg");
+
+		// Nada mais a coletar: o arquivo em uso continua de fora
+		assertThat(arquivoFotoService.coletarLote()).isZero();
+	}
+
+	private static FotoProduto novaFoto(Produto produto) {
+		var foto = new FotoProduto();
+		foto.setProduto(produto);
+		foto.setNomeArquivo("foto.jpg");
+		foto.setDescricao("Foto do prato");
+
+		return foto;
+	}
+
+	private Produto criarProduto(Restaurante restaurante) {
+		var produto = new Produto();
+		produto.setNome("Pad Thai");
+		produto.setDescricao("Macarrão de arroz salteado");
+		produto.setPreco(new BigDecimal("45"));
+		produto.setAtivo(true);
+		produto.setRestaurante(entityManager.merge(restaurante));
+		entityManager.persist(produto);
+
+		return produto;
+	}
+
+	private Restaurante criarRestaurante() {
+		var estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		var cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(BigDecimal.ZERO);
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+		entityManager.persist(restaurante);
+
+		return restaurante;
+	}
+
+}
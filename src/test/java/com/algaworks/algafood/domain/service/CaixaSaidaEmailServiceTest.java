@@ -0,0 +1,198 @@
+package com.algaworks.algafood.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.email.EmailProperties;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.EmailSaida;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.StatusEmailSaida;
+import com.algaworks.algafood.domain.model.Usuario;
+import com.algaworks.algafood.domain.repository.EmailSaidaRepository;
+import com.algaworks.algafood.infrastructure.service.email.EmailException;
+
+// Sem transação no teste: cada etapa do despacho precisa fazer commit de verdade
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@Import({ CaixaSaidaEmailService.class, EmailProperties.class })
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CaixaSaidaEmailServiceTest {
+
+	@Autowired
+	private CaixaSaidaEmailService caixaSaidaEmail;
+
+	@Autowired
+	private EmailSaidaRepository emailSaidaRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockBean
+	private EnvioEmailService envioEmail;
+
+	private Long emailId;
+
+	@BeforeEach
+	void setUp() {
+		emailId = transactionTemplate.execute(status -> {
+			Pedido pedido = criarPedido();
+			EmailSaida email = EmailSaida.paraPedido(pedido, "Pedido confirmado", "pedido-confirmado.html");
+			entityManager.persist(email);
+			return email.getId();
+		});
+	}
+
+	@Test
+	void deveEnviarSemTransacaoAberta_QuandoDespacharLote() {
+		AtomicBoolean transacaoAtiva = new AtomicBoolean(true);
+
+		when(envioEmail.enviar(anyList())).thenAnswer(invocacao -> {
+			transacaoAtiva.set(TransactionSynchronizationManager.isActualTransactionActive());
+
+			// Durante o envio o e-mail já está reservado, com a reserva gravada no banco
+			assertThat(emailSaidaRepository.findById(emailId).orElseThrow().getStatus())
+				.isEqualTo(StatusEmailSaida.ENVIANDO);
+
+			return Map.of();
+		});
+
+		assertThat(caixaSaidaEmail.despacharLote()).isEqualTo(1);
+
+		EmailSaida email = emailSaidaRepository.findById(emailId).orElseThrow();
+
+		assertThat(transacaoAtiva).isFalse();
+		assertThat(email.getStatus()).isEqualTo(StatusEmailSaida.ENVIADO);
+		assertThat(email.getDataEnvio()).isNotNull();
+	}
+
+	@Test
+	void deveVoltarParaPendenteComNovaTentativa_QuandoEnvioFalhar() {
+		when(envioEmail.enviar(anyList())).thenThrow(new EmailException("Servidor SMTP indisponível"));
+
+		assertThat(caixaSaidaEmail.despacharLote()).isEqualTo(1);
+
+		EmailSaida email = emailSaidaRepository.findById(emailId).orElseThrow();
+
+		assertThat(email.getStatus()).isEqualTo(StatusEmailSaida.PENDENTE);
+		assertThat(email.getTentativas()).isEqualTo(1);
+		assertThat(email.getProximaTentativa()).isAfter(OffsetDateTime.now());
+		assertThat(email.getUltimoErro()).contains("Servidor SMTP indisponível");
+	}
+
+	@Test
+	void deveBuscarDeNovo_QuandoConcessaoExpirar() {
+		transactionTemplate.executeWithoutResult(status ->
+				emailSaidaRepository.findById(emailId).orElseThrow()
+					.reservar(OffsetDateTime.now().minusSeconds(1)));
+
+		when(envioEmail.enviar(anyList())).thenReturn(Map.of());
+
+		assertThat(caixaSaidaEmail.despacharLote()).isEqualTo(1);
+		assertThat(emailSaidaRepository.findById(emailId).orElseThrow().getStatus())
+			.isEqualTo(StatusEmailSaida.ENVIADO);
+	}
+
+	private Pedido criarPedido() {
+		Estado estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		Cidade cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		Cozinha cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		Restaurante restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10"));
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco(cidade));
+		entityManager.persist(restaurante);
+
+		FormaPagamento formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Cartão de crédito");
+		entityManager.persist(formaPagamento);
+
+		Usuario cliente = new Usuario();
+		cliente.setNome("João da Silva");
+		cliente.setEmail("joao@algafood.com.br");
+		cliente.setSenha("123");
+		entityManager.persist(cliente);
+
+		Produto produto = new Produto();
+		produto.setNome("Pad Thai");
+		produto.setDescricao("Macarrão de arroz");
+		produto.setPreco(new BigDecimal("20"));
+		produto.setAtivo(true);
+		produto.setRestaurante(restaurante);
+		entityManager.persist(produto);
+
+		Pedido pedido = new Pedido();
+		pedido.setRestaurante(restaurante);
+		pedido.setCliente(cliente);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setEnderecoEntrega(endereco(cidade));
+
+		ItemPedido item = new ItemPedido();
+		item.setPedido(pedido);
+		item.setProduto(produto);
+		item.setQuantidade(1);
+		item.setPrecoUnitario(produto.getPreco());
+		item.calcularPrecoTotal();
+		pedido.getItens().add(item);
+
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+		entityManager.persist(pedido);
+
+		return pedido;
+	}
+
+	private static Endereco endereco(Cidade cidade) {
+		Endereco endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+		return endereco;
+	}
+
+}
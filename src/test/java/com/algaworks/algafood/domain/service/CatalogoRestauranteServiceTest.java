@@ -0,0 +1,161 @@
+package com.algaworks.algafood.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.domain.event.CozinhaAlteradaEvent;
+import com.algaworks.algafood.domain.event.RestauranteAlteradoEvent;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.RestauranteCatalogo;
+import com.algaworks.algafood.domain.repository.CozinhaRepository;
+import com.algaworks.algafood.domain.repository.RestauranteRepository;
+
+/*
+ * Os eventos são tratados depois do commit, mas ainda com o contexto de persistência
+ * da transação que os publicou. Os testes chamam o catálogo dentro de uma transação
+ * que já carregou o restaurante, enquanto outra transação grava uma alteração mais
+ * recente: o catálogo precisa publicar o que está no banco, não o que a primeira carregou.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@Import(CatalogoRestauranteService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogoRestauranteServiceTest {
+
+	@Autowired
+	private CatalogoRestauranteService catalogoRestaurante;
+
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+
+	@Autowired
+	private CozinhaRepository cozinhaRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Long restauranteId;
+
+	private Long cozinhaId;
+
+	@BeforeEach
+	void setUp() {
+		Restaurante restaurante = transactionTemplate.execute(status -> criarRestaurante());
+		restauranteId = restaurante.getId();
+		cozinhaId = restaurante.getCozinha().getId();
+
+		catalogoRestaurante.recarregar();
+	}
+
+	@Test
+	void devePublicarDadosMaisRecentes_QuandoOutraTransacaoAlterarRestauranteDepois() {
+		transactionTemplate.executeWithoutResult(status -> {
+			restauranteRepository.findById(restauranteId).orElseThrow().setNome("Thai Express");
+
+			emOutraTransacao(() -> restauranteRepository.findById(restauranteId).orElseThrow()
+					.setNome("Thai Delivery"));
+
+			catalogoRestaurante.aoAlterarRestaurante(new RestauranteAlteradoEvent(restauranteId));
+		});
+
+		assertThat(buscarNoCatalogo(restauranteId)).map(RestauranteCatalogo::getNome).hasValue("Thai Delivery");
+	}
+
+	@Test
+	void deveRemoverDoCatalogo_QuandoRestauranteNaoExistirMaisNoBanco() {
+		transactionTemplate.executeWithoutResult(status -> {
+			restauranteRepository.findById(restauranteId).orElseThrow();
+
+			emOutraTransacao(() -> restauranteRepository.deleteById(restauranteId));
+
+			catalogoRestaurante.aoAlterarRestaurante(new RestauranteAlteradoEvent(restauranteId));
+		});
+
+		assertThat(buscarNoCatalogo(restauranteId)).isEmpty();
+	}
+
+	@Test
+	void devePublicarNomeMaisRecenteDaCozinha_QuandoOutraTransacaoAlterarCozinhaDepois() {
+		transactionTemplate.executeWithoutResult(status -> {
+			cozinhaRepository.findById(cozinhaId).orElseThrow().setNome("Tailandesa Clássica");
+
+			emOutraTransacao(() -> cozinhaRepository.findById(cozinhaId).orElseThrow().setNome("Asiática"));
+
+			catalogoRestaurante.aoAlterarCozinha(new CozinhaAlteradaEvent(cozinhaId));
+		});
+
+		assertThat(buscarNoCatalogo(restauranteId)).map(RestauranteCatalogo::getCozinhaNome).hasValue("Asiática");
+	}
+
+	private void emOutraTransacao(Runnable alteracao) {
+		var novaTransacao = new TransactionTemplate(transactionManager);
+		novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		novaTransacao.executeWithoutResult(status -> alteracao.run());
+	}
+
+	private Optional<RestauranteCatalogo> buscarNoCatalogo(Long id) {
+		return catalogoRestaurante.listar().stream()
+				.filter(restaurante -> restaurante.getId().equals(id))
+				.findFirst();
+	}
+
+	private Restaurante criarRestaurante() {
+		var estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		var cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10"));
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+		entityManager.persist(restaurante);
+
+		return restaurante;
+	}
+
+}
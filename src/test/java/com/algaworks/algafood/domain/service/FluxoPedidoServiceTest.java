@@ -0,0 +1,236 @@
+package com.algaworks.algafood.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.domain.exception.NegocioException;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+import com.algaworks.algafood.domain.repository.VendaHoraRepository;
+import com.algaworks.algafood.infrastructure.service.report.FuncoesMySqlH2;
+
+/*
+ * Os totais da venda_hora mantidos a cada mudança de status precisam ser os mesmos
+ * que a reconstrução diária calcula a partir dos pedidos. O H2 roda em modo MySQL
+ * por causa do "on duplicate key update", e sem transação no teste: cada mudança de
+ * status abre a sua, como em produção.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@Import(FluxoPedidoService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FluxoPedidoServiceTest {
+
+	private static final OffsetDateTime DATA_CRIACAO = OffsetDateTime.of(2026, 1, 10, 10, 15, 0, 0, ZoneOffset.UTC);
+
+	@Autowired
+	private FluxoPedidoService fluxoPedidoService;
+
+	@Autowired
+	private VendaHoraRepository vendaHoraRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private ExecutorService executor;
+
+	private Restaurante restaurante;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+
+		restaurante = transactionTemplate.execute(status -> {
+			FuncoesMySqlH2.registrar(entityManager);
+			entityManager.createNativeQuery("create table if not exists venda_hora ("
+					+ "restaurante_id bigint not null, hora timestamp not null, "
+					+ "total_vendas int not null, total_faturado decimal(12,2) not null, "
+					+ "primary key (restaurante_id, hora))").executeUpdate();
+			entityManager.createNativeQuery("set mode MySQL").executeUpdate();
+
+			return criarRestaurante();
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+
+		// No modo MySQL o H2 não reconhece os aliases já criados
+		transactionTemplate.executeWithoutResult(status ->
+				entityManager.createNativeQuery("set mode Regular").executeUpdate());
+	}
+
+	@Test
+	void deveManterTotaisDaReconstrucao_QuandoPedidosForemConfirmadosEEntregues() {
+		String primeiro = criarPedido("50.00");
+		String segundo = criarPedido("30.00");
+		String cancelado = criarPedido("100.00");
+
+		fluxoPedidoService.confirmar(primeiro);
+		fluxoPedidoService.confirmar(segundo);
+		fluxoPedidoService.entregar(primeiro);
+		fluxoPedidoService.cancelar(cancelado);
+
+		assertThat(totaisDoRestaurante()).containsExactly(List.of("2", "80.00"));
+		assertTotaisIguaisAosDaReconstrucao();
+	}
+
+	@Test
+	void deveContarPedidoUmaVez_QuandoConfirmacaoForRepetida() {
+		String codigo = criarPedido("50.00");
+
+		fluxoPedidoService.confirmar(codigo);
+
+		assertThatThrownBy(() -> fluxoPedidoService.confirmar(codigo)).isInstanceOf(NegocioException.class);
+
+		assertThat(totaisDoRestaurante()).containsExactly(List.of("1", "50.00"));
+		assertTotaisIguaisAosDaReconstrucao();
+	}
+
+	@Test
+	void deveContarPedidoUmaVez_QuandoConfirmacoesForemSimultaneas() throws Exception {
+		String codigo = criarPedido("50.00");
+
+		// A segunda confirmação começa enquanto a primeira ainda não fez commit
+		Future<?> segundaConfirmacao = transactionTemplate.execute(status -> {
+			fluxoPedidoService.confirmar(codigo);
+
+			Future<?> confirmacao = executor.submit(() -> fluxoPedidoService.confirmar(codigo));
+			esperar(300);
+
+			return confirmacao;
+		});
+
+		assertThatThrownBy(segundaConfirmacao::get).hasCauseInstanceOf(NegocioException.class);
+
+		assertThat(totaisDoRestaurante()).containsExactly(List.of("1", "50.00"));
+		assertTotaisIguaisAosDaReconstrucao();
+	}
+
+	private void assertTotaisIguaisAosDaReconstrucao() {
+		List<List<String>> incrementais = totaisDoRestaurante();
+
+		vendaHoraRepository.reconstruir();
+
+		assertThat(totaisDoRestaurante()).isEqualTo(incrementais);
+	}
+
+	private List<List<String>> totaisDoRestaurante() {
+		List<?> linhas = entityManager.createNativeQuery("select total_vendas, total_faturado "
+				+ "from venda_hora where restaurante_id = ? order by hora")
+			.setParameter(1, restaurante.getId())
+			.getResultList();
+
+		return linhas.stream()
+				.map(Object[].class::cast)
+				.map(linha -> List.of(linha[0].toString(), linha[1].toString()))
+				.collect(Collectors.toList());
+	}
+
+	private String criarPedido(String valorTotal) {
+		return transactionTemplate.execute(status -> {
+			var formaPagamento = new FormaPagamento();
+			formaPagamento.setDescricao("Cartão de crédito");
+			entityManager.persist(formaPagamento);
+
+			var cliente = new Usuario();
+			cliente.setNome("João da Silva");
+			cliente.setEmail("joao" + System.nanoTime() + "@algafood.com.br");
+			cliente.setSenha("123");
+			entityManager.persist(cliente);
+
+			var pedido = new Pedido();
+			pedido.setRestaurante(entityManager.merge(restaurante));
+			pedido.setFormaPagamento(formaPagamento);
+			pedido.setCliente(cliente);
+			pedido.setEnderecoEntrega(restaurante.getEndereco());
+			pedido.setSubtotal(new BigDecimal(valorTotal));
+			pedido.setTaxaFrete(BigDecimal.ZERO);
+			pedido.setValorTotal(new BigDecimal(valorTotal));
+			entityManager.persist(pedido);
+			entityManager.flush();
+
+			// Todos na mesma hora; dataCriacao é preenchida pelo Hibernate na inclusão
+			entityManager.createQuery("update Pedido set dataCriacao = :dataCriacao where id = :id")
+				.setParameter("dataCriacao", DATA_CRIACAO)
+				.setParameter("id", pedido.getId())
+				.executeUpdate();
+
+			return pedido.getCodigo();
+		});
+	}
+
+	private Restaurante criarRestaurante() {
+		var estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		var cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(BigDecimal.ZERO);
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+		entityManager.persist(restaurante);
+
+		return restaurante;
+	}
+
+	private static void esperar(long milissegundos) {
+		try {
+			Thread.sleep(milissegundos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,297 @@
+package com.algaworks.algafood.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FotoProduto;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.dto.ResultadoImportacaoFotos;
+import com.algaworks.algafood.domain.model.dto.ResultadoImportacaoFotos.Falha;
+import com.algaworks.algafood.domain.repository.ProdutoRepository;
+
+/*
+ * Importação com o storage simulado e o registro em lote de verdade, no H2. Sem
+ * transação no teste: cada lote abre a sua, como em produção.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class))
+@Import({ ImportacaoFotoProdutoService.class, CatalogoFotoProdutoService.class, ArquivoFotoService.class,
+		StorageProperties.class })
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportacaoFotoProdutoServiceTest {
+
+	private static final byte[] ASSINATURA_JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 };
+
+	@Autowired
+	private ImportacaoFotoProdutoService importacaoFotoProduto;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockBean
+	private CadastroRestauranteService cadastroRestaurante;
+
+	@MockBean
+	private FotoStorageService fotoStorageService;
+
+	@MockBean
+	private FotoStorageAsyncService fotoStorageAsyncService;
+
+	@MockBean
+	private RedimensionamentoFotoService redimensionamentoFotoService;
+
+	private Restaurante restaurante;
+
+	private Long pizzaId;
+
+	private Long saladaId;
+
+	@BeforeEach
+	void setUp() {
+		restaurante = transactionTemplate.execute(status -> criarRestaurante());
+		pizzaId = transactionTemplate.execute(status -> criarProduto("Pizza Calabresa").getId());
+		saladaId = transactionTemplate.execute(status -> criarProduto("Salada Caesar").getId());
+
+		when(cadastroRestaurante.buscar(restaurante.getId())).thenReturn(restaurante);
+		when(fotoStorageService.gerarNomeArquivo(anyString()))
+			.thenAnswer(invocacao -> "uuid_" + invocacao.getArgument(0));
+		when(fotoStorageAsyncService.armazenar(any()))
+			.thenReturn(CompletableFuture.completedFuture(null));
+		when(fotoStorageAsyncService.remover(anyCollection()))
+			.thenReturn(CompletableFuture.completedFuture(null));
+	}
+
+	@Test
+	void deveImportarFotosDescritasPeloNome_QuandoProdutosExistirem() {
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + "_pizza-de-calabresa.jpg", jpeg(100),
+				saladaId + ".jpg", jpeg(100)));
+
+		assertThat(resultado.getFalhas()).isEmpty();
+		assertThat(resultado.getProdutosAtualizados()).containsExactlyInAnyOrder(pizzaId, saladaId);
+		assertThat(buscarFoto(pizzaId).getDescricao()).isEqualTo("pizza de calabresa");
+		assertThat(buscarFoto(saladaId).getDescricao()).isEqualTo("Salada Caesar");
+	}
+
+	@Test
+	void deveReportarFalhaPorEntrada_QuandoProdutoNaoExistirOuSeRepetir() {
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + ".jpg", jpeg(100),
+				pizzaId + "_de-novo.jpg", jpeg(100),
+				"999999.jpg", jpeg(100),
+				"cardapio.jpg", jpeg(100)));
+
+		assertThat(resultado.getProdutosAtualizados()).containsExactly(pizzaId);
+		assertThat(resultado.getFalhas()).extracting(Falha::getArquivo, Falha::getMotivo).containsExactly(
+				tuple(pizzaId + "_de-novo.jpg", "O arquivo já contém uma foto para o produto de código " + pizzaId + "."),
+				tuple("999999.jpg", "Não existe um produto de código 999999 neste restaurante."),
+				tuple("cardapio.jpg", "O nome do arquivo deve começar pelo código do produto."));
+	}
+
+	@Test
+	void deveReportarFalhaSemGravar_QuandoEntradaNaoForImagemOuExcederTamanho() {
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + ".jpg", "não é uma imagem".getBytes(StandardCharsets.UTF_8),
+				saladaId + ".jpg", jpeg(600 * 1024)));
+
+		assertThat(resultado.getProdutosAtualizados()).isEmpty();
+		assertThat(resultado.getFalhas()).extracting(Falha::getArquivo, Falha::getMotivo).containsExactly(
+				tuple(pizzaId + ".jpg", "O arquivo não é uma imagem JPEG ou PNG."),
+				tuple(saladaId + ".jpg", "O arquivo excede o tamanho máximo de 500 KB."));
+
+		verify(fotoStorageAsyncService, never()).armazenar(any());
+	}
+
+	@Test
+	void deveRemoverEReportarArquivo_QuandoGravacaoNoStorageFalhar() {
+		when(fotoStorageAsyncService.armazenar(argThat(foto -> foto.getNomeArquivo().equals("uuid_" + pizzaId + ".jpg"))))
+			.thenReturn(CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Disco cheio"))));
+
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + ".jpg", jpeg(100),
+				saladaId + ".jpg", jpeg(100)));
+
+		assertThat(resultado.getProdutosAtualizados()).containsExactly(saladaId);
+		assertThat(resultado.getFalhas()).extracting(Falha::getArquivo, Falha::getMotivo)
+			.containsExactly(tuple(pizzaId + ".jpg", "Não foi possível gravar a foto no storage."));
+		assertThat(produtoRepository.findFotoById(restaurante.getId(), pizzaId)).isEmpty();
+
+		verify(fotoStorageAsyncService).remover(Set.of("uuid_" + pizzaId + ".jpg"));
+	}
+
+	@Test
+	void deveApagarArquivosGravados_QuandoRegistroDoLoteFalhar() {
+		// Descrição maior que a coluna: o insert falha e o lote inteiro é desfeito
+		String nomeLongo = saladaId + "_" + "a".repeat(300) + ".jpg";
+
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + ".jpg", jpeg(100),
+				nomeLongo, jpeg(100)));
+
+		assertThat(resultado.getProdutosAtualizados()).isEmpty();
+		assertThat(resultado.getFalhas()).extracting(Falha::getArquivo, Falha::getMotivo).containsExactly(
+				tuple(pizzaId + ".jpg", "Não foi possível registrar a foto."),
+				tuple(nomeLongo, "Não foi possível registrar a foto."));
+		assertThat(produtoRepository.findFotoById(restaurante.getId(), pizzaId)).isEmpty();
+
+		verify(fotoStorageAsyncService).remover(Set.of("uuid_" + pizzaId + ".jpg", "uuid_" + nomeLongo));
+	}
+
+	@Test
+	void deveSubstituirFotoAtual_QuandoProdutoJaTiverFotoNoLote() {
+		transactionTemplate.executeWithoutResult(status -> {
+			var fotoAtual = new FotoProduto();
+			fotoAtual.setProduto(entityManager.find(Produto.class, pizzaId));
+			fotoAtual.setNomeArquivo("uuid_antiga.jpg");
+			fotoAtual.setDescricao("Foto antiga");
+			fotoAtual.setContentType("image/jpeg");
+			fotoAtual.setTamanho(100L);
+			entityManager.persist(fotoAtual);
+		});
+
+		ResultadoImportacaoFotos resultado = importar(mapa(
+				pizzaId + "_nova.jpg", jpeg(100),
+				saladaId + ".jpg", jpeg(100)));
+
+		assertThat(resultado.getFalhas()).isEmpty();
+		assertThat(resultado.getProdutosAtualizados()).containsExactlyInAnyOrder(pizzaId, saladaId);
+		assertThat(buscarFoto(pizzaId).getNomeArquivo()).isEqualTo("uuid_" + pizzaId + "_nova.jpg");
+
+		// A foto substituída não usa arquivo compartilhado: é apagada depois do commit
+		verify(fotoStorageAsyncService).remover(Set.of("uuid_antiga.jpg"));
+	}
+
+	private ResultadoImportacaoFotos importar(Map<String, byte[]> entradas) {
+		return importacaoFotoProduto.importar(restaurante.getId(), new ByteArrayInputStream(zip(entradas)));
+	}
+
+	private FotoProduto buscarFoto(Long produtoId) {
+		return produtoRepository.findFotoById(restaurante.getId(), produtoId).orElseThrow();
+	}
+
+	// Mantém a ordem das entradas no zip, que é a ordem das falhas no resultado
+	private static Map<String, byte[]> mapa(Object... nomesEConteudos) {
+		Map<String, byte[]> entradas = new LinkedHashMap<>();
+
+		for (int i = 0; i < nomesEConteudos.length; i += 2) {
+			entradas.put((String) nomesEConteudos[i], (byte[]) nomesEConteudos[i + 1]);
+		}
+
+		return entradas;
+	}
+
+	private static byte[] zip(Map<String, byte[]> entradas) {
+		var saida = new ByteArrayOutputStream();
+
+		try (var zip = new ZipOutputStream(saida)) {
+			for (Map.Entry<String, byte[]> entrada : entradas.entrySet()) {
+				zip.putNextEntry(new ZipEntry(entrada.getKey()));
+				zip.write(entrada.getValue());
+				zip.closeEntry();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return saida.toByteArray();
+	}
+
+	private static byte[] jpeg(int tamanho) {
+		byte[] conteudo = Arrays.copyOf(ASSINATURA_JPEG, tamanho);
+		Arrays.fill(conteudo, ASSINATURA_JPEG.length, tamanho, (byte) 7);
+
+		return conteudo;
+	}
+
+	private Produto criarProduto(String nome) {
+		var produto = new Produto();
+		produto.setNome(nome);
+		produto.setDescricao(nome);
+		produto.setPreco(new BigDecimal("40"));
+		produto.setAtivo(true);
+		produto.setRestaurante(entityManager.merge(restaurante));
+		entityManager.persist(produto);
+
+		return produto;
+	}
+
+	private Restaurante criarRestaurante() {
+		var estado = new Estado();
+		estado.setNome("São Paulo");
+		entityManager.persist(estado);
+
+		var cidade = new Cidade();
+		cidade.setNome("Campinas");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setNome("Italiana");
+		entityManager.persist(cozinha);
+
+		var endereco = new Endereco();
+		endereco.setCep("13010-000");
+		endereco.setLogradouro("Rua Barão de Jaguara");
+		endereco.setNumero("900");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Cantina Bella");
+		restaurante.setTaxaFrete(BigDecimal.ZERO);
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco);
+		entityManager.persist(restaurante);
+
+		return restaurante;
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.algaworks.algafood.infrastructure.service.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.freemarker.FreeMarkerConfigurationFactory;
+
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.ItemPedido;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Produto;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+import com.algaworks.algafood.domain.model.dto.NotificacaoPedido;
+import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
+
+import freemarker.template.Configuration;
+
+class ProcessadorEmailTemplateTest {
+
+	private ProcessadorEmailTemplate processadorEmailTemplate;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		processadorEmailTemplate = criarProcessadorEmailTemplate();
+	}
+
+	@Test
+	void deveRenderizarPedidoConfirmado_QuandoNotificacaoForMontadaDoPedido() {
+		String html = processadorEmailTemplate.processarTemplate(mensagem("emails/pedido-confirmado.html"));
+
+		assertThat(html)
+			.contains("Pedido confirmado!")
+			.contains("João da Silva, seu pedido foi confirmado")
+			.contains("<h2 style=\"font-size: 20px\">Thai Gourmet</h2>")
+			.contains("2x Porco com molho agridoce")
+			.contains("1x Pad Thai")
+			.contains("157,80", "32,90", "10,00", "200,70")
+			.contains("Cartão de crédito")
+			.doesNotContain("${");
+	}
+
+	@Test
+	void deveRenderizarPedidoCancelado_QuandoNotificacaoForMontadaDoPedido() {
+		String html = processadorEmailTemplate.processarTemplate(mensagem("emails/pedido-cancelado.html"));
+
+		assertThat(html)
+			.contains("Pedido cancelado!")
+			.contains("João da Silva, seu pedido foi cancelado")
+			.contains("2x Porco com molho agridoce")
+			.contains("1x Pad Thai")
+			.contains("200,70")
+			.contains("Cartão de crédito")
+			.doesNotContain("${");
+	}
+
+	@Test
+	void deveGerarMesmoConteudo_QuandoBufferDaThreadForReaproveitado() {
+		String confirmado = processadorEmailTemplate.processarTemplate(mensagem("emails/pedido-confirmado.html"));
+		String cancelado = processadorEmailTemplate.processarTemplate(mensagem("emails/pedido-cancelado.html"));
+
+		assertThat(processadorEmailTemplate.processarTemplate(mensagem("emails/pedido-confirmado.html")))
+			.isEqualTo(confirmado);
+		assertThat(cancelado).doesNotContain("Pedido confirmado!");
+	}
+
+	@Test
+	void deveLancarEmailException_QuandoTemplateNaoExistir() {
+		assertThatThrownBy(() -> processadorEmailTemplate.processarTemplate(mensagem("emails/inexistente.html")))
+			.isInstanceOf(EmailException.class);
+	}
+
+	// Mesma configuração do FreeMarker que o Spring Boot monta a partir do application.properties
+	static ProcessadorEmailTemplate criarProcessadorEmailTemplate() throws Exception {
+		var settings = new Properties();
+		settings.setProperty(Configuration.LOCALE_KEY, "pt_BR");
+
+		var configurationFactory = new FreeMarkerConfigurationFactory();
+		configurationFactory.setTemplateLoaderPath("classpath:/templates/");
+		configurationFactory.setDefaultEncoding("UTF-8");
+		configurationFactory.setFreemarkerSettings(settings);
+
+		var processadorEmailTemplate = new ProcessadorEmailTemplate();
+		ReflectionTestUtils.setField(processadorEmailTemplate, "freemarkerConfig",
+				configurationFactory.createConfiguration());
+		ReflectionTestUtils.setField(processadorEmailTemplate, "resourcePatternResolver",
+				new PathMatchingResourcePatternResolver());
+		processadorEmailTemplate.carregarTemplates();
+
+		return processadorEmailTemplate;
+	}
+
+	private static Mensagem mensagem(String corpo) {
+		return Mensagem.builder()
+				.assunto("Pedido")
+				.corpo(corpo)
+				.variavel("pedido", NotificacaoPedido.de(pedido()))
+				.destinatario("joao@algafood.com.br")
+				.build();
+	}
+
+	private static Pedido pedido() {
+		var cliente = new Usuario();
+		cliente.setNome("João da Silva");
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(new BigDecimal("10.00"));
+
+		var formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Cartão de crédito");
+
+		var pedido = new Pedido();
+		pedido.setCodigo("f9981ca4-5a5e-4da3-af04-933861df3e55");
+		pedido.setCliente(cliente);
+		pedido.setRestaurante(restaurante);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setItens(List.of(
+				item("Porco com molho agridoce", "78.90", 2),
+				item("Pad Thai", "32.90", 1)));
+		pedido.definirFrete();
+		pedido.calcularValorTotal();
+
+		return pedido;
+	}
+
+	private static ItemPedido item(String produtoNome, String precoUnitario, int quantidade) {
+		var produto = new Produto();
+		produto.setNome(produtoNome);
+
+		var item = new ItemPedido();
+		item.setProduto(produto);
+		item.setQuantidade(quantidade);
+		item.setPrecoUnitario(new BigDecimal(precoUnitario));
+		item.calcularPrecoTotal();
+
+		return item;
+	}
+
+}
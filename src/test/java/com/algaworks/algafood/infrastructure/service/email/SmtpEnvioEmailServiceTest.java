@@ -0,0 +1,225 @@
+package com.algaworks.algafood.infrastructure.service.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.mail.MessagingException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.core.email.EmailProperties;
+import com.algaworks.algafood.domain.service.EnvioEmailService.Mensagem;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+// Servidor SMTP em memória (GreenMail); o envio passa por um proxy TCP que conta as
+// conexões abertas e consegue derrubá-las, como faz um servidor por inatividade
+class SmtpEnvioEmailServiceTest {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private ProxySmtp proxy;
+
+	private EnvioEmailMetricas metricas;
+
+	private SmtpEnvioEmailService envioEmail;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		envioEmail.fecharConexaoPool();
+		proxy.close();
+	}
+
+	@Test
+	void deveReaproveitarConexoesDoPool_QuandoEnviarVariosLotes() throws Exception {
+		criarEnvioEmail(2);
+
+		assertThat(envioEmail.enviar(mensagens(10))).isEmpty();
+		assertThat(envioEmail.enviar(mensagens(10))).isEmpty();
+
+		assertThat(greenMail.getReceivedMessages()).hasSize(20);
+		assertThat(proxy.getConexoesAbertas()).isEqualTo(2);
+		assertThat(metricas.getEnviados()).isEqualTo(20);
+		assertThat(metricas.getTamanhoFila()).isZero();
+	}
+
+	@Test
+	void deveFalharApenasAMensagemComProblema_QuandoEnviarLoteComPool() throws Exception {
+		criarEnvioEmail(2);
+
+		List<Mensagem> mensagens = new ArrayList<>(mensagens(5));
+		Mensagem semDestinatario = Mensagem.builder().assunto("Sem destinatário").corpo("teste.html").build();
+		mensagens.add(2, semDestinatario);
+
+		Map<Mensagem, Exception> falhas = envioEmail.enviar(mensagens);
+
+		assertThat(falhas).containsOnlyKeys(semDestinatario);
+		assertThat(falhas.get(semDestinatario)).isInstanceOf(MessagingException.class);
+		assertThat(greenMail.getReceivedMessages()).hasSize(5);
+		assertThat(metricas.getFalhas()).isEqualTo(1);
+		assertThat(metricas.getTamanhoFila()).isZero();
+	}
+
+	@Test
+	void deveReconectar_QuandoServidorDerrubarConexoesDoPool() throws Exception {
+		criarEnvioEmail(2);
+
+		assertThat(envioEmail.enviar(mensagens(4))).isEmpty();
+		assertThat(proxy.getConexoesAbertas()).isEqualTo(2);
+
+		proxy.derrubarConexoes();
+
+		assertThat(envioEmail.enviar(mensagens(4))).isEmpty();
+		assertThat(greenMail.getReceivedMessages()).hasSize(8);
+		assertThat(proxy.getConexoesAbertas()).isEqualTo(4);
+	}
+
+	@Test
+	void deveFalharApenasAMensagemComProblema_QuandoEnviarLoteSemPool() throws Exception {
+		criarEnvioEmail(0);
+
+		List<Mensagem> mensagens = new ArrayList<>(mensagens(3));
+		Mensagem semDestinatario = Mensagem.builder().assunto("Sem destinatário").corpo("teste.html").build();
+		mensagens.add(semDestinatario);
+
+		Map<Mensagem, Exception> falhas = envioEmail.enviar(mensagens);
+
+		assertThat(falhas).containsOnlyKeys(semDestinatario);
+		assertThat(greenMail.getReceivedMessages()).hasSize(3);
+		assertThat(proxy.getConexoesAbertas()).isEqualTo(1);
+	}
+
+	private void criarEnvioEmail(int conexoes) throws IOException {
+		proxy = new ProxySmtp(greenMail.getSmtp().getPort());
+
+		var mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(proxy.getPorta());
+
+		var emailProperties = new EmailProperties();
+		emailProperties.setRemetente("AlgaFood <naoresponder@algafood.com.br>");
+		emailProperties.getSmtp().setConexoes(conexoes);
+
+		var processadorEmailTemplate = mock(ProcessadorEmailTemplate.class);
+		when(processadorEmailTemplate.processarTemplate(any())).thenReturn("<p>Pedido confirmado</p>");
+
+		metricas = new EnvioEmailMetricas();
+
+		envioEmail = new SmtpEnvioEmailService();
+		ReflectionTestUtils.setField(envioEmail, "mailSender", mailSender);
+		ReflectionTestUtils.setField(envioEmail, "emailProperties", emailProperties);
+		ReflectionTestUtils.setField(envioEmail, "processadorEmailTemplate", processadorEmailTemplate);
+		ReflectionTestUtils.setField(envioEmail, "metricas", metricas);
+		envioEmail.iniciarConexaoPool();
+	}
+
+	private static List<Mensagem> mensagens(int quantidade) {
+		return IntStream.rangeClosed(1, quantidade)
+				.mapToObj(i -> Mensagem.builder()
+						.assunto("Pedido confirmado")
+						.corpo("pedido-confirmado.html")
+						.destinatario("cliente" + i + "@algafood.com.br")
+						.build())
+				.collect(Collectors.toList());
+	}
+
+	private static class ProxySmtp implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final int portaDestino;
+		private final AtomicInteger conexoesAbertas = new AtomicInteger();
+		private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+		ProxySmtp(int portaDestino) throws IOException {
+			this.portaDestino = portaDestino;
+			this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+			iniciar(this::aceitar);
+		}
+
+		int getPorta() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getConexoesAbertas() {
+			return conexoesAbertas.get();
+		}
+
+		void derrubarConexoes() {
+			sockets.forEach(ProxySmtp::fechar);
+			sockets.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+			derrubarConexoes();
+		}
+
+		private void aceitar() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket cliente = serverSocket.accept();
+					Socket servidor = new Socket(InetAddress.getLoopbackAddress(), portaDestino);
+					conexoesAbertas.incrementAndGet();
+					sockets.add(cliente);
+					sockets.add(servidor);
+
+					iniciar(() -> copiar(cliente, servidor));
+					iniciar(() -> copiar(servidor, cliente));
+				} catch (IOException e) {
+					// Proxy fechado
+				}
+			}
+		}
+
+		private static void copiar(Socket origem, Socket destino) {
+			try (InputStream entrada = origem.getInputStream(); OutputStream saida = destino.getOutputStream()) {
+				entrada.transferTo(saida);
+			} catch (IOException e) {
+				// Conexão encerrada por um dos lados
+			} finally {
+				fechar(origem);
+				fechar(destino);
+			}
+		}
+
+		private static void fechar(Socket socket) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Já fechado
+			}
+		}
+
+		private static void iniciar(Runnable tarefa) {
+			Thread thread = new Thread(tarefa, "proxy-smtp");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+	}
+
+}
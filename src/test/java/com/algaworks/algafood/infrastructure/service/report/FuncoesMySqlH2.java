@@ -0,0 +1,66 @@
+package com.algaworks.algafood.infrastructure.service.report;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Funções do MySQL usadas pelas consultas nativas, registradas no H2 dos testes
+ * (create alias exige classe e métodos públicos). O date_format só entende os
+ * especificadores de data e hora numéricos.
+ */
+public class FuncoesMySqlH2 {
+
+	private static final Map<Character, String> ESPECIFICADORES = Map.of(
+			'Y', "yyyy", 'm', "MM", 'd', "dd", 'H', "HH", 'i', "mm", 's', "ss");
+	
+	public static void registrar(EntityManager manager) {
+		manager.createNativeQuery("create alias if not exists convert_tz for \""
+				+ FuncoesMySqlH2.class.getName() + ".convertTz\"").executeUpdate();
+		manager.createNativeQuery("create alias if not exists date for \""
+				+ FuncoesMySqlH2.class.getName() + ".date\"").executeUpdate();
+		manager.createNativeQuery("create alias if not exists date_format for \""
+				+ FuncoesMySqlH2.class.getName() + ".dateFormat\"").executeUpdate();
+		manager.createNativeQuery("create alias if not exists utc_timestamp for \""
+				+ FuncoesMySqlH2.class.getName() + ".utcTimestamp\"").executeUpdate();
+	}
+	
+	public static Timestamp convertTz(Timestamp dataHora, String de, String para) {
+		return Timestamp.valueOf(dataHora.toLocalDateTime()
+				.atOffset(ZoneOffset.of(de))
+				.withOffsetSameInstant(ZoneOffset.of(para))
+				.toLocalDateTime());
+	}
+	
+	public static Date date(Timestamp dataHora) {
+		return Date.valueOf(dataHora.toLocalDateTime().toLocalDate());
+	}
+	
+	public static Timestamp utcTimestamp() {
+		return Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+	}
+	
+	public static String dateFormat(Timestamp dataHora, String formato) {
+		var padrao = new StringBuilder();
+		
+		for (int i = 0; i < formato.length(); i++) {
+			char caractere = formato.charAt(i);
+			
+			if (caractere == '%' && i + 1 < formato.length()) {
+				padrao.append(ESPECIFICADORES.get(formato.charAt(++i)));
+			} else if (Character.isLetter(caractere)) {
+				padrao.append('\'').append(caractere).append('\'');
+			} else {
+				padrao.append(caractere);
+			}
+		}
+		
+		return dataHora.toLocalDateTime().format(DateTimeFormatter.ofPattern(padrao.toString()));
+	}
+
+}
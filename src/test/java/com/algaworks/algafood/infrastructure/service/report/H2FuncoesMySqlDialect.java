@@ -0,0 +1,17 @@
+package com.algaworks.algafood.infrastructure.service.report;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.function.StandardSQLFunction;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate a função date com o tipo que o MySQLDialect usa; sem o tipo,
+ * o Hibernate não consegue percorrer (scroll) consultas que a selecionam.
+ */
+public class H2FuncoesMySqlDialect extends H2Dialect {
+
+	public H2FuncoesMySqlDialect() {
+		registerFunction("date", new StandardSQLFunction("date", StandardBasicTypes.DATE));
+	}
+
+}
@@ -0,0 +1,277 @@
+package com.algaworks.algafood.infrastructure.service.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.persistence.EntityManager;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.algaworks.algafood.domain.filter.VendaDiariaFilter;
+import com.algaworks.algafood.domain.model.Cidade;
+import com.algaworks.algafood.domain.model.Cozinha;
+import com.algaworks.algafood.domain.model.Endereco;
+import com.algaworks.algafood.domain.model.Estado;
+import com.algaworks.algafood.domain.model.FormaPagamento;
+import com.algaworks.algafood.domain.model.Pedido;
+import com.algaworks.algafood.domain.model.Restaurante;
+import com.algaworks.algafood.domain.model.Usuario;
+
+/*
+ * Exportação pelas duas consultas do VendaQueryServiceImpl: a tabela venda_hora, quando
+ * o fuso é de horas inteiras, e os pedidos nos demais casos. A venda_hora tem uma hora
+ * a mais que os pedidos (dia 12), para que cada teste saiba qual consulta respondeu.
+ *
+ * As funções do MySQL usadas nas consultas são registradas no H2 (FuncoesMySqlH2) e no
+ * Hibernate (H2FuncoesMySqlDialect). Sem transação no teste: a exportação abre a sua,
+ * como em produção.
+ */
+@DataJpaTest(includeFilters = @ComponentScan.Filter(Repository.class), properties =
+		"spring.jpa.properties.hibernate.dialect=com.algaworks.algafood.infrastructure.service.report.H2FuncoesMySqlDialect")
+@Import(PlanilhaVendaExportService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlanilhaVendaExportServiceTest {
+
+	private static TimeZone timeZonePadrao;
+
+	@Autowired
+	private PlanilhaVendaExportService vendaExportService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private VendaDiariaFilter filtro;
+
+	// Como na aplicação (AlgafoodApiApplication)
+	@BeforeAll
+	static void definirTimeZone() {
+		timeZonePadrao = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+	}
+
+	@AfterAll
+	static void restaurarTimeZone() {
+		TimeZone.setDefault(timeZonePadrao);
+	}
+
+	@BeforeEach
+	void setUp() {
+		Long restauranteId = transactionTemplate.execute(status -> {
+			FuncoesMySqlH2.registrar(entityManager);
+			entityManager.createNativeQuery("create table if not exists venda_hora ("
+					+ "restaurante_id bigint not null, hora timestamp not null, "
+					+ "total_vendas int not null, total_faturado decimal(12,2) not null, "
+					+ "primary key (restaurante_id, hora))").executeUpdate();
+
+			return criarVendas();
+		});
+
+		filtro = new VendaDiariaFilter();
+		filtro.setRestauranteId(restauranteId);
+	}
+
+	@Test
+	void deveExportarCsvDaVendaHora_QuandoFusoForDeHorasInteiras() {
+		assertThat(exportarCsv("+03:00")).containsExactly(
+				"data,total_vendas,total_faturado",
+				"2026-01-10,1,50.00",
+				"2026-01-11,2,50.00",
+				"2026-01-12,1,10.00");
+	}
+
+	@Test
+	void deveExportarCsvDosPedidos_QuandoFusoNaoForDeHorasInteiras() {
+		assertThat(exportarCsv("+03:30")).containsExactly(
+				"data,total_vendas,total_faturado",
+				"2026-01-10,1,50.00",
+				"2026-01-11,2,50.00");
+	}
+
+	@Test
+	void deveExportarCsvDosPedidos_QuandoPeriodoNaoComecarEmHoraCheia() {
+		filtro.setDataCriacaoInicio(OffsetDateTime.of(2026, 1, 10, 10, 30, 0, 0, ZoneOffset.UTC));
+
+		assertThat(exportarCsv("+00:00")).containsExactly(
+				"data,total_vendas,total_faturado",
+				"2026-01-10,1,30.00",
+				"2026-01-11,1,20.00");
+	}
+
+	@Test
+	void deveExportarXlsxDaVendaHora_QuandoFusoForDeHorasInteiras() throws IOException {
+		assertThat(exportarXlsx("+00:00")).containsExactly(
+				List.of("2026-01-10", "2", "80.0"),
+				List.of("2026-01-11", "1", "20.0"),
+				List.of("2026-01-12", "1", "10.0"));
+	}
+
+	@Test
+	void deveExportarXlsxDosPedidos_QuandoFusoNaoForDeHorasInteiras() throws IOException {
+		assertThat(exportarXlsx("-02:30")).containsExactly(
+				List.of("2026-01-10", "2", "80.0"),
+				List.of("2026-01-11", "1", "20.0"));
+	}
+
+	// A consulta não ordena; as linhas são ordenadas pela data para comparar
+	private List<String> exportarCsv(String timeOffset) {
+		var saida = new ByteArrayOutputStream();
+		vendaExportService.exportarVendasDiariasCsv(filtro, timeOffset, saida);
+
+		List<String> linhas = new ArrayList<>(Arrays.asList(
+				new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\r\n")));
+		linhas.subList(1, linhas.size()).sort(null);
+
+		return linhas;
+	}
+
+	private List<List<String>> exportarXlsx(String timeOffset) throws IOException {
+		var saida = new ByteArrayOutputStream();
+		vendaExportService.exportarVendasDiariasXlsx(filtro, timeOffset, saida);
+
+		List<List<String>> linhas = new ArrayList<>();
+
+		try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(saida.toByteArray()))) {
+			Sheet planilha = workbook.getSheetAt(0);
+			assertThat(planilha.getRow(0).getCell(0).getStringCellValue()).isEqualTo("data");
+
+			for (Row linha : planilha) {
+				if (linha.getRowNum() > 0) {
+					linhas.add(List.of(
+							linha.getCell(0).getLocalDateTimeCellValue().toLocalDate().toString(),
+							String.valueOf((long) linha.getCell(1).getNumericCellValue()),
+							String.valueOf(linha.getCell(2).getNumericCellValue())));
+				}
+			}
+		}
+
+		linhas.sort((a, b) -> a.get(0).compareTo(b.get(0)));
+
+		return linhas;
+	}
+
+	private Long criarVendas() {
+		var estado = new Estado();
+		estado.setNome("Minas Gerais");
+		entityManager.persist(estado);
+
+		var cidade = new Cidade();
+		cidade.setNome("Uberlândia");
+		cidade.setEstado(estado);
+		entityManager.persist(cidade);
+
+		var cozinha = new Cozinha();
+		cozinha.setNome("Tailandesa");
+		entityManager.persist(cozinha);
+
+		var restaurante = new Restaurante();
+		restaurante.setNome("Thai Gourmet");
+		restaurante.setTaxaFrete(BigDecimal.ZERO);
+		restaurante.setCozinha(cozinha);
+		restaurante.setEndereco(endereco(cidade));
+		entityManager.persist(restaurante);
+
+		var formaPagamento = new FormaPagamento();
+		formaPagamento.setDescricao("Cartão de crédito");
+		entityManager.persist(formaPagamento);
+
+		var cliente = new Usuario();
+		cliente.setNome("João da Silva");
+		cliente.setEmail("joao" + System.nanoTime() + "@algafood.com.br");
+		cliente.setSenha("123");
+		entityManager.persist(cliente);
+
+		var dia10 = LocalDate.of(2026, 1, 10);
+		var dia11 = dia10.plusDays(1);
+
+		pedido(restaurante, formaPagamento, cliente, dia10.atTime(10, 15), "50.00", true);
+		pedido(restaurante, formaPagamento, cliente, dia10.atTime(23, 40), "30.00", true);
+		pedido(restaurante, formaPagamento, cliente, dia11.atTime(9, 0), "20.00", true);
+		pedido(restaurante, formaPagamento, cliente, dia10.atTime(12, 0), "100.00", false);
+
+		vendaHora(restaurante, dia10.atTime(10, 0), 1, "50.00");
+		vendaHora(restaurante, dia10.atTime(23, 0), 1, "30.00");
+		vendaHora(restaurante, dia11.atTime(9, 0), 1, "20.00");
+		vendaHora(restaurante, dia11.plusDays(1).atTime(10, 0), 1, "10.00");
+
+		return restaurante.getId();
+	}
+
+	private void pedido(Restaurante restaurante, FormaPagamento formaPagamento, Usuario cliente,
+			LocalDateTime dataCriacaoUtc, String valorTotal, boolean confirmado) {
+		var pedido = new Pedido();
+		pedido.setRestaurante(restaurante);
+		pedido.setFormaPagamento(formaPagamento);
+		pedido.setCliente(cliente);
+		pedido.setEnderecoEntrega(restaurante.getEndereco());
+		pedido.setSubtotal(new BigDecimal(valorTotal));
+		pedido.setTaxaFrete(BigDecimal.ZERO);
+		pedido.setValorTotal(new BigDecimal(valorTotal));
+
+		if (confirmado) {
+			pedido.confirmar();
+		}
+
+		entityManager.persist(pedido);
+		entityManager.flush();
+
+		// dataCriacao é preenchida pelo Hibernate na inclusão
+		entityManager.createQuery("update Pedido set dataCriacao = :dataCriacao where id = :id")
+			.setParameter("dataCriacao", dataCriacaoUtc.atOffset(ZoneOffset.UTC))
+			.setParameter("id", pedido.getId())
+			.executeUpdate();
+	}
+
+	private void vendaHora(Restaurante restaurante, LocalDateTime horaUtc, int totalVendas, String totalFaturado) {
+		entityManager.createNativeQuery("insert into venda_hora "
+				+ "(restaurante_id, hora, total_vendas, total_faturado) values (?, ?, ?, ?)")
+			.setParameter(1, restaurante.getId())
+			.setParameter(2, horaUtc)
+			.setParameter(3, totalVendas)
+			.setParameter(4, new BigDecimal(totalFaturado))
+			.executeUpdate();
+	}
+
+	private static Endereco endereco(Cidade cidade) {
+		var endereco = new Endereco();
+		endereco.setCep("38400-000");
+		endereco.setLogradouro("Rua Floriano Peixoto");
+		endereco.setNumero("500");
+		endereco.setBairro("Centro");
+		endereco.setCidade(cidade);
+
+		return endereco;
+	}
+
+}
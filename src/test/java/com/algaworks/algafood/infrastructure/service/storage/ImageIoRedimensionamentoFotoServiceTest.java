@@ -0,0 +1,132 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.RedimensionamentoFotoService.FotoRedimensionada;
+
+class ImageIoRedimensionamentoFotoServiceTest {
+
+	private ImageIoRedimensionamentoFotoService redimensionamentoFotoService;
+
+	@BeforeEach
+	void setUp() {
+		redimensionamentoFotoService = new ImageIoRedimensionamentoFotoService();
+		ReflectionTestUtils.setField(redimensionamentoFotoService, "storageProperties", new StorageProperties());
+	}
+
+	@Test
+	void deveGerarUmaVariantePorLarguraMantendoProporcao_QuandoOriginalForJpeg() throws Exception {
+		InputStream original = imagem(1200, 800, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+		List<FotoRedimensionada> fotos = redimensionamentoFotoService.redimensionar(
+				original, MediaType.IMAGE_JPEG_VALUE, List.of(320, 640, 100, 320));
+
+		assertThat(fotos).extracting(FotoRedimensionada::getLargura).containsExactly(640, 320, 100);
+		assertThat(fotos).extracting(FotoRedimensionada::getContentType).containsOnly(MediaType.IMAGE_JPEG_VALUE);
+
+		for (FotoRedimensionada foto : fotos) {
+			BufferedImage imagem = ler(foto);
+			assertThat(imagem.getWidth()).isEqualTo(foto.getLargura());
+			assertThat(imagem.getHeight()).isCloseTo(foto.getLargura() * 2 / 3, within(1));
+			assertThat(imagem.getColorModel().hasAlpha()).isFalse();
+		}
+	}
+
+	@Test
+	void deveIgnorarLargurasIguaisOuMaioresQueOriginal() throws Exception {
+		InputStream original = imagem(500, 500, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+		List<FotoRedimensionada> fotos = redimensionamentoFotoService.redimensionar(
+				original, MediaType.IMAGE_JPEG_VALUE, List.of(1024, 500, 250, 0));
+
+		assertThat(fotos).extracting(FotoRedimensionada::getLargura).containsExactly(250);
+	}
+
+	@Test
+	void devePreservarTransparencia_QuandoOriginalForPng() throws Exception {
+		InputStream original = imagem(800, 400, BufferedImage.TYPE_INT_ARGB, "png");
+
+		List<FotoRedimensionada> fotos = redimensionamentoFotoService.redimensionar(
+				original, MediaType.IMAGE_PNG_VALUE, List.of(200));
+
+		assertThat(fotos).hasSize(1);
+		assertThat(fotos.get(0).getContentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+
+		BufferedImage imagem = ler(fotos.get(0));
+		assertThat(imagem.getColorModel().hasAlpha()).isTrue();
+		assertThat(alfa(imagem, 0, 0)).isZero();
+		assertThat(alfa(imagem, 100, 50)).isEqualTo(255);
+	}
+
+	@Test
+	void deveDescartarPixelsNaLeitura_QuandoOriginalForMuitoMaiorQueMaiorVariante() throws Exception {
+		BufferedImage imagem = redimensionamentoFotoService.ler(
+				imagem(4000, 100, BufferedImage.TYPE_INT_RGB, "png"), List.of(128, 640));
+
+		// Fator 3 (4000 / 1280): a imagem lida ainda tem o dobro da maior variante
+		assertThat(imagem.getWidth()).isEqualTo(1334);
+	}
+
+	@Test
+	void deveLerImagemInteira_QuandoOriginalNaoForBemMaiorQueMaiorVariante() throws Exception {
+		BufferedImage imagem = redimensionamentoFotoService.ler(
+				imagem(1000, 100, BufferedImage.TYPE_INT_RGB, "png"), List.of(640));
+
+		assertThat(imagem.getWidth()).isEqualTo(1000);
+	}
+
+	@Test
+	void deveLancarStorageException_QuandoConteudoNaoForImagem() {
+		var original = new ByteArrayInputStream("não é uma imagem".getBytes());
+
+		assertThatThrownBy(() -> redimensionamentoFotoService.redimensionar(
+				original, MediaType.IMAGE_JPEG_VALUE, List.of(128)))
+			.isInstanceOf(StorageException.class);
+	}
+
+	// Fundo transparente (quando o tipo tem alfa) com um retângulo opaco no centro
+	private static InputStream imagem(int largura, int altura, int tipo, String formato) throws IOException {
+		var imagem = new BufferedImage(largura, altura, tipo);
+		Graphics2D graphics = imagem.createGraphics();
+
+		try {
+			graphics.setColor(Color.ORANGE);
+			graphics.fillRect(largura / 4, altura / 4, largura / 2, altura / 2);
+		} finally {
+			graphics.dispose();
+		}
+
+		var saida = new ByteArrayOutputStream();
+		ImageIO.write(imagem, formato, saida);
+
+		return new ByteArrayInputStream(saida.toByteArray());
+	}
+
+	private static BufferedImage ler(FotoRedimensionada foto) throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(foto.getConteudo()));
+	}
+
+	private static int alfa(BufferedImage imagem, int x, int y) {
+		return imagem.getRGB(x, y) >>> 24;
+	}
+
+}
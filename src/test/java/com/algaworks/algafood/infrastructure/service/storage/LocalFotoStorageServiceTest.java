@@ -0,0 +1,71 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+
+class LocalFotoStorageServiceTest {
+
+	@TempDir
+	Path raiz;
+
+	private Path diretorioFotos;
+
+	private LocalFotoStorageService fotoStorageService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		diretorioFotos = Files.createDirectory(raiz.resolve("fotos"));
+
+		StorageProperties storageProperties = new StorageProperties();
+		storageProperties.getLocal().setDiretorioFotos(diretorioFotos);
+
+		fotoStorageService = new LocalFotoStorageService();
+		ReflectionTestUtils.setField(fotoStorageService, "storageProperties", storageProperties);
+	}
+
+	@Test
+	void deveArmazenarNoDiretorioDeFotos_QuandoNomeForSimples() {
+		fotoStorageService.armazenar(novaFoto("abc_foto.jpg"));
+
+		assertThat(diretorioFotos.resolve("abc_foto.jpg")).exists();
+	}
+
+	@Test
+	void deveRecusar_QuandoNomeSairDoDiretorioDeFotos() {
+		assertThatThrownBy(() -> fotoStorageService.armazenar(novaFoto("../fora.jpg")))
+			.isInstanceOf(StorageException.class);
+		assertThatThrownBy(() -> fotoStorageService.remover("../fora.jpg"))
+			.isInstanceOf(StorageException.class);
+		assertThatThrownBy(() -> fotoStorageService.abrir(raiz.resolve("fora.jpg").toString()))
+			.isInstanceOf(StorageException.class);
+
+		assertThat(raiz.resolve("fora.jpg")).doesNotExist();
+	}
+
+	@Test
+	void deveRecusar_QuandoNomeApontarParaSubdiretorio() {
+		assertThatThrownBy(() -> fotoStorageService.armazenar(novaFoto("sub/foto.jpg")))
+			.isInstanceOf(StorageException.class);
+	}
+
+	private static NovaFoto novaFoto(String nomeArquivo) {
+		return NovaFoto.builder()
+				.nomeArquivo(nomeArquivo)
+				.contentType("image/jpeg")
+				.inputStream(new ByteArrayInputStream(new byte[] { 1, 2, 3 }))
+				.build();
+	}
+
+}
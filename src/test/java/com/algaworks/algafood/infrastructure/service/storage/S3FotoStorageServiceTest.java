@@ -0,0 +1,225 @@
+package com.algaworks.algafood.infrastructure.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.algaworks.algafood.core.storage.StorageProperties;
+import com.algaworks.algafood.domain.service.FotoStorageService.NovaFoto;
+import com.amazonaws.HttpMethod;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+class S3FotoStorageServiceTest {
+
+	private static final int TAMANHO_PARTE = 16;
+
+	private static final String BUCKET = "algafood-test";
+
+	private AmazonS3 amazonS3;
+
+	private StorageProperties storageProperties;
+
+	// Tamanho de cada parte enviada, na ordem; o conteúdo só pode ser lido durante a chamada
+	private List<Integer> tamanhosPartes;
+
+	@BeforeEach
+	void setUp() {
+		amazonS3 = mock(AmazonS3.class);
+		tamanhosPartes = new ArrayList<>();
+
+		storageProperties = new StorageProperties();
+		storageProperties.getS3().setBucket(BUCKET);
+		storageProperties.getS3().setDiretorioFotos("catalogo");
+		storageProperties.getS3().setTamanhoParteMultipart(DataSize.ofBytes(TAMANHO_PARTE));
+
+		var inicioMultipart = new InitiateMultipartUploadResult();
+		inicioMultipart.setUploadId("upload-1");
+		when(amazonS3.initiateMultipartUpload(any())).thenReturn(inicioMultipart);
+
+		when(amazonS3.uploadPart(any())).thenAnswer(invocacao -> {
+			UploadPartRequest request = invocacao.getArgument(0);
+			tamanhosPartes.add(request.getInputStream().readAllBytes().length);
+
+			var resultado = new UploadPartResult();
+			resultado.setPartNumber(request.getPartNumber());
+			resultado.setETag("etag-" + request.getPartNumber());
+			return resultado;
+		});
+	}
+
+	@Test
+	void deveEnviarEmUmPutObject_QuandoArquivoForMenorQueUmaParte() {
+		criarFotoStorageService().armazenar(novaFoto(TAMANHO_PARTE - 1));
+
+		var putObject = ArgumentCaptor.forClass(PutObjectRequest.class);
+		verify(amazonS3).putObject(putObject.capture());
+		verify(amazonS3, never()).initiateMultipartUpload(any());
+
+		assertThat(putObject.getValue().getKey()).isEqualTo("catalogo/foto.jpg");
+		assertThat(putObject.getValue().getMetadata().getContentLength()).isEqualTo(TAMANHO_PARTE - 1);
+		assertThat(putObject.getValue().getMetadata().getContentType()).isEqualTo("image/jpeg");
+	}
+
+	@Test
+	void deveEnviarEmMultipart_QuandoArquivoTiverExatamenteUmaParte() {
+		criarFotoStorageService().armazenar(novaFoto(TAMANHO_PARTE));
+
+		verify(amazonS3, never()).putObject(any(PutObjectRequest.class));
+		assertThat(tamanhosPartes).containsExactly(TAMANHO_PARTE);
+
+		var conclusao = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		verify(amazonS3).completeMultipartUpload(conclusao.capture());
+		assertThat(conclusao.getValue().getUploadId()).isEqualTo("upload-1");
+		assertThat(conclusao.getValue().getPartETags()).hasSize(1);
+	}
+
+	@Test
+	void deveEnviarTodasAsPartesEmOrdem_QuandoArquivoTiverVariasPartes() {
+		criarFotoStorageService().armazenar(novaFoto(2 * TAMANHO_PARTE + 1));
+
+		assertThat(tamanhosPartes).containsExactly(TAMANHO_PARTE, TAMANHO_PARTE, 1);
+
+		var conclusao = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		verify(amazonS3).completeMultipartUpload(conclusao.capture());
+		assertThat(conclusao.getValue().getPartETags())
+			.extracting(partETag -> partETag.getPartNumber())
+			.containsExactly(1, 2, 3);
+		verify(amazonS3, never()).abortMultipartUpload(any());
+	}
+
+	@Test
+	void deveAbortarMultipart_QuandoEnvioDeUmaParteFalhar() {
+		doReturn(resultadoParte(1))
+			.doThrow(new SdkClientException("Conexão encerrada"))
+			.when(amazonS3).uploadPart(any());
+
+		var fotoStorageService = criarFotoStorageService();
+
+		assertThatThrownBy(() -> fotoStorageService.armazenar(novaFoto(3 * TAMANHO_PARTE)))
+			.isInstanceOf(StorageException.class);
+
+		var cancelamento = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+		verify(amazonS3).abortMultipartUpload(cancelamento.capture());
+		assertThat(cancelamento.getValue().getUploadId()).isEqualTo("upload-1");
+		verify(amazonS3, never()).completeMultipartUpload(any());
+	}
+
+	@Test
+	void deveEnviarObjetosPublicos_QuandoUrlNaoForAssinada() {
+		var fotoStorageService = criarFotoStorageService();
+
+		fotoStorageService.armazenar(novaFoto(TAMANHO_PARTE - 1));
+		fotoStorageService.armazenar(novaFoto(TAMANHO_PARTE));
+
+		var putObject = ArgumentCaptor.forClass(PutObjectRequest.class);
+		verify(amazonS3).putObject(putObject.capture());
+		assertThat(putObject.getValue().getCannedAcl()).isEqualTo(CannedAccessControlList.PublicRead);
+
+		var inicioMultipart = ArgumentCaptor.forClass(InitiateMultipartUploadRequest.class);
+		verify(amazonS3).initiateMultipartUpload(inicioMultipart.capture());
+		assertThat(inicioMultipart.getValue().getCannedACL()).isEqualTo(CannedAccessControlList.PublicRead);
+	}
+
+	@Test
+	void deveEnviarObjetosComAclPadraoDoBucket_QuandoUrlForAssinada() {
+		storageProperties.getS3().setUrlAssinada(true);
+		var fotoStorageService = criarFotoStorageService();
+
+		fotoStorageService.armazenar(novaFoto(TAMANHO_PARTE - 1));
+		fotoStorageService.armazenar(novaFoto(TAMANHO_PARTE));
+
+		var putObject = ArgumentCaptor.forClass(PutObjectRequest.class);
+		verify(amazonS3).putObject(putObject.capture());
+		assertThat(putObject.getValue().getCannedAcl()).isNull();
+
+		var inicioMultipart = ArgumentCaptor.forClass(InitiateMultipartUploadRequest.class);
+		verify(amazonS3).initiateMultipartUpload(inicioMultipart.capture());
+		assertThat(inicioMultipart.getValue().getCannedACL()).isNull();
+	}
+
+	@Test
+	void deveReaproveitarUrlAssinadaAteRemoverArquivo() throws Exception {
+		storageProperties.getS3().setUrlAssinada(true);
+		when(amazonS3.generatePresignedUrl(eq(BUCKET), eq("catalogo/foto.jpg"), any(Date.class), eq(HttpMethod.GET)))
+			.thenReturn(new URL("https://s3/catalogo/foto.jpg?assinatura=1"))
+			.thenReturn(new URL("https://s3/catalogo/foto.jpg?assinatura=2"));
+
+		var fotoStorageService = criarFotoStorageService();
+
+		assertThat(fotoStorageService.recuperar("foto.jpg").getUrl()).endsWith("assinatura=1");
+		assertThat(fotoStorageService.recuperar("foto.jpg").getUrl()).endsWith("assinatura=1");
+
+		fotoStorageService.remover("foto.jpg");
+
+		var exclusao = ArgumentCaptor.forClass(DeleteObjectRequest.class);
+		verify(amazonS3).deleteObject(exclusao.capture());
+		assertThat(exclusao.getValue().getKey()).isEqualTo("catalogo/foto.jpg");
+
+		assertThat(fotoStorageService.recuperar("foto.jpg").getUrl()).endsWith("assinatura=2");
+		verify(amazonS3, times(2)).generatePresignedUrl(any(String.class), any(String.class), any(Date.class),
+				any(HttpMethod.class));
+	}
+
+	@Test
+	void deveUsarUrlPublica_QuandoUrlNaoForAssinada() throws Exception {
+		when(amazonS3.getUrl(BUCKET, "catalogo/foto.jpg")).thenReturn(new URL("https://s3/catalogo/foto.jpg"));
+
+		assertThat(criarFotoStorageService().recuperar("foto.jpg").getUrl()).isEqualTo("https://s3/catalogo/foto.jpg");
+		verify(amazonS3, never()).generatePresignedUrl(any(String.class), any(String.class), any(Date.class),
+				any(HttpMethod.class));
+	}
+
+	private S3FotoStorageService criarFotoStorageService() {
+		var fotoStorageService = new S3FotoStorageService();
+		ReflectionTestUtils.setField(fotoStorageService, "amazonS3", amazonS3);
+		ReflectionTestUtils.setField(fotoStorageService, "storageProperties", storageProperties);
+		fotoStorageService.inicializar();
+
+		return fotoStorageService;
+	}
+
+	private static NovaFoto novaFoto(int tamanho) {
+		return NovaFoto.builder()
+				.nomeArquivo("foto.jpg")
+				.contentType("image/jpeg")
+				.inputStream(new ByteArrayInputStream(new byte[tamanho]))
+				.build();
+	}
+
+	private static UploadPartResult resultadoParte(int numero) {
+		var resultado = new UploadPartResult();
+		resultado.setPartNumber(numero);
+		resultado.setETag("etag-" + numero);
+		return resultado;
+	}
+
+}